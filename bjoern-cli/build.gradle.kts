@@ -0,0 +1,52 @@
+plugins {
+    id("java")
+    application
+}
+
+group = "de.mehtrick"
+version = rootProject.version
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+// The validation rules are shared with the plugin; only plain-Java sources of the plugin are compiled here
+sourceSets {
+    main {
+        java {
+            srcDir("../src/main/java")
+            include("de/mehtrick/bjoern/cli/**")
+            include("de/mehtrick/bjoern/BjoernSpecRules.java")
+        }
+    }
+}
+
+application {
+    mainClass = "de.mehtrick.bjoern.cli.BjoernCli"
+}
+
+tasks.jar {
+    manifest {
+        attributes["Main-Class"] = "de.mehtrick.bjoern.cli.BjoernCli"
+    }
+}
+
+// The tests are plain classes like the plugin's; TestRunner calls their public test methods
+val specTests by tasks.registering(JavaExec::class) {
+    description = "Runs the bjoern-cli tests."
+    group = "verification"
+    classpath = sourceSets.test.get().runtimeClasspath
+    mainClass = "de.mehtrick.bjoern.cli.TestRunner"
+    args = listOf("SpecValidatorTest", "SpecFormatterTest", "FormatCacheTest", "ReportFormatTest", "BjoernCliTest")
+        .map { "de.mehtrick.bjoern.cli.$it" }
+}
+
+tasks.test {
+    dependsOn(specTests)
+}
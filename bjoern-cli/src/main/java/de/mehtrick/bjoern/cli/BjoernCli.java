@@ -0,0 +1,357 @@
+package de.mehtrick.bjoern.cli;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Headless batch validator and formatter for Bjoern specs, for CI runs without an IDE.
+ * <p>
+ * {@code validate} applies the rules of the Bjoern structure and reference inspections to
+ * every {@code .zgr} file below the given paths. Files are read and validated in parallel on
+ * a fork-join pool and reported as text, SARIF or JUnit XML. The exit code is 1 if any error
+ * or warning was found, 2 on usage errors, and 0 otherwise.
+ * <p>
+ * {@code format} rewrites the specs in the layout of the plugin's formatter, in parallel and
+ * through file channels. With {@code --check} it only lists the specs that are not formatted
+ * and exits with 1 if there are any. With {@code --cache} it skips specs whose content hash is
+ * recorded as formatted. The exit code is 2 if a spec could not be read or written.
+ */
+public final class BjoernCli {
+
+    private static final String USAGE = String.join("\n",
+            "Usage: bjoern-cli validate [options] <file-or-directory>...",
+            "       bjoern-cli format [options] <file-or-directory>...",
+            "",
+            "Validate options:",
+            "  --format=text|sarif|junit   Report format (default: text)",
+            "  --output=<file>             Write the report to a file instead of stdout",
+            "",
+            "Format options:",
+            "  --check                     List specs that are not formatted instead of formatting them",
+            "  --cache=<file>              Skip specs whose content hash is recorded as formatted",
+            "",
+            "Common options:",
+            "  --parallelism=<n>           Number of worker threads (default: available processors)",
+            "");
+
+    // Files per fork-join leaf task
+    private static final int BATCH_SIZE = 32;
+
+    private BjoernCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        if (args.length == 0) {
+            System.err.print(USAGE);
+            return 2;
+        }
+        List<String> options = Arrays.asList(args).subList(1, args.length);
+        return switch (args[0]) {
+            case "validate" -> validate(options);
+            case "format" -> format(options);
+            default -> {
+                System.err.print(USAGE);
+                yield 2;
+            }
+        };
+    }
+
+    private static int validate(List<String> args) {
+        ReportFormat format = ReportFormat.TEXT;
+        Path output = null;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        List<Path> roots = new ArrayList<>();
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--format=")) {
+                    format = ReportFormat.parse(arg.substring("--format=".length()));
+                } else if (arg.startsWith("--output=")) {
+                    output = Path.of(arg.substring("--output=".length()));
+                } else if (arg.startsWith("--parallelism=")) {
+                    parallelism = Integer.parseInt(arg.substring("--parallelism=".length()));
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                } else {
+                    roots.add(Path.of(arg));
+                }
+            }
+            if (roots.isEmpty()) {
+                throw new IllegalArgumentException("No files or directories given");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        try {
+            long start = System.nanoTime();
+            List<Path> files = collectSpecFiles(roots);
+            List<ReportFormat.FileResult> results = validateAll(files, parallelism);
+            long nanos = System.nanoTime() - start;
+
+            try (Writer out = output != null
+                    ? Files.newBufferedWriter(output, StandardCharsets.UTF_8)
+                    : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+                format.write(results, out);
+            }
+
+            int problems = 0;
+            boolean failed = false;
+            for (ReportFormat.FileResult result : results) {
+                problems += result.problems().size();
+                failed |= result.hasFailures();
+            }
+            System.err.printf("Validated %d spec(s) in %d ms (%.0f specs/s), %d problem(s)%n",
+                    files.size(), nanos / 1_000_000, files.size() / Math.max(nanos / 1e9, 1e-9), problems);
+            return failed ? 1 : 0;
+        } catch (IOException e) {
+            System.err.println("bjoern-cli: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Returns the given files and the {@code .zgr} files below the given directories, sorted.
+     */
+    static List<Path> collectSpecFiles(List<Path> roots) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path root : roots) {
+            if (Files.isDirectory(root)) {
+                try (Stream<Path> walk = Files.walk(root)) {
+                    walk.filter(path -> path.getFileName().toString().endsWith(".zgr"))
+                            .filter(Files::isRegularFile)
+                            .forEach(files::add);
+                }
+            } else {
+                files.add(root);
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    static List<ReportFormat.FileResult> validateAll(List<Path> files, int parallelism) {
+        ReportFormat.FileResult[] results = new ReportFormat.FileResult[files.size()];
+        forEachParallel(files.size(), parallelism, i -> results[i] = validateFile(files.get(i)));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Runs the action for every index below {@code count} on a fork-join pool.
+     */
+    private static void forEachParallel(int count, int parallelism, IntConsumer action) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            pool.invoke(new BatchTask(action, 0, count));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntConsumer action;
+        private final int from;
+        private final int to;
+
+        BatchTask(IntConsumer action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BatchTask(action, from, middle), new BatchTask(action, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                action.accept(i);
+            }
+        }
+    }
+
+    private static ReportFormat.FileResult validateFile(Path file) {
+        long start = System.nanoTime();
+        String path = file.toString();
+        List<Problem> problems;
+        try {
+            String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            problems = SpecValidator.validate(path, text);
+        } catch (IOException e) {
+            problems = List.of(new Problem(path, 1, 1, Problem.Rule.READ_ERROR,
+                    "Could not read spec: " + e.getMessage()));
+        }
+        return new ReportFormat.FileResult(path, problems, System.nanoTime() - start);
+    }
+
+    private static int format(List<String> args) {
+        boolean check = false;
+        Path cacheFile = null;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        List<Path> roots = new ArrayList<>();
+        try {
+            for (String arg : args) {
+                if (arg.equals("--check")) {
+                    check = true;
+                } else if (arg.startsWith("--cache=")) {
+                    cacheFile = Path.of(arg.substring("--cache=".length()));
+                } else if (arg.startsWith("--parallelism=")) {
+                    parallelism = Integer.parseInt(arg.substring("--parallelism=".length()));
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                } else {
+                    roots.add(Path.of(arg));
+                }
+            }
+            if (roots.isEmpty()) {
+                throw new IllegalArgumentException("No files or directories given");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        try {
+            long start = System.nanoTime();
+            FormatCache cache = cacheFile != null ? FormatCache.load(cacheFile) : null;
+            List<Path> files = collectSpecFiles(roots);
+            List<FormatResult> results = formatAll(files, check, cache, parallelism);
+            if (cache != null) {
+                cache.save();
+            }
+            long nanos = System.nanoTime() - start;
+
+            int[] counts = new int[FormatStatus.values().length];
+            for (FormatResult result : results) {
+                counts[result.status().ordinal()]++;
+                switch (result.status()) {
+                    case FORMATTED -> System.out.println("Formatted " + result.path());
+                    case NOT_FORMATTED -> System.out.println(result.path());
+                    case FAILED -> System.err.println("bjoern-cli: " + result.path() + ": " + result.error());
+                    default -> {
+                    }
+                }
+            }
+            if (check) {
+                System.err.printf("%d of %d spec(s) not formatted, checked in %d ms, %d skipped by cache%n",
+                        counts[FormatStatus.NOT_FORMATTED.ordinal()], files.size(), nanos / 1_000_000,
+                        counts[FormatStatus.CACHED.ordinal()]);
+            } else {
+                System.err.printf("Formatted %d of %d spec(s) in %d ms, %d skipped by cache%n",
+                        counts[FormatStatus.FORMATTED.ordinal()], files.size(), nanos / 1_000_000,
+                        counts[FormatStatus.CACHED.ordinal()]);
+            }
+
+            if (counts[FormatStatus.FAILED.ordinal()] > 0) {
+                return 2;
+            }
+            return counts[FormatStatus.NOT_FORMATTED.ordinal()] > 0 ? 1 : 0;
+        } catch (IOException e) {
+            System.err.println("bjoern-cli: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    enum FormatStatus {UNCHANGED, CACHED, FORMATTED, NOT_FORMATTED, FAILED}
+
+    record FormatResult(String path, FormatStatus status, String error) {
+    }
+
+    static List<FormatResult> formatAll(List<Path> files, boolean check, FormatCache cache, int parallelism) {
+        FormatResult[] results = new FormatResult[files.size()];
+        forEachParallel(files.size(), parallelism, i -> results[i] = formatFile(files.get(i), check, cache));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Replaces the content of the file by writing a temporary file next to it and moving that
+     * over it, so an interrupted run never leaves a truncated spec behind.
+     */
+    private static void replaceAtomically(Path file, ByteBuffer content) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            if (Files.getFileAttributeView(file, PosixFileAttributeView.class) != null) {
+                Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(file));
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+                channel.force(false);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static FormatResult formatFile(Path file, boolean check, FormatCache cache) {
+        String path = file.toString();
+        try {
+            ByteBuffer content;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                content = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+                while (content.hasRemaining() && channel.read(content) >= 0) {
+                    // read until the buffer is full or the file ends
+                }
+                content.flip();
+            }
+
+            String hash = cache != null ? FormatCache.hash(content) : null;
+            if (hash != null && cache.contains(hash)) {
+                return new FormatResult(path, FormatStatus.CACHED, null);
+            }
+
+            // Strict decoding, so specs that are not UTF-8 are reported instead of being corrupted
+            String text = StandardCharsets.UTF_8.newDecoder().decode(content).toString();
+            String formatted = SpecFormatter.format(text);
+            if (formatted.equals(text)) {
+                if (hash != null) {
+                    cache.add(hash);
+                }
+                return new FormatResult(path, FormatStatus.UNCHANGED, null);
+            }
+            if (check) {
+                return new FormatResult(path, FormatStatus.NOT_FORMATTED, null);
+            }
+
+            ByteBuffer output = StandardCharsets.UTF_8.encode(formatted);
+            String formattedHash = cache != null ? FormatCache.hash(output) : null;
+            replaceAtomically(file, output);
+            if (formattedHash != null) {
+                cache.add(formattedHash);
+            }
+            return new FormatResult(path, FormatStatus.FORMATTED, null);
+        } catch (IOException | ArithmeticException e) {
+            return new FormatResult(path, FormatStatus.FAILED, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package de.mehtrick.bjoern.cli;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content hashes of specs known to be formatted, so that {@code format} skips unchanged specs
+ * without decoding or formatting them.
+ * <p>
+ * The cache file holds a header naming the formatter version and one hex SHA-256 per line. A
+ * cache written for another formatter version is ignored, since its specs may no longer be
+ * formatted. The set is safe to use from the worker threads.
+ */
+final class FormatCache {
+
+    // Bump when the output of SpecFormatter changes
+    private static final String HEADER = "bjoern-format-cache 2";
+
+    private final Path file;
+    private final Set<String> hashes = ConcurrentHashMap.newKeySet();
+
+    private FormatCache(Path file) {
+        this.file = file;
+    }
+
+    static FormatCache load(Path file) throws IOException {
+        FormatCache cache = new FormatCache(file);
+        if (Files.isRegularFile(file)) {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).equals(HEADER)) {
+                cache.hashes.addAll(lines.subList(1, lines.size()));
+            }
+        }
+        return cache;
+    }
+
+    boolean contains(String hash) {
+        return hashes.contains(hash);
+    }
+
+    void add(String hash) {
+        hashes.add(hash);
+    }
+
+    void save() throws IOException {
+        List<String> lines = new ArrayList<>(hashes.size() + 1);
+        lines.add(HEADER);
+        lines.addAll(hashes);
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Hex SHA-256 of the remaining bytes of the buffer; its position is not changed.
+     */
+    static String hash(ByteBuffer content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
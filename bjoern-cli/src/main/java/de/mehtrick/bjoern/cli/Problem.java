@@ -0,0 +1,42 @@
+package de.mehtrick.bjoern.cli;
+
+/**
+ * A validation problem at a 1-based line and column of a spec file.
+ */
+record Problem(String path, int line, int column, Rule rule, String message) {
+
+    enum Severity {
+        ERROR("error"),
+        WARNING("warning"),
+        // Weak warnings of the IDE; reported but not failing the run
+        NOTE("note");
+
+        final String sarifLevel;
+
+        Severity(String sarifLevel) {
+            this.sarifLevel = sarifLevel;
+        }
+    }
+
+    enum Rule {
+        MISSING_TOP_LEVEL_FIELD("missing-top-level-field", "Required top-level field is missing", Severity.WARNING),
+        DUPLICATE_SCENARIO_NAME("duplicate-scenario-name", "Scenario name is used twice in a spec", Severity.WARNING),
+        EMPTY_STEP_BLOCK("empty-step-block", "Given/When/Then block has no steps", Severity.NOTE),
+        INVALID_REFERENCE("invalid-reference", "Reference is not an http(s) URL or markdown link", Severity.WARNING),
+        READ_ERROR("read-error", "Spec file could not be read", Severity.ERROR);
+
+        final String id;
+        final String description;
+        final Severity severity;
+
+        Rule(String id, String description, Severity severity) {
+            this.id = id;
+            this.description = description;
+            this.severity = severity;
+        }
+    }
+
+    boolean isFailure() {
+        return rule.severity != Severity.NOTE;
+    }
+}
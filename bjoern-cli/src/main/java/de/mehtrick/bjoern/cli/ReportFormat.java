@@ -0,0 +1,175 @@
+package de.mehtrick.bjoern.cli;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Output formats of the batch validator.
+ */
+enum ReportFormat {
+
+    /**
+     * One {@code path:line:column: level: message [rule]} line per problem.
+     */
+    TEXT {
+        @Override
+        void write(List<FileResult> results, Appendable out) throws IOException {
+            for (FileResult result : results) {
+                for (Problem problem : result.problems()) {
+                    out.append(problem.path()).append(':').append(String.valueOf(problem.line()))
+                            .append(':').append(String.valueOf(problem.column())).append(": ")
+                            .append(problem.rule().severity.sarifLevel).append(": ").append(problem.message())
+                            .append(" [").append(problem.rule().id).append("]\n");
+                }
+            }
+        }
+    },
+
+    /**
+     * SARIF 2.1.0, as understood by code scanning dashboards.
+     */
+    SARIF {
+        @Override
+        void write(List<FileResult> results, Appendable out) throws IOException {
+            out.append("{\n");
+            out.append("  \"$schema\": \"https://json.schemastore.org/sarif-2.1.0.json\",\n");
+            out.append("  \"version\": \"2.1.0\",\n");
+            out.append("  \"runs\": [{\n");
+            out.append("    \"tool\": {\"driver\": {\"name\": \"bjoern-cli\", \"rules\": [");
+            boolean first = true;
+            for (Problem.Rule rule : Problem.Rule.values()) {
+                out.append(first ? "\n" : ",\n");
+                first = false;
+                out.append("      {\"id\": ").append(json(rule.id))
+                        .append(", \"shortDescription\": {\"text\": ").append(json(rule.description))
+                        .append("}, \"defaultConfiguration\": {\"level\": ").append(json(rule.severity.sarifLevel))
+                        .append("}}");
+            }
+            out.append("\n    ]}},\n");
+            out.append("    \"results\": [");
+            first = true;
+            for (FileResult result : results) {
+                for (Problem problem : result.problems()) {
+                    out.append(first ? "\n" : ",\n");
+                    first = false;
+                    out.append("      {\"ruleId\": ").append(json(problem.rule().id))
+                            .append(", \"level\": ").append(json(problem.rule().severity.sarifLevel))
+                            .append(", \"message\": {\"text\": ").append(json(problem.message()))
+                            .append("}, \"locations\": [{\"physicalLocation\": {\"artifactLocation\": {\"uri\": ")
+                            .append(json(problem.path().replace('\\', '/')))
+                            .append("}, \"region\": {\"startLine\": ").append(String.valueOf(problem.line()))
+                            .append(", \"startColumn\": ").append(String.valueOf(problem.column()))
+                            .append("}}}]}");
+                }
+            }
+            out.append(first ? "]\n" : "\n    ]\n");
+            out.append("  }]\n");
+            out.append("}\n");
+        }
+    },
+
+    /**
+     * JUnit XML with one test case per spec file; errors and warnings fail the test case.
+     */
+    JUNIT {
+        @Override
+        void write(List<FileResult> results, Appendable out) throws IOException {
+            int failures = 0;
+            long totalNanos = 0;
+            for (FileResult result : results) {
+                failures += result.hasFailures() ? 1 : 0;
+                totalNanos += result.nanos();
+            }
+            out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.append("<testsuite name=\"bjoern-validate\" tests=\"").append(String.valueOf(results.size()))
+                    .append("\" failures=\"").append(String.valueOf(failures))
+                    .append("\" errors=\"0\" time=\"").append(seconds(totalNanos)).append("\">\n");
+            for (FileResult result : results) {
+                out.append("  <testcase classname=\"bjoern\" name=\"").append(xml(result.path()))
+                        .append("\" time=\"").append(seconds(result.nanos())).append('"');
+                if (result.problems().isEmpty()) {
+                    out.append("/>\n");
+                    continue;
+                }
+                out.append(">\n");
+                StringBuilder details = new StringBuilder();
+                for (Problem problem : result.problems()) {
+                    details.append(problem.line()).append(':').append(problem.column()).append(": ")
+                            .append(problem.rule().severity.sarifLevel).append(": ").append(problem.message())
+                            .append(" [").append(problem.rule().id).append("]\n");
+                }
+                if (result.hasFailures()) {
+                    out.append("    <failure type=\"bjoern\" message=\"")
+                            .append(String.valueOf(result.problems().size())).append(" problem(s)\">")
+                            .append(xml(details.toString())).append("</failure>\n");
+                } else {
+                    out.append("    <system-out>").append(xml(details.toString())).append("</system-out>\n");
+                }
+                out.append("  </testcase>\n");
+            }
+            out.append("</testsuite>\n");
+        }
+    };
+
+    /**
+     * Problems found in one spec file and the time it took to read and validate it.
+     */
+    record FileResult(String path, List<Problem> problems, long nanos) {
+        boolean hasFailures() {
+            for (Problem problem : problems) {
+                if (problem.isFailure()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    abstract void write(List<FileResult> results, Appendable out) throws IOException;
+
+    static ReportFormat parse(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e9);
+    }
+
+    private static String json(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.append('"').toString();
+    }
+
+    private static String xml(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
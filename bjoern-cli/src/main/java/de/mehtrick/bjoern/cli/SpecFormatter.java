@@ -0,0 +1,227 @@
+package de.mehtrick.bjoern.cli;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Formatter for Bjoern specs, applying the layout of the plugin's formatter without an IDE.
+ * <p>
+ * Like the plugin's formatting blocks, a line nested in a YAML key-value or sequence item is
+ * indented by two spaces more than it, and top-level lines are placed by their keyword: Feature,
+ * Background and Scenarios at 0, "- Scenario:" at 2, Given/When/Then at 2 (4 in a scenario) and
+ * their step items at 4 (6 in a scenario). So flat specs with every line at column 0 get the
+ * same 0/2/4/6 layout as nested ones, and a "- Scenario:" item that YAML nests in the step
+ * sequence before it is lifted out of it. The nesting is followed by indentation in a single
+ * pass over the lines, as {@link SpecOutline} does. Comment lines and the continuation lines of
+ * multi-line scalars move by as much as the line they belong to. Trailing whitespace is removed,
+ * and at most {@value #KEEP_BLANK_LINES} blank lines are kept in a row outside of scalars.
+ */
+final class SpecFormatter {
+
+    static final int KEEP_BLANK_LINES = 2;
+
+    private static final int INDENT_SIZE = 2;
+
+    // A plain or quoted mapping key followed by ':' and a space or the end of the line
+    private static final Pattern KEY_PATTERN =
+            Pattern.compile("^(?:\"[^\"]*\"|'[^']*'|[^\\s#\"'\\[{][^#]*?)\\s*:(?:\\s+|$)");
+
+    /**
+     * A key or sequence item line that following lines can be nested in.
+     */
+    private static final class Frame {
+        final int column;
+        final boolean item;
+        // Columns the line moves by
+        final int shift;
+        // Lines indented deeper than this column continue a scalar value of the line
+        final int scalarColumn;
+        // A top-level Given, When or Then
+        final boolean topLevelSteps;
+
+        Frame(int column, boolean item, int shift, int scalarColumn, boolean topLevelSteps) {
+            this.column = column;
+            this.item = item;
+            this.shift = shift;
+            this.scalarColumn = scalarColumn;
+            this.topLevelSteps = topLevelSteps;
+        }
+
+        // Column of the lines nested in this one
+        int childColumn() {
+            return column + shift + INDENT_SIZE;
+        }
+
+        boolean isOpenKey() {
+            return !item && scalarColumn == Integer.MAX_VALUE;
+        }
+    }
+
+    private SpecFormatter() {
+    }
+
+    /**
+     * Returns the formatted text. The line separator of the input and whether it ends with a
+     * line break are kept.
+     */
+    static String format(CharSequence text) {
+        String separator = text.toString().contains("\r\n") ? "\r\n" : "\n";
+        StringBuilder formatted = new StringBuilder(text.length() + 64);
+        Deque<Frame> frames = new ArrayDeque<>();
+        int blankLines = 0;
+        // Section state of the plugin's section model: inside a scenario, and after a step keyword
+        boolean inScenario = false;
+        boolean inSteps = false;
+
+        int offset = 0;
+        while (offset < text.length()) {
+            int lineEnd = offset;
+            while (lineEnd < text.length() && text.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            String line = stripTrailing(text, offset, lineEnd);
+            offset = lineEnd + 1;
+
+            int column = 0;
+            while (column < line.length() && (line.charAt(column) == ' ' || line.charAt(column) == '\t')) {
+                column++;
+            }
+            String content = line.substring(column);
+            if (content.isEmpty()) {
+                blankLines++;
+                continue;
+            }
+
+            Frame top = frames.peek();
+            boolean continuation = top != null && column > top.scalarColumn && !isDocumentMarker(content);
+            if (formatted.length() > 0) {
+                int kept = continuation ? blankLines : Math.min(blankLines, KEEP_BLANK_LINES);
+                formatted.append(separator.repeat(kept));
+            }
+            blankLines = 0;
+
+            if (continuation) {
+                formatted.append(" ".repeat(Math.max(0, column + top.shift))).append(content).append(separator);
+                continue;
+            }
+            if (content.startsWith("#")) {
+                formatted.append(" ".repeat(Math.max(0, column + enclosingShift(frames, column))))
+                        .append(content).append(separator);
+                continue;
+            }
+            if (isDocumentMarker(content)) {
+                frames.clear();
+                formatted.append(content).append(separator);
+                continue;
+            }
+
+            boolean item = isItem(content);
+            while (!frames.isEmpty() && frames.peek().column >= column
+                    && !(item && frames.peek().column == column && frames.peek().isOpenKey())) {
+                frames.pop();
+            }
+            if (frames.size() == 1 && frames.peek().topLevelSteps && content.startsWith("- Scenario:")) {
+                frames.pop();
+            }
+
+            int newColumn;
+            if (!frames.isEmpty()) {
+                newColumn = frames.peek().childColumn();
+            } else if (content.startsWith("Feature:") || content.startsWith("Background:")
+                    || content.startsWith("Scenarios:")) {
+                newColumn = 0;
+            } else if (content.startsWith("- Scenario:")) {
+                newColumn = INDENT_SIZE;
+            } else if (isStepKeyword(content)) {
+                newColumn = inScenario ? 2 * INDENT_SIZE : INDENT_SIZE;
+            } else if (item && inSteps) {
+                newColumn = inScenario ? 3 * INDENT_SIZE : 2 * INDENT_SIZE;
+            } else {
+                newColumn = 0;
+            }
+            pushFrames(frames, content, column, newColumn - column);
+            formatted.append(" ".repeat(newColumn)).append(content).append(separator);
+
+            if (content.startsWith("Background:") || content.startsWith("Scenarios:")) {
+                inScenario = false;
+                inSteps = false;
+            } else if (content.startsWith("- Scenario:")) {
+                inScenario = true;
+            } else if (isStepKeyword(content)) {
+                inSteps = true;
+            }
+        }
+
+        if (text.length() > 0 && text.charAt(text.length() - 1) != '\n' && formatted.length() > 0) {
+            formatted.setLength(formatted.length() - separator.length());
+        }
+        return formatted.toString();
+    }
+
+    /**
+     * Pushes the frames of a key or item line moving by {@code shift} columns. The inline key of
+     * an item gets a frame of its own, so the lines nested in it are told apart from the next
+     * keys of the item's mapping.
+     */
+    private static void pushFrames(Deque<Frame> frames, String content, int column, int shift) {
+        if (!isItem(content)) {
+            frames.push(keyFrame(content, column, shift, frames.isEmpty() && isStepKeyword(content)));
+            return;
+        }
+
+        int contentColumn = column + 1;
+        while (contentColumn - column < content.length() && content.charAt(contentColumn - column) == ' ') {
+            contentColumn++;
+        }
+        String value = content.substring(contentColumn - column);
+        if (value.isEmpty()) {
+            frames.push(new Frame(column, true, shift, Integer.MAX_VALUE, false));
+        } else if (!KEY_PATTERN.matcher(value).find()) {
+            frames.push(new Frame(column, true, shift, column, false));
+        } else {
+            frames.push(new Frame(column, true, shift, Integer.MAX_VALUE, false));
+            frames.push(keyFrame(value, contentColumn, shift, false));
+        }
+    }
+
+    private static Frame keyFrame(String content, int column, int shift, boolean topLevelSteps) {
+        Matcher key = KEY_PATTERN.matcher(content);
+        boolean open = key.find() && isEmptyValue(content.substring(key.end()));
+        return new Frame(column, false, shift, open ? Integer.MAX_VALUE : column, topLevelSteps);
+    }
+
+    // Columns a comment line at the given column moves by: as much as the line it is nested in
+    private static int enclosingShift(Deque<Frame> frames, int column) {
+        for (Frame frame : frames) {
+            if (frame.column < column) {
+                return frame.shift;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isStepKeyword(String content) {
+        return content.startsWith("Given:") || content.startsWith("When:") || content.startsWith("Then:");
+    }
+
+    private static boolean isItem(String content) {
+        return content.equals("-") || content.startsWith("- ");
+    }
+
+    private static boolean isEmptyValue(String value) {
+        return value.isEmpty() || value.startsWith("#");
+    }
+
+    private static boolean isDocumentMarker(String content) {
+        return content.equals("---") || content.startsWith("--- ") || content.equals("...");
+    }
+
+    private static String stripTrailing(CharSequence text, int start, int end) {
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.subSequence(start, end).toString();
+    }
+}
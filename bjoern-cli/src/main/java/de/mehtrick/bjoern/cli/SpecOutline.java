@@ -0,0 +1,333 @@
+package de.mehtrick.bjoern.cli;
+
+import de.mehtrick.bjoern.BjoernSpecRules;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Structural outline of a Bjoern spec, read in a single streaming pass over its lines.
+ * <p>
+ * Instead of building a YAML tree, the parser follows the block structure by indentation and
+ * only records what the validation rules need: the top-level keys, the inline
+ * {@code Reference:} value, and the Background and Scenario step blocks with whether they
+ * have any content. Flow collections and multi-line scalars are not interpreted beyond that,
+ * which is enough for the block-style YAML that Bjoern specs use.
+ */
+final class SpecOutline {
+
+    /**
+     * One YAML document of the spec.
+     */
+    static final class Document {
+        final int firstLine;
+        // Whether the top-level value is a mapping; other documents are not validated
+        boolean mapping;
+        final Set<String> topLevelKeys = new HashSet<>();
+        String reference;
+        int referenceLine;
+        int referenceColumn;
+        final List<StepBlock> backgroundSteps = new ArrayList<>();
+        final List<Scenario> scenarios = new ArrayList<>();
+
+        private boolean decided;
+
+        Document(int firstLine) {
+            this.firstLine = firstLine;
+        }
+    }
+
+    /**
+     * A mapping item of the {@code Scenarios} sequence.
+     */
+    static final class Scenario {
+        // Unquoted, trimmed value of the first Scenario key, or null if there is none
+        String name;
+        int nameLine;
+        int nameColumn;
+        final List<StepBlock> steps = new ArrayList<>();
+    }
+
+    /**
+     * A {@code Given:}, {@code When:} or {@code Then:} key with whether it has a value.
+     */
+    static final class StepBlock {
+        final String key;
+        final int line;
+        final int column;
+        boolean hasSteps;
+
+        StepBlock(String key, int line, int column) {
+            this.key = key;
+            this.line = line;
+            this.column = column;
+        }
+    }
+
+    private enum Section {NONE, BACKGROUND, SCENARIOS, OTHER}
+
+    private enum Item {NONE, PENDING, MAPPING, OTHER}
+
+    private SpecOutline() {
+    }
+
+    /**
+     * Parses the spec text. Lines and columns of the outline are 0-based.
+     */
+    static List<Document> parse(CharSequence text) {
+        List<Document> documents = new ArrayList<>();
+        int length = text.length();
+
+        Document document = null;
+        Section section = Section.NONE;
+        // Indent of the keys of the Background mapping or of the current Scenarios item
+        int childIndent = -1;
+        int itemIndent = -1;
+        Item item = Item.NONE;
+        Scenario scenario = null;
+        // Step block whose content lines are being skipped
+        StepBlock block = null;
+
+        int line = 0;
+        for (int start = 0; start < length; line++) {
+            int end = start;
+            while (end < length && text.charAt(end) != '\n') {
+                end++;
+            }
+            int next = end + 1;
+            if (end > start && text.charAt(end - 1) == '\r') {
+                end--;
+            }
+
+            int c = start;
+            while (c < end && (text.charAt(c) == ' ' || text.charAt(c) == '\t')) {
+                c++;
+            }
+            int indent = c - start;
+            if (c == end || text.charAt(c) == '#') {
+                start = next;
+                continue;
+            }
+
+            if (indent == 0 && (isMarker(text, c, end, '-') || isMarker(text, c, end, '.'))) {
+                // Document start or end: the next content belongs to a new document
+                if (document != null) {
+                    document = null;
+                    section = Section.NONE;
+                    block = null;
+                }
+                start = next;
+                continue;
+            }
+            if (document == null) {
+                document = new Document(line);
+                documents.add(document);
+            }
+
+            boolean sequenceEntry = isSequenceEntry(text, c, end);
+
+            if (block != null) {
+                if (indent > block.column || (indent == block.column && sequenceEntry)) {
+                    block.hasSteps = true;
+                    start = next;
+                    continue;
+                }
+                block = null;
+            }
+
+            if (indent == 0 && !(section == Section.SCENARIOS && sequenceEntry)) {
+                // Top-level line
+                int colon = sequenceEntry ? -1 : keyEnd(text, c, end);
+                if (!document.decided) {
+                    document.decided = true;
+                    document.mapping = colon >= 0;
+                }
+                section = Section.OTHER;
+                childIndent = -1;
+                itemIndent = -1;
+                item = Item.NONE;
+                scenario = null;
+                if (colon >= 0) {
+                    String key = text.subSequence(c, colon).toString().trim();
+                    // Like the IDE, only the first occurrence of a key is interpreted
+                    if (document.topLevelKeys.add(key)) {
+                        switch (key) {
+                            case "Background" -> section = Section.BACKGROUND;
+                            case "Scenarios" -> section = Section.SCENARIOS;
+                            case "Reference" -> {
+                                int valueStart = skipSpaces(text, colon + 1, end);
+                                document.reference = inlineValue(text, valueStart, end);
+                                document.referenceLine = line;
+                                document.referenceColumn = valueStart - start;
+                            }
+                            default -> {
+                            }
+                        }
+                    }
+                }
+                start = next;
+                continue;
+            }
+
+            if (section == Section.BACKGROUND) {
+                if (childIndent < 0) {
+                    // The first line decides whether Background holds a mapping
+                    childIndent = sequenceEntry ? Integer.MAX_VALUE : indent;
+                }
+                if (indent == childIndent) {
+                    block = stepBlock(text, c, end, line, indent, document.backgroundSteps);
+                }
+            } else if (section == Section.SCENARIOS) {
+                if (sequenceEntry && (itemIndent < 0 || indent == itemIndent)) {
+                    itemIndent = indent;
+                    scenario = null;
+                    item = Item.PENDING;
+                    int keyStart = skipSpaces(text, c + 1, end);
+                    if (keyStart == end || text.charAt(keyStart) == '#') {
+                        // The item content starts on the next line
+                        childIndent = -1;
+                        start = next;
+                        continue;
+                    }
+                    childIndent = keyStart - start;
+                    c = keyStart;
+                    indent = childIndent;
+                    sequenceEntry = isSequenceEntry(text, c, end);
+                }
+                if (item == Item.PENDING && childIndent < 0) {
+                    childIndent = indent;
+                }
+                if (item != Item.NONE && indent == childIndent) {
+                    int colon = sequenceEntry ? -1 : keyEnd(text, c, end);
+                    if (item == Item.PENDING) {
+                        item = colon >= 0 ? Item.MAPPING : Item.OTHER;
+                        if (item == Item.MAPPING) {
+                            scenario = new Scenario();
+                            document.scenarios.add(scenario);
+                        }
+                    }
+                    if (item == Item.MAPPING && colon >= 0) {
+                        String key = text.subSequence(c, colon).toString().trim();
+                        if (key.equals("Scenario")) {
+                            if (scenario.name == null) {
+                                String value = inlineValue(text, skipSpaces(text, colon + 1, end), end);
+                                scenario.name = value != null ? unquote(value).trim() : "";
+                                scenario.nameLine = line;
+                                scenario.nameColumn = c - start;
+                            }
+                        } else {
+                            block = stepBlock(text, c, end, line, indent, scenario.steps);
+                        }
+                    }
+                }
+            }
+            start = next;
+        }
+        return documents;
+    }
+
+    /**
+     * Adds a step block if the line holds a Given/When/Then key and returns it, otherwise
+     * returns {@code null}.
+     */
+    private static StepBlock stepBlock(CharSequence text, int c, int end, int line, int column,
+                                       List<StepBlock> blocks) {
+        int colon = keyEnd(text, c, end);
+        if (colon < 0) {
+            return null;
+        }
+        String key = text.subSequence(c, colon).toString().trim();
+        if (!BjoernSpecRules.STEP_KEYS.contains(key)) {
+            return null;
+        }
+        StepBlock block = new StepBlock(key, line, column);
+        String value = inlineValue(text, skipSpaces(text, colon + 1, end), end);
+        // An inline value makes the block non-empty, except for an empty flow sequence
+        block.hasSteps = value != null && !(value.startsWith("[") && value.substring(1).replace("]", "").isBlank());
+        blocks.add(block);
+        return block;
+    }
+
+    /**
+     * Returns the offset of the colon ending a mapping key that starts at {@code from}, or -1.
+     */
+    private static int keyEnd(CharSequence text, int from, int end) {
+        char first = text.charAt(from);
+        if (first == '[' || first == '{' || first == '"' || first == '\'' || first == '|' || first == '>') {
+            return -1;
+        }
+        for (int i = from; i < end; i++) {
+            char ch = text.charAt(i);
+            if (ch == ':' && (i + 1 == end || text.charAt(i + 1) == ' ' || text.charAt(i + 1) == '\t')) {
+                return i;
+            }
+            if (ch == '#' && i > from && (text.charAt(i - 1) == ' ' || text.charAt(i - 1) == '\t')) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the raw text of an inline value starting at {@code from} without a trailing
+     * comment, or {@code null} if there is none. Quoted values keep their quotes.
+     */
+    static String inlineValue(CharSequence text, int from, int end) {
+        if (from >= end || text.charAt(from) == '#') {
+            return null;
+        }
+        char first = text.charAt(from);
+        if (first == '"' || first == '\'') {
+            for (int i = from + 1; i < end; i++) {
+                char ch = text.charAt(i);
+                if (first == '"' && ch == '\\') {
+                    i++;
+                } else if (ch == first) {
+                    if (first == '\'' && i + 1 < end && text.charAt(i + 1) == '\'') {
+                        i++;
+                    } else {
+                        return text.subSequence(from, i + 1).toString();
+                    }
+                }
+            }
+            // Unterminated (or multi-line) quoted value
+            return text.subSequence(from, end).toString().trim();
+        }
+        int valueEnd = end;
+        for (int i = from + 1; i < end; i++) {
+            if (text.charAt(i) == '#' && (text.charAt(i - 1) == ' ' || text.charAt(i - 1) == '\t')) {
+                valueEnd = i;
+                break;
+            }
+        }
+        return text.subSequence(from, valueEnd).toString().trim();
+    }
+
+    static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1).replace("\\\"", "\"").replace("\\\\", "\\");
+        }
+        if (value.length() >= 2 && value.startsWith("'") && value.endsWith("'")) {
+            return value.substring(1, value.length() - 1).replace("''", "'");
+        }
+        return value;
+    }
+
+    private static boolean isSequenceEntry(CharSequence text, int c, int end) {
+        return text.charAt(c) == '-' && (c + 1 == end || text.charAt(c + 1) == ' ' || text.charAt(c + 1) == '\t');
+    }
+
+    private static boolean isMarker(CharSequence text, int c, int end, char ch) {
+        return c + 3 <= end && text.charAt(c) == ch && text.charAt(c + 1) == ch && text.charAt(c + 2) == ch
+                && (c + 3 == end || text.charAt(c + 3) == ' ' || text.charAt(c + 3) == '\t');
+    }
+
+    private static int skipSpaces(CharSequence text, int from, int end) {
+        while (from < end && (text.charAt(from) == ' ' || text.charAt(from) == '\t')) {
+            from++;
+        }
+        return from;
+    }
+}
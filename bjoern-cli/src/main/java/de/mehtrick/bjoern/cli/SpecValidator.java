@@ -0,0 +1,70 @@
+package de.mehtrick.bjoern.cli;
+
+import de.mehtrick.bjoern.BjoernSpecRules;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies the rules of the Bjoern structure and reference inspections to a {@link SpecOutline}.
+ */
+final class SpecValidator {
+
+    private static final Comparator<Problem> BY_POSITION =
+            Comparator.comparingInt(Problem::line).thenComparingInt(Problem::column);
+
+    private SpecValidator() {
+    }
+
+    static List<Problem> validate(String path, CharSequence text) {
+        List<Problem> problems = new ArrayList<>();
+        for (SpecOutline.Document document : SpecOutline.parse(text)) {
+            if (!document.mapping) {
+                continue;
+            }
+
+            for (String required : BjoernSpecRules.REQUIRED_TOP_LEVEL) {
+                if (!document.topLevelKeys.contains(required)) {
+                    problems.add(new Problem(path, document.firstLine + 1, 1, Problem.Rule.MISSING_TOP_LEVEL_FIELD,
+                            BjoernSpecRules.missingTopLevelMessage(required)));
+                }
+            }
+
+            Set<String> seenNames = new HashSet<>();
+            for (SpecOutline.Scenario scenario : document.scenarios) {
+                if (scenario.name == null || scenario.name.isBlank()) {
+                    continue;
+                }
+                if (!seenNames.add(scenario.name)) {
+                    problems.add(new Problem(path, scenario.nameLine + 1, scenario.nameColumn + 1,
+                            Problem.Rule.DUPLICATE_SCENARIO_NAME, BjoernSpecRules.duplicateScenarioMessage(scenario.name)));
+                }
+            }
+
+            checkStepBlocks(path, document.backgroundSteps, "Background", problems);
+            for (SpecOutline.Scenario scenario : document.scenarios) {
+                checkStepBlocks(path, scenario.steps, BjoernSpecRules.scenarioLabel(scenario.name), problems);
+            }
+
+            if (document.reference != null && !BjoernSpecRules.isValidReferenceValue(document.reference)) {
+                problems.add(new Problem(path, document.referenceLine + 1, document.referenceColumn + 1,
+                        Problem.Rule.INVALID_REFERENCE, BjoernSpecRules.invalidReferenceMessage(document.reference)));
+            }
+        }
+        problems.sort(BY_POSITION);
+        return problems;
+    }
+
+    private static void checkStepBlocks(String path, List<SpecOutline.StepBlock> blocks, String contextLabel,
+                                        List<Problem> problems) {
+        for (SpecOutline.StepBlock block : blocks) {
+            if (!block.hasSteps) {
+                problems.add(new Problem(path, block.line + 1, block.column + 1, Problem.Rule.EMPTY_STEP_BLOCK,
+                        BjoernSpecRules.emptyStepBlockMessage(block.key, contextLabel)));
+            }
+        }
+    }
+}
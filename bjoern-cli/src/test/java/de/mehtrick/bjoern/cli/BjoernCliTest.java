@@ -0,0 +1,124 @@
+package de.mehtrick.bjoern.cli;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class BjoernCliTest {
+
+    private static final String VALID = "Feature: Kasse\nScenarios:\n  - Scenario: Kauf\n    Then:\n      - Fertig\n";
+
+    private static Path createSpecs() throws IOException {
+        Path root = Files.createTempDirectory("bjoern-cli-test");
+        Files.createDirectories(root.resolve("nested"));
+        Files.writeString(root.resolve("b.zgr"), VALID);
+        Files.writeString(root.resolve("nested/a.zgr"), "Feature: Ohne Szenarien\n");
+        Files.writeString(root.resolve("notes.txt"), "not a spec");
+        return root;
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    public void testCollectsSpecFilesSorted() throws IOException {
+        Path root = createSpecs();
+        try {
+            List<Path> files = BjoernCli.collectSpecFiles(List.of(root));
+            if (!files.equals(List.of(root.resolve("b.zgr"), root.resolve("nested/a.zgr")))) {
+                throw new AssertionError("Unexpected spec files: " + files);
+            }
+        } finally {
+            delete(root);
+        }
+    }
+
+    public void testValidatesEveryFileInParallel() throws IOException {
+        Path root = createSpecs();
+        try {
+            List<Path> files = BjoernCli.collectSpecFiles(List.of(root));
+            List<ReportFormat.FileResult> results = BjoernCli.validateAll(files, 4);
+            if (results.size() != 2 || !results.get(0).problems().isEmpty()) {
+                throw new AssertionError("Valid spec should have no problems: " + results);
+            }
+            List<Problem> problems = results.get(1).problems();
+            if (problems.size() != 1 || problems.get(0).rule() != Problem.Rule.MISSING_TOP_LEVEL_FIELD) {
+                throw new AssertionError("Expected the missing Scenarios field: " + problems);
+            }
+        } finally {
+            delete(root);
+        }
+    }
+
+    public void testUnreadableFileIsReported() throws IOException {
+        Path root = createSpecs();
+        try {
+            Path missing = root.resolve("missing.zgr");
+            List<ReportFormat.FileResult> results = BjoernCli.validateAll(List.of(missing), 1);
+            Problem problem = results.get(0).problems().get(0);
+            if (problem.rule() != Problem.Rule.READ_ERROR || !results.get(0).hasFailures()) {
+                throw new AssertionError("Expected a read error: " + problem);
+            }
+        } finally {
+            delete(root);
+        }
+    }
+
+    public void testExitCodes() throws IOException {
+        Path root = createSpecs();
+        try {
+            Path valid = root.resolve("b.zgr");
+            if (BjoernCli.run(new String[]{"validate", "--output=" + root.resolve("report.txt"), valid.toString()}) != 0) {
+                throw new AssertionError("A valid spec should exit with 0");
+            }
+            if (BjoernCli.run(new String[]{"validate", "--output=" + root.resolve("report.txt"), root.toString()}) != 1) {
+                throw new AssertionError("A spec with warnings should exit with 1");
+            }
+            String report = Files.readString(root.resolve("report.txt"), StandardCharsets.UTF_8);
+            if (!report.contains("missing-top-level-field")) {
+                throw new AssertionError("Report should list the warning: " + report);
+            }
+            if (BjoernCli.run(new String[]{"validate", "--unknown", valid.toString()}) != 2) {
+                throw new AssertionError("An unknown option should exit with 2");
+            }
+        } finally {
+            delete(root);
+        }
+    }
+
+    public void testFormatsInPlaceAndSkipsCachedSpecs() throws IOException {
+        Path root = createSpecs();
+        try {
+            Path spec = root.resolve("b.zgr");
+            Files.writeString(spec, "Feature: Kasse\nScenarios:\n- Scenario: Kauf\n  Then:\n  - Fertig\n");
+            FormatCache cache = FormatCache.load(root.resolve("cache"));
+
+            List<BjoernCli.FormatResult> results = BjoernCli.formatAll(List.of(spec), false, cache, 1);
+            if (results.get(0).status() != BjoernCli.FormatStatus.FORMATTED
+                    || !Files.readString(spec, StandardCharsets.UTF_8).equals(VALID)) {
+                throw new AssertionError("Spec should be formatted in place: " + results);
+            }
+            try (Stream<Path> files = Files.list(root)) {
+                List<Path> temp = files.filter(path -> path.toString().endsWith(".tmp")).toList();
+                if (!temp.isEmpty()) {
+                    throw new AssertionError("Temporary files should be removed: " + temp);
+                }
+            }
+
+            results = BjoernCli.formatAll(List.of(spec), false, cache, 1);
+            if (results.get(0).status() != BjoernCli.FormatStatus.CACHED) {
+                throw new AssertionError("Formatted spec should be skipped: " + results);
+            }
+        } finally {
+            delete(root);
+        }
+    }
+}
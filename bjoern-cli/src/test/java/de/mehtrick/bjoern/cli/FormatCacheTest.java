@@ -0,0 +1,46 @@
+package de.mehtrick.bjoern.cli;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class FormatCacheTest {
+
+    private static final String HASH = FormatCache.hash(StandardCharsets.UTF_8.encode("Feature: Kasse\n"));
+
+    public void testSavedHashesAreLoaded() throws IOException {
+        Path file = Files.createTempFile("bjoern-format-cache", ".txt");
+        try {
+            FormatCache cache = FormatCache.load(file);
+            cache.add(HASH);
+            cache.save();
+            if (!FormatCache.load(file).contains(HASH)) {
+                throw new AssertionError("Saved hash should be loaded again");
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public void testCacheOfOtherFormatterVersionIsIgnored() throws IOException {
+        Path file = Files.createTempFile("bjoern-format-cache", ".txt");
+        try {
+            Files.writeString(file, "bjoern-format-cache 0\n" + HASH + "\n");
+            if (FormatCache.load(file).contains(HASH)) {
+                throw new AssertionError("Hashes of another formatter version should be ignored");
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public void testHashKeepsBufferPosition() {
+        ByteBuffer content = StandardCharsets.UTF_8.encode("Feature: Kasse\n");
+        String hash = FormatCache.hash(content);
+        if (content.position() != 0 || !hash.equals(HASH) || hash.length() != 64) {
+            throw new AssertionError("Unexpected hash " + hash + " at position " + content.position());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package de.mehtrick.bjoern.cli;
+
+import java.io.IOException;
+import java.util.List;
+
+public class ReportFormatTest {
+
+    private static final List<ReportFormat.FileResult> RESULTS = List.of(
+            new ReportFormat.FileResult("specs/a.zgr", List.of(
+                    new Problem("specs/a.zgr", 3, 5, Problem.Rule.INVALID_REFERENCE, "Bad \"link\" <here>"),
+                    new Problem("specs/a.zgr", 7, 3, Problem.Rule.EMPTY_STEP_BLOCK, "Empty block")), 2_000_000),
+            new ReportFormat.FileResult("specs\\b.zgr", List.of(
+                    new Problem("specs\\b.zgr", 1, 1, Problem.Rule.EMPTY_STEP_BLOCK, "Only a note")), 1_000_000),
+            new ReportFormat.FileResult("specs/c.zgr", List.of(), 500_000));
+
+    private static String write(ReportFormat format) throws IOException {
+        StringBuilder out = new StringBuilder();
+        format.write(RESULTS, out);
+        return out.toString();
+    }
+
+    private static void assertContains(String report, String expected) {
+        if (!report.contains(expected)) {
+            throw new AssertionError("Expected report to contain:\n" + expected + "\nbut was:\n" + report);
+        }
+    }
+
+    public void testTextHasOneLinePerProblem() throws IOException {
+        String report = write(ReportFormat.TEXT);
+        String expected = "specs/a.zgr:3:5: warning: Bad \"link\" <here> [invalid-reference]\n" +
+                "specs/a.zgr:7:3: note: Empty block [empty-step-block]\n" +
+                "specs\\b.zgr:1:1: note: Only a note [empty-step-block]\n";
+        if (!report.equals(expected)) {
+            throw new AssertionError("Unexpected text report:\n" + report);
+        }
+    }
+
+    public void testSarifEscapesMessagesAndUsesForwardSlashes() throws IOException {
+        String report = write(ReportFormat.SARIF);
+        assertContains(report, "\"version\": \"2.1.0\"");
+        assertContains(report, "{\"id\": \"read-error\", \"shortDescription\"");
+        assertContains(report, "{\"ruleId\": \"invalid-reference\", \"level\": \"warning\", "
+                + "\"message\": {\"text\": \"Bad \\\"link\\\" <here>\"}");
+        assertContains(report, "{\"uri\": \"specs/b.zgr\"}, \"region\": {\"startLine\": 1, \"startColumn\": 1}");
+    }
+
+    public void testSarifWithoutProblemsHasEmptyResults() throws IOException {
+        StringBuilder out = new StringBuilder();
+        ReportFormat.SARIF.write(List.of(RESULTS.get(2)), out);
+        assertContains(out.toString(), "\"results\": []\n");
+    }
+
+    public void testJunitFailsOnlySpecsWithErrorsOrWarnings() throws IOException {
+        String report = write(ReportFormat.JUNIT);
+        assertContains(report, "<testsuite name=\"bjoern-validate\" tests=\"3\" failures=\"1\" errors=\"0\" time=\"0.004\">");
+        assertContains(report, "<failure type=\"bjoern\" message=\"2 problem(s)\">"
+                + "3:5: warning: Bad &quot;link&quot; &lt;here&gt; [invalid-reference]\n");
+        assertContains(report, "<testcase classname=\"bjoern\" name=\"specs\\b.zgr\" time=\"0.001\">\n"
+                + "    <system-out>1:1: note: Only a note [empty-step-block]\n</system-out>");
+        assertContains(report, "<testcase classname=\"bjoern\" name=\"specs/c.zgr\" time=\"0.001\"/>");
+    }
+
+    public void testParseIgnoresCase() {
+        if (ReportFormat.parse("Sarif") != ReportFormat.SARIF) {
+            throw new AssertionError("Format names should be case-insensitive");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package de.mehtrick.bjoern.cli;
+
+public class SpecFormatterTest {
+
+    private static final String FORMATTED = "Feature: Kasse\n" +
+            "Background:\n" +
+            "  Given:\n" +
+            "    - Ein Automat\n" +
+            "Scenarios:\n" +
+            "  - Scenario: Erstes\n" +
+            "    Given:\n" +
+            "      - Mit \"2\" Flaschen: Cola\n" +
+            "    When:\n" +
+            "      - Kaufen\n" +
+            "    Then: Fertig\n";
+
+    private static void assertFormatted(String spec, String expected) {
+        String actual = SpecFormatter.format(spec);
+        if (!actual.equals(expected)) {
+            throw new AssertionError("Expected:\n" + expected + "\nbut got:\n" + actual);
+        }
+    }
+
+    public void testFormattedSpecIsUnchanged() {
+        assertFormatted(FORMATTED, FORMATTED);
+    }
+
+    public void testReindentsToBjoernLayout() {
+        assertFormatted("Feature: Kasse   \n" +
+                "Background:\n" +
+                "    Given:\n" +
+                "     - Ein Automat\n" +
+                "Scenarios:\n" +
+                "- Scenario: Erstes\n" +
+                "  Given:\n" +
+                "  - Mit \"2\" Flaschen: Cola\n" +
+                "  When:\n" +
+                "        - Kaufen\n" +
+                "  Then: Fertig\n", FORMATTED);
+    }
+
+    public void testMovesCommentsAndScalarContinuationsWithTheirLine() {
+        String spec = "Feature: Kasse\n" +
+                "Changelog: |\n" +
+                "     Erste Zeile\n" +
+                "\n" +
+                "\n" +
+                "\n" +
+                "     Zweite Zeile\n" +
+                "Scenarios:\n" +
+                "      # Kommentar\n" +
+                "    - Scenario: Erstes\n" +
+                "      Given:\n" +
+                "        - Ein sehr langer Schritt\n" +
+                "          in zwei Zeilen\n";
+        assertFormatted(spec, "Feature: Kasse\n" +
+                "Changelog: |\n" +
+                "     Erste Zeile\n" +
+                "\n" +
+                "\n" +
+                "\n" +
+                "     Zweite Zeile\n" +
+                "Scenarios:\n" +
+                "      # Kommentar\n" +
+                "  - Scenario: Erstes\n" +
+                "    Given:\n" +
+                "      - Ein sehr langer Schritt\n" +
+                "        in zwei Zeilen\n");
+    }
+
+    public void testContinuationOfIndentedStepStaysInsideTheStep() {
+        assertFormatted("Scenarios:\n" +
+                "- Scenario: X\n" +
+                "  Given:\n" +
+                "  - Ein langer\n" +
+                "    Schritt\n" +
+                "    # Kommentar\n", "Scenarios:\n" +
+                "  - Scenario: X\n" +
+                "    Given:\n" +
+                "      - Ein langer\n" +
+                "        Schritt\n" +
+                "        # Kommentar\n");
+    }
+
+    public void testFlatSpecGetsKeywordLayout() {
+        assertFormatted("Feature: Kasse\n" +
+                "Background:\n" +
+                "Given:\n" +
+                "- Ein Automat\n" +
+                "Scenarios:\n" +
+                "- Scenario: Erstes\n" +
+                "Given:\n" +
+                "- Mit \"2\" Flaschen: Cola\n" +
+                "Then:\n" +
+                "- Fertig\n" +
+                "- Scenario: Zweites\n" +
+                "When:\n" +
+                "- Kaufen\n", "Feature: Kasse\n" +
+                "Background:\n" +
+                "  Given:\n" +
+                "    - Ein Automat\n" +
+                "Scenarios:\n" +
+                "  - Scenario: Erstes\n" +
+                "    Given:\n" +
+                "      - Mit \"2\" Flaschen: Cola\n" +
+                "    Then:\n" +
+                "      - Fertig\n" +
+                "  - Scenario: Zweites\n" +
+                "    When:\n" +
+                "      - Kaufen\n");
+    }
+
+    public void testLimitsBlankLinesAndKeepsMissingFinalLineBreak() {
+        assertFormatted("\n\nFeature: Kasse\n\n\n\n\nScenarios:\n  - Scenario: A", "Feature: Kasse\n\n\nScenarios:\n  - Scenario: A");
+    }
+
+    public void testInlineKeyOfItemNestsItsSteps() {
+        assertFormatted("Scenarios:\n" +
+                "  - Given:\n" +
+                "     - Ein Automat\n" +
+                "    When:\n" +
+                "       - Kaufen\n", "Scenarios:\n" +
+                "  - Given:\n" +
+                "      - Ein Automat\n" +
+                "    When:\n" +
+                "      - Kaufen\n");
+    }
+
+    public void testDocumentsAreFormattedSeparately() {
+        assertFormatted("Feature: A\n---\n Feature: B\n", "Feature: A\n---\nFeature: B\n");
+    }
+
+    public void testIsIdempotentOnCrlf() {
+        String spec = FORMATTED.replace("\n", "\r\n");
+        assertFormatted(spec, spec);
+    }
+}
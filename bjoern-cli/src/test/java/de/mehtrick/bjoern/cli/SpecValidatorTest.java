@@ -0,0 +1,91 @@
+package de.mehtrick.bjoern.cli;
+
+import java.util.List;
+
+public class SpecValidatorTest {
+
+    private static List<String> problems(String spec) {
+        return SpecValidator.validate("spec.zgr", spec).stream()
+                .map(problem -> problem.line() + ":" + problem.column() + " " + problem.rule().id)
+                .toList();
+    }
+
+    private static void assertProblems(String spec, String... expected) {
+        List<String> actual = problems(spec);
+        if (!actual.equals(List.of(expected))) {
+            throw new AssertionError("Expected " + List.of(expected) + " but got " + actual);
+        }
+    }
+
+    public void testValidSpecHasNoProblems() {
+        assertProblems("Feature: Kasse\n" +
+                "Reference: \"[JIRA-1](https://jira.example.org/JIRA-1)\"\n" +
+                "Background:\n" +
+                "  Given:\n" +
+                "    - Ein Automat\n" +
+                "Scenarios:\n" +
+                "  # Kommentar\n" +
+                "  - Scenario: Erstes\n" +
+                "    Given:\n" +
+                "      - Mit \"2\" Flaschen: Cola\n" +
+                "    When:\n" +
+                "    - Kompakte Liste\n" +
+                "    Then: Fertig\n" +
+                "  - Scenario: Zweites\n" +
+                "    Then:\n" +
+                "      - Fertig\n");
+    }
+
+    public void testMissingTopLevelFields() {
+        assertProblems("Feature: Nur Feature\n", "1:1 missing-top-level-field");
+        assertProblems("Background:\n  Given:\n    - a\n",
+                "1:1 missing-top-level-field", "1:1 missing-top-level-field");
+    }
+
+    public void testDuplicateScenarioNames() {
+        assertProblems("Feature: F\n" +
+                        "Scenarios:\n" +
+                        "- Scenario: Doppelt\n" +
+                        "  Then:\n" +
+                        "  - a\n" +
+                        "- Scenario: \"Doppelt\"\n" +
+                        "  Then:\n" +
+                        "  - b\n",
+                "6:3 duplicate-scenario-name");
+    }
+
+    public void testEmptyStepBlocks() {
+        assertProblems("Feature: F\n" +
+                        "Background:\n" +
+                        "  Given:\n" +
+                        "Scenarios:\n" +
+                        "  - Scenario: A\n" +
+                        "    Given: []\n" +
+                        "    When:\n" +
+                        "      # nur ein Kommentar\n" +
+                        "    Then:\n" +
+                        "      - ok\n",
+                "3:3 empty-step-block", "6:5 empty-step-block", "7:5 empty-step-block");
+    }
+
+    public void testInvalidReference() {
+        assertProblems("Feature: F\nReference: ftp://example.org # Kommentar\nScenarios:\n",
+                "2:12 invalid-reference");
+        assertProblems("Feature: F\nReference: \"[kaputt](https://example.org\"\nScenarios:\n",
+                "2:12 invalid-reference");
+    }
+
+    public void testEachDocumentIsValidated() {
+        assertProblems("Feature: A\nScenarios:\n---\nFeature: B\n---\n- keine Mapping\n",
+                "4:1 missing-top-level-field");
+    }
+
+    public void testMessagesMatchInspections() {
+        List<Problem> problems = SpecValidator.validate("spec.zgr",
+                "Feature: F\nScenarios:\n  - Scenario: A\n    When:\n");
+        if (problems.size() != 1
+                || !problems.get(0).message().equals("Empty 'When:' block in Scenario 'A' – add at least one step")) {
+            throw new AssertionError("Unexpected problems: " + problems);
+        }
+    }
+}
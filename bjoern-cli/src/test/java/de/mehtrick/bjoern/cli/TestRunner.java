@@ -0,0 +1,36 @@
+package de.mehtrick.bjoern.cli;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Runs the public {@code test*} methods of the test classes named as arguments, the plain test
+ * classes of this repository need no test framework. Exits with the number of failed tests.
+ */
+public final class TestRunner {
+
+    private TestRunner() {
+    }
+
+    public static void main(String[] args) throws ReflectiveOperationException {
+        int failures = 0;
+        int tests = 0;
+        for (String className : args) {
+            Class<?> testClass = Class.forName(className);
+            for (Method method : testClass.getMethods()) {
+                if (!method.getName().startsWith("test") || method.getParameterCount() != 0) {
+                    continue;
+                }
+                tests++;
+                try {
+                    method.invoke(testClass.getDeclaredConstructor().newInstance());
+                } catch (InvocationTargetException e) {
+                    failures++;
+                    System.err.println("FAILED " + className + "." + method.getName() + ": " + e.getCause());
+                }
+            }
+        }
+        System.out.println(tests + " test(s), " + failures + " failure(s)");
+        System.exit(failures);
+    }
+}
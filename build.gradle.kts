@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("org.jetbrains.kotlin.jvm") version "2.2.21"
     id("org.jetbrains.intellij.platform") version "2.11.0"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "de.mehtrick"
@@ -31,8 +32,24 @@ dependencies {
         pluginVerifier()
         zipSigner()
     }
+
+    // The reformat test compares the plugin's formatter with the one of the CLI
+    testImplementation(project(":bjoern-cli"))
+
+    // Object sizes for the PSI footprint benchmark
+    jmh("org.openjdk.jol:jol-core:0.17")
 }
 
+// Benchmarks in src/jmh run against the same IntelliJ Platform classes as the tests
+configurations {
+    named("jmhCompileClasspath") { extendsFrom(configurations.testCompileClasspath.get()) }
+    named("jmhRuntimeClasspath") { extendsFrom(configurations.testRuntimeClasspath.get()) }
+}
+
+jmh {
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+}
 
 tasks {
     // Set the JVM compatibility versions
@@ -40,6 +57,13 @@ tasks {
         sourceCompatibility = "21"
         targetCompatibility = "21"
     }
+
+    // Writes synthetic 1k, 10k and 100k-line specs to build/corpus
+    register<JavaExec>("generateSpecCorpus") {
+        classpath = sourceSets["jmh"].runtimeClasspath
+        mainClass = "de.mehtrick.bjoern.BjoernSpecGenerator"
+        args(layout.buildDirectory.dir("corpus").get().asFile.path)
+    }
 }
 
 kotlin {
@@ -1 +1,3 @@
-rootProject.name = "bjoern-intellij-plugin"
\ No newline at end of file
+rootProject.name = "bjoern-intellij-plugin"
+
+include("bjoern-cli")
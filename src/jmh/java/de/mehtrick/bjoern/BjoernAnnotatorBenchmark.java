@@ -0,0 +1,38 @@
+package de.mehtrick.bjoern;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reference value validation of {@link BjoernAnnotator#isValidMarkdownLink} on valid links,
+ * invalid schemes, malformed links and long plain values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BjoernAnnotatorBenchmark {
+
+    private static final String[] VALUES = {
+            "[JIRA-1234](https://jira.example.org/browse/JIRA-1234)",
+            "\"[Spec](http://example.org/spec)\"",
+            "[FTP](ftp://example.org/file)",
+            "[broken](https://example.org",
+            "https://example.org/plain",
+            "Nur Text ohne Link",
+            "[" + "x".repeat(500) + "](https://example.org/" + "y".repeat(500) + ")",
+            "a](b".repeat(200)
+    };
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void isValidMarkdownLink(Blackhole blackhole) {
+        for (String value : VALUES) {
+            blackhole.consume(BjoernAnnotator.isValidMarkdownLink(value));
+        }
+    }
+}
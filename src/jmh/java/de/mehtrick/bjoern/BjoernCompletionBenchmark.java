@@ -0,0 +1,40 @@
+package de.mehtrick.bjoern;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement collection of {@link BjoernCompletionContributor#collectStatements} on generated
+ * specs, which runs for the current file on every completion and for every indexed file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BjoernCompletionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int lines;
+
+    @Param({"Given", "When", "Then"})
+    public String context;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = BjoernSpecGenerator.generate(lines, lines);
+    }
+
+    @Benchmark
+    public Set<String> collectStatements() {
+        Set<String> statements = new HashSet<>();
+        BjoernCompletionContributor.collectStatements(text, context, statements);
+        return statements;
+    }
+}
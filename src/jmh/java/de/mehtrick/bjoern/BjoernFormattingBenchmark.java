@@ -0,0 +1,63 @@
+package de.mehtrick.bjoern;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Section context analysis used by smart indentation: building the
+ * {@link BjoernSectionModel} of a generated spec, querying the context of every line, and
+ * updating the model after typing a character.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BjoernFormattingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int lines;
+
+    private String text;
+    private BjoernSectionModel model;
+    private StringBuilder editedText;
+    private BjoernSectionModel editedModel;
+    private int editOffset;
+
+    @Setup
+    public void setUp() {
+        text = BjoernSpecGenerator.generate(lines, lines);
+        model = BjoernSectionModel.build(text);
+        editedText = new StringBuilder(text);
+        editedModel = BjoernSectionModel.build(editedText);
+        editOffset = text.indexOf('\n', text.length() / 2);
+    }
+
+    @Benchmark
+    public BjoernSectionModel build() {
+        return BjoernSectionModel.build(text);
+    }
+
+    @Benchmark
+    public void contextOfEveryLine(Blackhole blackhole) {
+        int offset = 0;
+        while (offset < text.length()) {
+            int line = model.lineAt(offset);
+            blackhole.consume(model.isInScenarioBefore(line));
+            offset = BjoernSectionModel.lineEnd(text, offset) + 1;
+        }
+    }
+
+    @Benchmark
+    public BjoernSectionModel typeCharacter() {
+        // Insert and remove a character so the text stays the same across invocations
+        editedText.insert(editOffset, 'x');
+        editedModel.update(editedText, editOffset, 0, 1);
+        editedText.deleteCharAt(editOffset);
+        editedModel.update(editedText, editOffset, 1, 0);
+        return editedModel;
+    }
+}
@@ -0,0 +1,113 @@
+package de.mehtrick.bjoern;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword classification throughput of {@link BjoernKeywordValidationLexer} on the bundled
+ * {@code examples/*.zgr} specs, repeated up to the given number of lines.
+ * <p>
+ * {@code legacyStringCheck} is the former String-based check and serves as the "before"
+ * baseline. The {@code tokens} counter reports keys per second; run with {@code ./gradlew jmh}
+ * (the gc profiler is enabled in the build) to also see the allocation rate per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BjoernKeywordLexerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int lines;
+
+    private String text;
+    private int[] keyStarts;
+    private int[] keyEnds;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class TokenCounter {
+        public long tokens;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> exampleLines = new ArrayList<>();
+        Path examples = Path.of(System.getProperty("bjoern.examples", "examples"));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(examples, "*.zgr")) {
+            for (Path file : files) {
+                exampleLines.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+            }
+        }
+        if (exampleLines.isEmpty()) {
+            throw new IllegalStateException("No .zgr examples found in " + examples.toAbsolutePath());
+        }
+
+        StringBuilder builder = new StringBuilder();
+        int[] starts = new int[lines];
+        int[] ends = new int[lines];
+        int keyCount = 0;
+        for (int line = 0; line < lines; line++) {
+            String exampleLine = exampleLines.get(line % exampleLines.size());
+            int lineStart = builder.length();
+            builder.append(exampleLine).append('\n');
+
+            // Key range as the YAML lexer reports it: up to the first colon after an optional "- "
+            int colon = exampleLine.indexOf(':');
+            if (colon > 0 && !exampleLine.trim().startsWith("#")) {
+                int keyStart = 0;
+                while (keyStart < colon && (exampleLine.charAt(keyStart) == ' ' || exampleLine.charAt(keyStart) == '-')) {
+                    keyStart++;
+                }
+                starts[keyCount] = lineStart + keyStart;
+                ends[keyCount] = lineStart + colon;
+                keyCount++;
+            }
+        }
+        text = builder.toString();
+        keyStarts = Arrays.copyOf(starts, keyCount);
+        keyEnds = Arrays.copyOf(ends, keyCount);
+    }
+
+    @Benchmark
+    public void legacyStringCheck(TokenCounter counter, Blackhole blackhole) {
+        for (int i = 0; i < keyStarts.length; i++) {
+            String keywordText = text.subSequence(keyStarts[i], keyEnds[i]).toString().trim();
+            if (keywordText.endsWith(":")) {
+                keywordText = keywordText.substring(0, keywordText.length() - 1);
+            }
+            blackhole.consume(BjoernKeywordValidationLexer.VALID_BDD_KEYWORDS.contains(keywordText));
+        }
+        counter.tokens += keyStarts.length;
+    }
+
+    @Benchmark
+    public void rangeCheck(TokenCounter counter, Blackhole blackhole) {
+        for (int i = 0; i < keyStarts.length; i++) {
+            blackhole.consume(BjoernKeywordValidationLexer.isValidKeyword(text, keyStarts[i], keyEnds[i]));
+        }
+        counter.tokens += keyStarts.length;
+    }
+
+    @Benchmark
+    public void lexer(TokenCounter counter, Blackhole blackhole) {
+        BjoernKeywordValidationLexer lexer = new BjoernKeywordValidationLexer();
+        for (int i = 0; i < keyStarts.length; i++) {
+            lexer.start(text, keyStarts[i], keyEnds[i], 0);
+            blackhole.consume(lexer.getTokenType());
+        }
+        counter.tokens += keyStarts.length;
+    }
+}
@@ -0,0 +1,48 @@
+package de.mehtrick.bjoern;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full tokenization of generated specs with {@link BjoernValidatingLexer}, as done when a file
+ * is opened in the editor. The {@code tokens} counter reports tokens per second.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BjoernLexerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int lines;
+
+    private String text;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class TokenCounter {
+        public long tokens;
+    }
+
+    @Setup
+    public void setUp() {
+        text = BjoernSpecGenerator.generate(lines, lines);
+    }
+
+    @Benchmark
+    public void tokenize(TokenCounter counter, Blackhole blackhole) {
+        BjoernValidatingLexer lexer = new BjoernValidatingLexer();
+        lexer.start(text, 0, text.length(), 0);
+        long tokens = 0;
+        while (lexer.getTokenType() != null) {
+            blackhole.consume(lexer.getTokenType());
+            tokens++;
+            lexer.advance();
+        }
+        counter.tokens += tokens;
+    }
+}
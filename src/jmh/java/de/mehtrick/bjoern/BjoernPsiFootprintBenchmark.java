@@ -0,0 +1,95 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing generated specs into the YAML PSI and into the compact Bjoern tree of
+ * {@link BjoernCompactParser}, with every PSI element created.
+ * <p>
+ * Once per trial, the heap the parsed file retains is printed per 1k spec lines, with the number
+ * of composite elements. The retained heap is the JOL size of the object graph reachable from
+ * the file and from a parsed one-line spec, minus that of the one-line spec alone, which leaves
+ * out the project, the file type and everything else the two files share. Runs in a light
+ * project of the platform test framework.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BjoernPsiFootprintBenchmark {
+
+    @Param({"1000", "10000"})
+    public int lines;
+
+    @Param({"yaml", "compact"})
+    public String tree;
+
+    private IdeaProjectTestFixture fixture;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        System.setProperty(BjoernParserDefinition.COMPACT_PSI_PROPERTY, String.valueOf(tree.equals("compact")));
+        fixture = IdeaTestFixtureFactory.getFixtureFactory()
+                .createLightFixtureBuilder(LightProjectDescriptor.EMPTY_PROJECT_DESCRIPTOR, getClass().getName())
+                .getFixture();
+        EdtTestUtil.runInEdtAndWait(() -> fixture.setUp());
+        text = BjoernSpecGenerator.generate(lines, lines);
+
+        PsiFile file = parse();
+        PsiFile baseline = parseSpec("Feature: Leer\n");
+        long retained = GraphLayout.parseInstance(file, baseline).totalSize()
+                - GraphLayout.parseInstance(baseline).totalSize();
+        int elements = ReadAction.compute(() -> countComposites(file.getNode()));
+        System.out.printf("%n%s tree of %d lines: retains %d bytes, %d elements per 1k lines%n",
+                tree, lines, retained * 1000 / lines, elements * 1000L / lines);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        EdtTestUtil.runInEdtAndWait(() -> fixture.tearDown());
+        System.clearProperty(BjoernParserDefinition.COMPACT_PSI_PROPERTY);
+    }
+
+    @Benchmark
+    public PsiFile parse() {
+        return parseSpec(text);
+    }
+
+    private PsiFile parseSpec(String spec) {
+        return ReadAction.compute(() -> {
+            PsiFile file = PsiFileFactory.getInstance(fixture.getProject())
+                    .createFileFromText("spec.zgr", BjoernFileType.INSTANCE, spec);
+            // Creates the PSI of every element, as inspections walking the file do
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+            });
+            return file;
+        });
+    }
+
+    private static int countComposites(ASTNode node) {
+        ASTNode child = node.getFirstChildNode();
+        if (child == null) {
+            return 0;
+        }
+        int count = 1;
+        for (; child != null; child = child.getTreeNext()) {
+            count += countComposites(child);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,92 @@
+package de.mehtrick.bjoern;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates synthetic Bjoern specs of a given number of lines for the benchmarks.
+ * <p>
+ * The specs mix the constructs seen in real specs: a markdown reference, a background, many
+ * scenarios with Given/When/Then blocks, steps with quoted parameters (including escaped
+ * quotes and Windows paths), and full-line and inline comments. The same seed always produces
+ * the same text.
+ * <p>
+ * Running {@link #main} writes {@code spec-1000.zgr}, {@code spec-10000.zgr} and
+ * {@code spec-100000.zgr} to the given directory ({@code build/corpus} by default).
+ */
+public final class BjoernSpecGenerator {
+
+    private static final String[] SECTIONS = {"Given", "When", "Then"};
+    private static final String[] SUBJECTS = {"Der Kunde", "Der Automat", "Die Kasse", "Ein Benutzer", "Das System"};
+    private static final String[] VERBS = {"wirft", "zahlt", "waehlt", "bestaetigt", "erhaelt", "sieht"};
+    private static final String[] OBJECTS = {"Euro", "Flaschen Cola", "Muenzen", "Artikel", "Meldungen"};
+    private static final String[] VALUES = {"1", "2", "5", "10", "Cola", "john.doe", "C:\\\\Temp\\\\", "sag \\\"Hallo\\\""};
+
+    private BjoernSpecGenerator() {
+    }
+
+    public static String generate(int lines, long seed) {
+        Random random = new Random(seed);
+        StringBuilder spec = new StringBuilder(lines * 40);
+        spec.append("Feature: Synthetischer Automat\n");
+        spec.append("Reference: \"[JIRA-").append(random.nextInt(10000)).append("](https://jira.example.org/browse/JIRA-1)\"\n");
+        spec.append("Background:\n");
+        spec.append("  Given:\n");
+        spec.append("    - ").append(step(random)).append('\n');
+        spec.append("Scenarios:\n");
+
+        int line = 6;
+        int scenario = 0;
+        while (line < lines) {
+            spec.append("  - Scenario: Fall ").append(scenario++).append('\n');
+            line++;
+            for (String section : SECTIONS) {
+                if (line >= lines) {
+                    break;
+                }
+                spec.append("    ").append(section).append(":\n");
+                line++;
+                int steps = 1 + random.nextInt(3);
+                for (int i = 0; i < steps && line < lines; i++, line++) {
+                    if (random.nextInt(10) == 0) {
+                        spec.append("      # Kommentar ").append(i).append('\n');
+                    } else {
+                        spec.append("      - ").append(step(random));
+                        if (random.nextInt(8) == 0) {
+                            spec.append(" # inline");
+                        }
+                        spec.append('\n');
+                    }
+                }
+            }
+        }
+        return spec.toString();
+    }
+
+    private static String step(Random random) {
+        StringBuilder step = new StringBuilder();
+        step.append(pick(random, SUBJECTS)).append(' ').append(pick(random, VERBS));
+        int parameters = random.nextInt(3);
+        for (int i = 0; i < parameters; i++) {
+            step.append(" \"").append(pick(random, VALUES)).append('"');
+        }
+        return step.append(' ').append(pick(random, OBJECTS)).toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "build/corpus");
+        Files.createDirectories(directory);
+        for (int lines : new int[]{1000, 10000, 100000}) {
+            Path file = directory.resolve("spec-" + lines + ".zgr");
+            Files.writeString(file, generate(lines, lines), StandardCharsets.UTF_8);
+            System.out.println("Wrote " + file);
+        }
+    }
+}
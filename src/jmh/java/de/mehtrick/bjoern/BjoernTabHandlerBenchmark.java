@@ -0,0 +1,49 @@
+package de.mehtrick.bjoern;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tab navigation between parameters on generated specs: {@link BjoernTabHandler#findNextParameter}
+ * scans the whole text per call, while the editor looks the caret up in the cached
+ * {@link BjoernParameterRanges} of the document.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BjoernTabHandlerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int lines;
+
+    private String text;
+    private BjoernParameterRanges ranges;
+    // Caret inside a parameter in the middle of the text
+    private int caretOffset;
+
+    @Setup
+    public void setUp() {
+        text = BjoernSpecGenerator.generate(lines, lines);
+        ranges = BjoernParameterRanges.scan(text);
+        caretOffset = ranges.getStart(ranges.size() / 2) + 1;
+    }
+
+    @Benchmark
+    public int[] findNextParameter() {
+        return BjoernTabHandler.findNextParameter(text, caretOffset);
+    }
+
+    @Benchmark
+    public BjoernParameterRanges scanParameterRanges() {
+        return BjoernParameterRanges.scan(text);
+    }
+
+    @Benchmark
+    public int cachedLookup() {
+        return ranges.indexOfEnclosing(caretOffset);
+    }
+}
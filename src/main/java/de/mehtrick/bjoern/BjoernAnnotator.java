@@ -24,11 +24,12 @@ public class BjoernAnnotator implements Annotator {
 
     @Override
     public void annotate(@NotNull PsiElement element, @NotNull AnnotationHolder holder) {
-        if (!element.getContainingFile().getName().endsWith(".zgr")) {
+        // Called for every element of the file; rule out non-values before looking at the file
+        if (!(element instanceof YAMLValue)) {
             return;
         }
 
-        if (!(element instanceof YAMLValue)) {
+        if (!element.getContainingFile().getName().endsWith(".zgr")) {
             return;
         }
 
@@ -0,0 +1,316 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.formatting.*;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.util.text.CharArrayUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.yaml.psi.YAMLKeyValue;
+import org.jetbrains.yaml.psi.YAMLSequence;
+import org.jetbrains.yaml.psi.YAMLSequenceItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Formatting block of a Bjoern spec.
+ * <p>
+ * A YAML key-value, sequence item, comment or compact Bjoern element that starts a line is a
+ * block; if it spans several lines, its first line is a leaf and the line-starting elements
+ * nested in it are its sub-blocks. Nested elements are indented by two spaces per level, which
+ * gives the 0/2/4/6 layout of Feature, Scenario, Given/When/Then and step items. Top-level lines
+ * are placed by their keyword, so flat specs with every line at column 0 get the same layout:
+ * Feature, Background and Scenarios at 0, "- Scenario:" at 2, Given/When/Then at 2 (4 in a
+ * scenario) and their step items at 4 (6 in a scenario). A "- Scenario:" item that YAML nests in
+ * the step sequence before it is lifted out of that step block.
+ * <p>
+ * Comment lines and lines continuing a multi-line scalar move by as much as the first line of
+ * the block they are in. Continuation lines of a quoted scalar are part of its token and keep
+ * their text. Sub-blocks are built from the PSI children of a block only when the formatter
+ * asks for them, so a range reformat only builds the blocks on the path to the changed lines.
+ */
+final class BjoernBlock implements Block {
+
+    private static final int INDENT_SIZE = 2;
+
+    private static final TokenSet COMPACT_LINE_ELEMENTS = TokenSet.create(BjoernElementTypes.FEATURE,
+            BjoernElementTypes.METADATA, BjoernElementTypes.BACKGROUND, BjoernElementTypes.SCENARIO,
+            BjoernElementTypes.STEP_BLOCK, BjoernElementTypes.STEP);
+
+    /**
+     * State shared by the blocks of a file.
+     */
+    private static final class Context {
+        private final PsiFile file;
+        private final CharSequence text;
+        private final Spacing lineSpacing;
+        private BjoernSectionModel sections;
+
+        Context(PsiFile file, Spacing lineSpacing) {
+            this.file = file;
+            this.text = file.getViewProvider().getContents();
+            this.lineSpacing = lineSpacing;
+        }
+
+        BjoernSectionModel sections() {
+            if (sections == null) {
+                PsiDocumentManager documentManager = PsiDocumentManager.getInstance(file.getProject());
+                Document document = documentManager.getDocument(file);
+                sections = document != null && documentManager.isCommitted(document)
+                        ? BjoernDocumentListener.getSectionModel(document)
+                        : BjoernSectionModel.build(text);
+            }
+            return sections;
+        }
+    }
+
+    private final Context context;
+    // The file, the element starting the block, or null for a line that no element starts
+    private final @Nullable PsiElement element;
+    private final TextRange range;
+    private final Indent indent;
+    // Column the first line of the block is formatted to
+    private final int column;
+    private List<Block> subBlocks;
+
+    private BjoernBlock(Context context, @Nullable PsiElement element, TextRange range, Indent indent, int column) {
+        this.context = context;
+        this.element = element;
+        this.range = range;
+        this.indent = indent;
+        this.column = column;
+    }
+
+    /**
+     * Creates the block of the whole file.
+     *
+     * @param keepBlankLines blank lines kept between two lines at most
+     */
+    static @NotNull BjoernBlock createFileBlock(@NotNull PsiFile file, int keepBlankLines) {
+        Context context = new Context(file, Spacing.createSpacing(0, 0, 1, true, keepBlankLines));
+        return new BjoernBlock(context, file, file.getTextRange(), Indent.getNoneIndent(), 0);
+    }
+
+    @NotNull
+    @Override
+    public TextRange getTextRange() {
+        return range;
+    }
+
+    @NotNull
+    @Override
+    public List<Block> getSubBlocks() {
+        if (subBlocks == null) {
+            subBlocks = isLeaf() ? Collections.emptyList() : buildSubBlocks();
+        }
+        return subBlocks;
+    }
+
+    private List<Block> buildSubBlocks() {
+        List<Block> blocks = new ArrayList<>();
+        int coveredUntil = range.getStartOffset();
+        int shift = 0;
+        if (!isFileBlock()) {
+            int start = range.getStartOffset();
+            coveredUntil = Math.min(lineContentEnd(start), range.getEndOffset());
+            blocks.add(new BjoernBlock(context, null, new TextRange(start, coveredUntil), Indent.getNoneIndent(), column));
+            shift = column - originalColumn(start);
+        }
+        collect(element, blocks, coveredUntil, column, shift);
+        return blocks;
+    }
+
+    /**
+     * Adds a block for every line in the children of {@code parent} that starts after
+     * {@code coveredUntil} and inside this block, without descending into the elements that
+     * become blocks themselves.
+     *
+     * @param base  column of the nearest enclosing element, the one nested elements are indented from
+     * @param shift columns the first line of this block moves by
+     * @return the offset up to which the lines are covered by blocks
+     */
+    private int collect(PsiElement parent, List<Block> blocks, int coveredUntil, int base, int shift) {
+        int end = range.getEndOffset();
+        for (PsiElement child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            int start = child.getTextRange().getStartOffset();
+            if (start >= end) {
+                break;
+            }
+            if (child.getTextRange().getEndOffset() <= coveredUntil || isBlankLeaf(child)) {
+                continue;
+            }
+
+            boolean lineElement = isLineElement(child);
+            if (start >= coveredUntil && isLineStart(start) && (lineElement || child.getFirstChild() == null)) {
+                int childColumn = columnOf(lineElement ? child : null, start, base, shift);
+                int blockEnd = Math.min(blockEnd(child), end);
+                TextRange childRange = new TextRange(start, blockEnd);
+                blocks.add(new BjoernBlock(context, lineElement ? child : null, childRange,
+                        Indent.getSpaceIndent(Math.max(0, childColumn - column)), Math.max(childColumn, column)));
+                coveredUntil = blockEnd;
+                if (lineElement && blockEnd < child.getTextRange().getEndOffset()) {
+                    // The rest of a step block that a scenario item was lifted out of
+                    coveredUntil = collect(child, blocks, coveredUntil, base, shift);
+                }
+            } else if (child.getFirstChild() != null) {
+                int childBase = lineElement ? originalColumn(start) + shift : base;
+                coveredUntil = collect(child, blocks, coveredUntil, childBase, shift);
+            }
+        }
+        return coveredUntil;
+    }
+
+    /**
+     * Returns the column of a line nested in this block: of the line starting {@code lineElement},
+     * or of a line no element starts if it is null.
+     */
+    private int columnOf(@Nullable PsiElement lineElement, int start, int base, int shift) {
+        if (lineElement instanceof PsiComment || (lineElement == null && !isFileBlock())) {
+            return originalColumn(start) + shift;
+        }
+        if (!isFileBlock()) {
+            return base + INDENT_SIZE;
+        }
+
+        CharSequence text = context.text;
+        if (CharArrayUtil.regionMatches(text, start, "Feature:") || CharArrayUtil.regionMatches(text, start, "Background:")
+                || CharArrayUtil.regionMatches(text, start, "Scenarios:")) {
+            return 0;
+        }
+        if (CharArrayUtil.regionMatches(text, start, "- Scenario:")
+                || (lineElement != null && lineElement.getNode().getElementType() == BjoernElementTypes.SCENARIO)) {
+            return INDENT_SIZE;
+        }
+        BjoernSectionModel sections = context.sections();
+        int line = sections.lineAt(start);
+        boolean inScenario = sections.isInScenarioBefore(line);
+        if (isStepKeyword(start)) {
+            return inScenario ? 2 * INDENT_SIZE : INDENT_SIZE;
+        }
+        int lastSection = BjoernSectionModel.lastSection(sections.stateBefore(line));
+        if (text.charAt(start) == '-' && (start + 1 == text.length() || Character.isWhitespace(text.charAt(start + 1)))
+                && lastSection >= BjoernSectionModel.LAST_GIVEN && lastSection <= BjoernSectionModel.LAST_THEN) {
+            return inScenario ? 3 * INDENT_SIZE : 2 * INDENT_SIZE;
+        }
+        return lineElement != null ? 0 : originalColumn(start);
+    }
+
+    /**
+     * Returns the end of the block started by the element: the end of its last line, or, for a
+     * top-level Given/When/Then whose step sequence holds a "- Scenario:" item, the end of the
+     * line before that item.
+     */
+    private int blockEnd(PsiElement element) {
+        CharSequence text = context.text;
+        int start = element.getTextRange().getStartOffset();
+        int end = element.getTextRange().getEndOffset();
+        if (isFileBlock() && element instanceof YAMLKeyValue && isStepKeyword(start)
+                && ((YAMLKeyValue) element).getValue() instanceof YAMLSequence) {
+            for (YAMLSequenceItem item : ((YAMLSequence) ((YAMLKeyValue) element).getValue()).getItems()) {
+                int itemStart = item.getTextRange().getStartOffset();
+                if (CharArrayUtil.regionMatches(text, itemStart, "- Scenario:") && isLineStart(itemStart)) {
+                    end = itemStart;
+                    break;
+                }
+            }
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return lineContentEnd(Math.max(start, end - 1));
+    }
+
+    private boolean isStepKeyword(int start) {
+        CharSequence text = context.text;
+        return CharArrayUtil.regionMatches(text, start, "Given:") || CharArrayUtil.regionMatches(text, start, "When:")
+                || CharArrayUtil.regionMatches(text, start, "Then:");
+    }
+
+    private static boolean isLineElement(PsiElement element) {
+        return element instanceof YAMLKeyValue || element instanceof YAMLSequenceItem || element instanceof PsiComment
+                || COMPACT_LINE_ELEMENTS.contains(element.getNode().getElementType());
+    }
+
+    private static boolean isBlankLeaf(PsiElement element) {
+        return element.getFirstChild() == null && StringUtil.isEmptyOrSpaces(element.getNode().getChars());
+    }
+
+    // Whether only blanks precede offset on its line
+    private boolean isLineStart(int offset) {
+        CharSequence text = context.text;
+        while (offset > 0 && (text.charAt(offset - 1) == ' ' || text.charAt(offset - 1) == '\t')) {
+            offset--;
+        }
+        return offset == 0 || text.charAt(offset - 1) == '\n';
+    }
+
+    private int originalColumn(int offset) {
+        CharSequence text = context.text;
+        int lineStart = offset;
+        while (lineStart > 0 && text.charAt(lineStart - 1) != '\n') {
+            lineStart--;
+        }
+        return offset - lineStart;
+    }
+
+    // End of the content of the line containing offset, without trailing whitespace
+    private int lineContentEnd(int offset) {
+        CharSequence text = context.text;
+        int lineEnd = offset;
+        while (lineEnd < text.length() && text.charAt(lineEnd) != '\n') {
+            lineEnd++;
+        }
+        while (lineEnd > offset && Character.isWhitespace(text.charAt(lineEnd - 1))) {
+            lineEnd--;
+        }
+        return lineEnd;
+    }
+
+    private boolean isFileBlock() {
+        return element instanceof PsiFile;
+    }
+
+    @Override
+    public @Nullable Wrap getWrap() {
+        return null;
+    }
+
+    @Override
+    public @Nullable Indent getIndent() {
+        return indent;
+    }
+
+    @Override
+    public @Nullable Alignment getAlignment() {
+        return null;
+    }
+
+    @Override
+    public @Nullable Spacing getSpacing(@Nullable Block child1, @NotNull Block child2) {
+        return child1 != null ? context.lineSpacing : null;
+    }
+
+    @NotNull
+    @Override
+    public ChildAttributes getChildAttributes(int newChildIndex) {
+        return new ChildAttributes(isFileBlock() ? Indent.getNoneIndent() : Indent.getSpaceIndent(INDENT_SIZE), null);
+    }
+
+    @Override
+    public boolean isIncomplete() {
+        return false;
+    }
+
+    @Override
+    public boolean isLeaf() {
+        return element == null || (!isFileBlock() && lineContentEnd(range.getStartOffset()) >= range.getEndOffset());
+    }
+}
@@ -0,0 +1,20 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.lang.ASTNode;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Element of the compact Bjoern tree; its kind is the {@link BjoernElementTypes element type}
+ * of its node.
+ */
+public class BjoernCompactElement extends ASTWrapperPsiElement {
+    public BjoernCompactElement(@NotNull ASTNode node) {
+        super(node);
+    }
+
+    @Override
+    public String toString() {
+        return "Bjoern " + getNode().getElementType();
+    }
+}
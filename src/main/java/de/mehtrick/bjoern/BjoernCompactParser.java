@@ -0,0 +1,239 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiParser;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.yaml.YAMLTokenTypes;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parser of the optional compact Bjoern tree, enabled with {@link BjoernParserDefinition#COMPACT_PSI_PROPERTY}.
+ * <p>
+ * Instead of the generic YAML tree of key-values, mappings, sequences and scalars, it only
+ * builds the elements the spec is made of: {@link BjoernElementTypes#FEATURE Feature}, other
+ * top-level metadata, Background, Scenario, Given/When/Then step blocks, steps and their quoted
+ * parameters. Nesting is followed by the indentation of the lines, like the CLI's spec
+ * outline; all tokens stay in the tree, which covers the text like the YAML one does.
+ */
+final class BjoernCompactParser implements PsiParser {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("([A-Za-z]+)\\s*:(?:\\s|$)");
+
+    private static final TokenSet PARAMETER_TOKENS =
+            TokenSet.create(BjoernTokenTypes.DOUBLE_QUOTED_STRING, YAMLTokenTypes.SCALAR_DSTRING);
+
+    /**
+     * A line with content, read from the text ahead of the builder.
+     */
+    private static final class Line {
+        // Offset and column of the first character that is not indentation
+        final int contentStart;
+        final int column;
+        // Offset of the line break ending the line, or the end of the text
+        final int end;
+        final boolean item;
+        // The key the line (after the sequence marker of an item) starts with, or null
+        final String key;
+        final int keyStart;
+
+        Line(int contentStart, int column, int end, boolean item, String key, int keyStart) {
+            this.contentStart = contentStart;
+            this.column = column;
+            this.end = end;
+            this.item = item;
+            this.key = key;
+            this.keyStart = keyStart;
+        }
+
+        boolean isStepBlock() {
+            return key != null && BjoernSpecModel.BDD_STEP_KEYS.contains(key);
+        }
+    }
+
+    @Override
+    public @NotNull ASTNode parse(@NotNull IElementType root, @NotNull PsiBuilder builder) {
+        CharSequence text = builder.getOriginalText();
+        PsiBuilder.Marker file = builder.mark();
+        Line line;
+        while ((line = nextLine(builder, text)) != null) {
+            if (line.column == 0 && !line.item && line.key != null) {
+                switch (line.key) {
+                    case "Feature" -> parseElement(builder, text, line, BjoernElementTypes.FEATURE);
+                    case "Background" -> parseBackground(builder, text, line);
+                    case "Scenarios" -> parseScenarios(builder, text, line);
+                    default -> parseElement(builder, text, line, BjoernElementTypes.METADATA);
+                }
+            } else {
+                skipBlock(builder, text, line);
+            }
+        }
+        while (!builder.eof()) {
+            builder.advanceLexer();
+        }
+        file.done(root);
+        return builder.getTreeBuilt();
+    }
+
+    private static void parseElement(PsiBuilder builder, CharSequence text, Line line, IElementType type) {
+        advanceTo(builder, line.contentStart, false);
+        PsiBuilder.Marker element = builder.mark();
+        advanceBlock(builder, text, line, false);
+        element.done(type);
+    }
+
+    private static void parseBackground(PsiBuilder builder, CharSequence text, Line line) {
+        advanceTo(builder, line.contentStart, false);
+        PsiBuilder.Marker background = builder.mark();
+        advanceTo(builder, line.end, false);
+        Line next;
+        while ((next = nextLine(builder, text)) != null && next.column > line.column) {
+            if (!next.item && next.isStepBlock()) {
+                parseStepBlock(builder, text, next);
+            } else {
+                skipBlock(builder, text, next);
+            }
+        }
+        background.done(BjoernElementTypes.BACKGROUND);
+    }
+
+    private static void parseScenarios(PsiBuilder builder, CharSequence text, Line line) {
+        advanceTo(builder, line.end, false);
+        Line next;
+        while ((next = nextLine(builder, text)) != null
+                && (next.column > line.column || next.column == line.column && next.item)) {
+            if (next.item) {
+                parseScenario(builder, text, next);
+            } else {
+                skipBlock(builder, text, next);
+            }
+        }
+    }
+
+    private static void parseScenario(PsiBuilder builder, CharSequence text, Line item) {
+        advanceTo(builder, item.contentStart, false);
+        PsiBuilder.Marker scenario = builder.mark();
+        if (item.isStepBlock()) {
+            // "- Given:" opens the item's mapping with a step block
+            int lineStart = item.contentStart - item.column;
+            parseStepBlock(builder, text, new Line(item.keyStart, item.keyStart - lineStart, item.end, false,
+                    item.key, item.keyStart));
+        } else {
+            advanceTo(builder, item.end, false);
+        }
+        Line next;
+        while ((next = nextLine(builder, text)) != null && next.column > item.column) {
+            if (!next.item && next.isStepBlock()) {
+                parseStepBlock(builder, text, next);
+            } else {
+                skipBlock(builder, text, next);
+            }
+        }
+        scenario.done(BjoernElementTypes.SCENARIO);
+    }
+
+    private static void parseStepBlock(PsiBuilder builder, CharSequence text, Line line) {
+        advanceTo(builder, line.contentStart, false);
+        PsiBuilder.Marker block = builder.mark();
+        advanceTo(builder, line.end, false);
+        Line next;
+        while ((next = nextLine(builder, text)) != null
+                && (next.column > line.column || next.column == line.column && next.item)) {
+            if (next.item) {
+                advanceTo(builder, next.contentStart, false);
+                PsiBuilder.Marker step = builder.mark();
+                advanceBlock(builder, text, next, true);
+                step.done(BjoernElementTypes.STEP);
+            } else {
+                skipBlock(builder, text, next);
+            }
+        }
+        block.done(BjoernElementTypes.STEP_BLOCK);
+    }
+
+    private static void skipBlock(PsiBuilder builder, CharSequence text, Line line) {
+        advanceTo(builder, line.contentStart, false);
+        advanceBlock(builder, text, line, false);
+    }
+
+    /**
+     * Advances over the line and the following lines indented deeper than it.
+     */
+    private static void advanceBlock(PsiBuilder builder, CharSequence text, Line line, boolean parameters) {
+        advanceTo(builder, line.end, parameters);
+        Line next;
+        while ((next = nextLine(builder, text)) != null && next.column > line.column) {
+            advanceTo(builder, next.end, parameters);
+        }
+    }
+
+    /**
+     * Advances over the tokens starting before the offset, wrapping quoted strings into
+     * {@link BjoernElementTypes#PARAMETER parameters} if asked to. A step that is a single quoted
+     * scalar is lexed as such by the YAML lexer, and is a parameter as well.
+     */
+    private static void advanceTo(PsiBuilder builder, int offset, boolean parameters) {
+        while (!builder.eof() && builder.getCurrentOffset() < offset) {
+            if (parameters && PARAMETER_TOKENS.contains(builder.getTokenType())) {
+                PsiBuilder.Marker parameter = builder.mark();
+                builder.advanceLexer();
+                parameter.done(BjoernElementTypes.PARAMETER);
+            } else {
+                builder.advanceLexer();
+            }
+        }
+    }
+
+    /**
+     * Returns the next line with content other than a comment at or after the builder's
+     * position, without advancing the builder; null at the end of the text.
+     */
+    private static @Nullable Line nextLine(PsiBuilder builder, CharSequence text) {
+        if (builder.eof()) {
+            return null;
+        }
+        int offset = builder.getCurrentOffset();
+        int lineStart = offset < text.length() && text.charAt(offset) == '\n' ? offset + 1 : lineStart(text, offset);
+        while (lineStart < text.length()) {
+            int contentStart = lineStart;
+            while (contentStart < text.length() && (text.charAt(contentStart) == ' ' || text.charAt(contentStart) == '\t')) {
+                contentStart++;
+            }
+            int end = contentStart;
+            while (end < text.length() && text.charAt(end) != '\n') {
+                end++;
+            }
+            char first = contentStart < text.length() ? text.charAt(contentStart) : '\n';
+            if (first == '\n' || first == '\r' || first == '#') {
+                lineStart = end + 1;
+                continue;
+            }
+
+            boolean item = first == '-' && (contentStart + 1 == end || Character.isWhitespace(text.charAt(contentStart + 1)));
+            int keyStart = contentStart;
+            if (item) {
+                keyStart++;
+                while (keyStart < end && (text.charAt(keyStart) == ' ' || text.charAt(keyStart) == '\t')) {
+                    keyStart++;
+                }
+            }
+            Matcher key = KEY_PATTERN.matcher(text).region(keyStart, end);
+            return new Line(contentStart, contentStart - lineStart, end, item,
+                    key.lookingAt() ? key.group(1) : null, keyStart);
+        }
+        return null;
+    }
+
+    private static int lineStart(CharSequence text, int offset) {
+        int lineStart = Math.min(offset, text.length());
+        while (lineStart > 0 && text.charAt(lineStart - 1) != '\n') {
+            lineStart--;
+        }
+        return lineStart;
+    }
+}
@@ -1,23 +1,43 @@
 package de.mehtrick.bjoern;
 
 import com.intellij.codeInsight.completion.*;
+import com.intellij.codeInsight.lookup.Lookup;
+import com.intellij.codeInsight.lookup.LookupElement;
 import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import com.intellij.codeInsight.lookup.LookupEvent;
+import com.intellij.codeInsight.lookup.LookupListener;
+import com.intellij.codeInsight.lookup.LookupManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.patterns.PlatformPatterns;
 import com.intellij.patterns.StandardPatterns;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiManager;
-import com.intellij.psi.search.FileTypeIndex;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ProcessingContext;
+import com.intellij.util.indexing.FileBasedIndex;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.yaml.YAMLTokenTypes;
 import org.jetbrains.yaml.psi.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -26,44 +46,87 @@ public class BjoernCompletionContributor extends CompletionContributor {
             "Feature:", "Version:", "Reference:", "Changelog:",
             "Background:", "Given:", "When:", "Then:", "Scenario:", "Scenarios:"
     );
-    
-    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\"[^\"]*\"");
+
+    private static final Logger LOG = Logger.getInstance(BjoernCompletionContributor.class);
+
+    private static final Key<SuggestionMemo> SUGGESTION_MEMO_KEY = Key.create("bjoern.completion.suggestions");
+
+    private static final AtomicInteger SCANS_AVOIDED = new AtomicInteger();
+
+    // Step blocks per context and their list items, see forEachRawStepBlock
+    private static final Map<String, Pattern> SECTION_PATTERNS = new ConcurrentHashMap<>();
+    private static final Pattern ITEM_PATTERN = Pattern.compile("^\\s*-\\s*(.+)$", Pattern.MULTILINE);
+
+    // New project suggestions handed to the lookup at a time
+    private static final int PROJECT_BATCH_SIZE = 50;
+    // After this the lookup keeps the suggestions found so far
+    private static final long PROJECT_SCAN_BUDGET_MS = 300;
 
     public BjoernCompletionContributor() {
-        // Primary completion provider for Bjoern files - using multiple patterns for better coverage
+        // One pattern covers every element of a Bjoern file, so each invocation reaches the provider once
         extend(CompletionType.BASIC,
                 PlatformPatterns.psiElement()
                         .inFile(PlatformPatterns.psiFile().withName(StandardPatterns.string().endsWith(".zgr"))),
                 new BjoernCompletionProvider());
-        
-        // Backup completion provider for YAML-based structures
-        extend(CompletionType.BASIC,
-                PlatformPatterns.psiElement(YAMLTokenTypes.TEXT)
-                        .inFile(PlatformPatterns.psiFile().withName(StandardPatterns.string().endsWith(".zgr"))),
-                new BjoernCompletionProvider());
-        
-        // Additional pattern for YAML scalar values
-        extend(CompletionType.BASIC,
-                PlatformPatterns.psiElement(YAMLTokenTypes.SCALAR_KEY)
-                        .inFile(PlatformPatterns.psiFile().withName(StandardPatterns.string().endsWith(".zgr"))),
-                new BjoernCompletionProvider());
     }
-    
+
+    /**
+     * Step suggestions of one completion session, that is, of one lookup: typing narrows the
+     * prefix and restarts completion, but keeps the lookup. The memo is dropped when the lookup
+     * closes, and only reused while the document and the files on disk are unchanged and the
+     * lookup items start at the same offset.
+     */
+    private static final class SuggestionMemo {
+        private final Lookup lookup;
+        private final int startOffset;
+        private final long documentStamp;
+        private final long vfsModificationCount;
+        private final String context;
+        private final String previousStep;
+        private final List<BjoernStepSuggestion> suggestions;
+
+        SuggestionMemo(Lookup lookup, int startOffset, long documentStamp, long vfsModificationCount, String context,
+                       String previousStep, List<BjoernStepSuggestion> suggestions) {
+            this.lookup = lookup;
+            this.startOffset = startOffset;
+            this.documentStamp = documentStamp;
+            this.vfsModificationCount = vfsModificationCount;
+            this.context = context;
+            this.previousStep = previousStep;
+            this.suggestions = suggestions;
+        }
+
+        boolean isValidFor(Lookup lookup, int startOffset, long documentStamp, long vfsModificationCount, String context,
+                           String previousStep) {
+            return this.lookup == lookup && this.startOffset == startOffset && this.documentStamp == documentStamp
+                    && this.vfsModificationCount == vfsModificationCount
+                    && this.context.equals(context) && Objects.equals(this.previousStep, previousStep);
+        }
+    }
+
     private static class BjoernCompletionProvider extends CompletionProvider<CompletionParameters> {
         @Override
         protected void addCompletions(@NotNull CompletionParameters parameters,
                                       @NotNull ProcessingContext context,
                                       @NotNull CompletionResultSet result) {
-            // Debug: Always try to provide completions for .zgr files
             PsiFile file = parameters.getOriginalFile();
             if (!file.getName().endsWith(".zgr")) {
                 return;
             }
-            
+
             PsiElement element = parameters.getPosition();
-            String currentContext = getCurrentBDDContext(element);
-            String text = parameters.getEditor().getDocument().getText();
+            Document document = parameters.getEditor().getDocument();
             int offset = parameters.getOffset();
+            String currentContext = getCurrentBDDContext(element, document, offset);
+            // The document's immutable text is shared, not copied on every invocation
+            CharSequence text = document.getImmutableCharSequence();
+
+            // Inside a quoted parameter only the values used for that placeholder make sense
+            if (BjoernDocumentListener.getParameterRanges(document).indexOfEnclosing(offset) >= 0) {
+                addParameterValues(file, text, offset, result);
+                result.stopHere();
+                return;
+            }
             
             // Always provide BDD keyword completions
             boolean shouldShowKeywords = shouldShowKeywordCompletion(text, offset);
@@ -77,27 +140,134 @@ public class BjoernCompletionContributor extends CompletionContributor {
             
             // Provide smart completion based on context
             if (currentContext != null) {
-                Set<String> suggestions = extractStatementsFromFile(file, currentContext);
-                
-                for (String suggestion : suggestions) {
-                    String lookupText = isUnderListItem(text, offset) ? suggestion : "- " + suggestion;
-                    result.addElement(LookupElementBuilder.create(lookupText)
-                            .withTypeText(currentContext + " suggestion")
-                            .withInsertHandler((context1, item) -> {
-                                // Place cursor at first variable placeholder if any
-                                int caretOffset = context1.getEditor().getCaretModel().getOffset();
-                                String insertedText = item.getLookupString();
-                                int firstQuote = insertedText.indexOf("\"\"");
-                                if (firstQuote != -1) {
-                                    context1.getEditor().getCaretModel().moveToOffset(caretOffset - insertedText.length() + firstQuote + 1);
-                                }
-                            }));
-                }
+                boolean underListItem = isUnderListItem(text, offset);
+                String previousStep = getPreviousStep(text, offset);
+                // In large specs the automatic popup leaves out the scan of the other specs
+                boolean includeProject = parameters.getInvocationCount() > 0 || !BjoernLargeFileMode.isActive(document);
+                int startOffset = offset - result.getPrefixMatcher().getPrefix().length();
+                addSuggestions(parameters.getEditor(), file, startOffset, currentContext, previousStep, includeProject, batch -> {
+                    List<LookupElement> elements = new ArrayList<>(batch.size());
+                    for (BjoernStepSuggestion suggestion : batch) {
+                        elements.add(createStepElement(suggestion, underListItem));
+                    }
+                    result.addAllElements(elements);
+                });
             }
         }
     }
+
+    /**
+     * Suggests the values the project's specs use for the placeholder the caret is in, most
+     * frequent first. The placeholder is identified by the template of the step the caret is in
+     * and its position in it.
+     */
+    private static void addParameterValues(PsiFile file, CharSequence text, int offset, CompletionResultSet result) {
+        BjoernSteps.Step step = BjoernSteps.forFile(file).findStepAt(offset);
+        int slot = step != null ? step.indexOfParameterAt(offset) : -1;
+        if (slot < 0) {
+            return;
+        }
+
+        String prefix = text.subSequence(step.getParameterStart(slot) + 1, offset).toString();
+        CompletionResultSet valueResult = result.withPrefixMatcher(prefix);
+        BjoernTopKValues values = BjoernParameterValueIndex.getValues(file.getProject(), step.getTemplate(), slot);
+        for (Map.Entry<String, Integer> entry : values.top()) {
+            valueResult.addElement(PrioritizedLookupElement.withPriority(
+                    LookupElementBuilder.create(entry.getKey()).withTypeText("used " + entry.getValue() + "\u00d7"),
+                    entry.getValue()));
+        }
+    }
+
+    private static LookupElement createStepElement(BjoernStepSuggestion suggestion, boolean underListItem) {
+        String template = suggestion.getTemplate();
+        return LookupElementBuilder.create(suggestion, underListItem ? template : "- " + template)
+                .withTypeText(suggestion.getContext() + " suggestion")
+                .withInsertHandler((context1, item) -> {
+                    BjoernStepRecency.getInstance(context1.getProject())
+                            .recordAccepted(suggestion.getContext(), template);
+                    // Place cursor at first variable placeholder if any
+                    int caretOffset = context1.getEditor().getCaretModel().getOffset();
+                    String insertedText = item.getLookupString();
+                    int firstQuote = insertedText.indexOf("\"\"");
+                    if (firstQuote != -1) {
+                        context1.getEditor().getCaretModel().moveToOffset(caretOffset - insertedText.length() + firstQuote + 1);
+                    }
+                });
+    }
     
-    private static boolean shouldShowKeywordCompletion(String text, int offset) {
+    /**
+     * Hands the step suggestions for the given context to {@code sink}: those of the current file
+     * first, then, if {@code includeProject}, the ones of the other specs in batches as the step
+     * index yields them. Reuses the suggestions of the current lookup if its session saw all of
+     * them at {@code startOffset} in the unchanged document; each reuse gets its own copies, as
+     * the items of the previous run still hold the old ones.
+     * <p>
+     * Each suggestion counts the occurrences of its template in the project and how often it
+     * follows {@code previousStep} there; {@link BjoernStepWeigher} ranks by both.
+     */
+    private static void addSuggestions(Editor editor, PsiFile file, int startOffset, String context, String previousStep,
+                                       boolean includeProject, Consumer<Collection<BjoernStepSuggestion>> sink) {
+        Lookup lookup = LookupManager.getActiveLookup(editor);
+        long documentStamp = editor.getDocument().getModificationStamp();
+        long vfsModificationCount = VirtualFileManager.getInstance().getModificationCount();
+        SuggestionMemo memo = editor.getUserData(SUGGESTION_MEMO_KEY);
+        if (memo != null && memo.isValidFor(lookup, startOffset, documentStamp, vfsModificationCount, context, previousStep)) {
+            int avoided = SCANS_AVOIDED.incrementAndGet();
+            LOG.debug("Reused Bjoern step suggestions of the completion session (" + avoided + " scans avoided so far)");
+            List<BjoernStepSuggestion> copies = new ArrayList<>(memo.suggestions.size());
+            for (BjoernStepSuggestion suggestion : memo.suggestions) {
+                copies.add(suggestion.copy());
+            }
+            sink.accept(copies);
+            return;
+        }
+
+        Map<String, Integer> fileCounts = new LinkedHashMap<>();
+        for (BjoernSteps.Step step : BjoernSteps.forFile(file).getSteps()) {
+            if (step.getContext().equals(context)) {
+                fileCounts.merge(step.getTemplate(), 1, Integer::sum);
+            }
+        }
+        Object2IntMap<String> successors = previousStep != null
+                ? BjoernStepTransitionIndex.getSuccessorCounts(file.getProject(), context, previousStep)
+                : Object2IntMaps.emptyMap();
+        Map<String, BjoernStepSuggestion> suggestions = new LinkedHashMap<>();
+        fileCounts.forEach((template, count) ->
+                suggestions.computeIfAbsent(template, t -> createSuggestion(context, t, successors)).addUsages(count));
+        sink.accept(List.copyOf(suggestions.values()));
+
+        // Partial results are not memoized, so the next restart of the session tries again
+        if (includeProject && streamProjectStatements(file, context, successors, suggestions, sink) && lookup != null) {
+            if (memo == null || memo.lookup != lookup) {
+                lookup.addLookupListener(new LookupListener() {
+                    @Override
+                    public void itemSelected(@NotNull LookupEvent event) {
+                        forgetSuggestions(editor, lookup);
+                    }
+
+                    @Override
+                    public void lookupCanceled(@NotNull LookupEvent event) {
+                        forgetSuggestions(editor, lookup);
+                    }
+                });
+            }
+            editor.putUserData(SUGGESTION_MEMO_KEY, new SuggestionMemo(lookup, startOffset, documentStamp,
+                    vfsModificationCount, context, previousStep, List.copyOf(suggestions.values())));
+        }
+    }
+
+    private static void forgetSuggestions(Editor editor, Lookup lookup) {
+        SuggestionMemo memo = editor.getUserData(SUGGESTION_MEMO_KEY);
+        if (memo != null && memo.lookup == lookup) {
+            editor.putUserData(SUGGESTION_MEMO_KEY, null);
+        }
+    }
+
+    private static BjoernStepSuggestion createSuggestion(String context, String template, Object2IntMap<String> successors) {
+        return new BjoernStepSuggestion(context, template, successors.getInt(template));
+    }
+
+    private static boolean shouldShowKeywordCompletion(CharSequence text, int offset) {
         // Show keyword completion at beginning of line or after whitespace
         if (offset == 0) return true;
         if (offset > 0 && text.charAt(offset - 1) == '\n') return true;
@@ -105,31 +275,31 @@ public class BjoernCompletionContributor extends CompletionContributor {
         // Check if we're after whitespace that suggests we want a keyword
         if (offset > 0 && Character.isWhitespace(text.charAt(offset - 1))) {
             // Look back to see if we're at an appropriate indentation level for keywords
-            int lineStart = text.lastIndexOf('\n', offset - 1) + 1;
-            String linePrefix = text.substring(lineStart, offset).trim();
+            int lineStart = StringUtil.lastIndexOf(text, '\n', 0, offset) + 1;
+            String linePrefix = text.subSequence(lineStart, offset).toString().trim();
             return linePrefix.isEmpty(); // Empty line prefix suggests keyword completion
         }
         
         return false;
     }
     
-    private static boolean isUnderListItem(String text, int offset) {
+    private static boolean isUnderListItem(CharSequence text, int offset) {
         // Check if we're already under a list item (starts with -)
         if (offset <= 0 || offset > text.length()) {
             return false;
         }
         
-        int lineStart = text.lastIndexOf('\n', offset - 1) + 1;
+        int lineStart = StringUtil.lastIndexOf(text, '\n', 0, offset) + 1;
         // Ensure lineStart is not greater than offset
         if (lineStart > offset) {
             lineStart = 0;
         }
         
-        String currentLine = text.substring(lineStart, offset);
+        String currentLine = text.subSequence(lineStart, offset).toString();
         return currentLine.trim().startsWith("-");
     }
     
-    private static String getCurrentBDDContext(PsiElement element) {
+    private static String getCurrentBDDContext(PsiElement element, Document document, int offset) {
         // Walk up the PSI tree to find the current BDD context (Given, When, Then)
         YAMLKeyValue currentKeyValue = PsiTreeUtil.getParentOfType(element, YAMLKeyValue.class);
         
@@ -142,19 +312,20 @@ public class BjoernCompletionContributor extends CompletionContributor {
         }
         
         // Alternative approach: analyze the text context
-        return getCurrentBDDContextFromText(element);
+        return getCurrentBDDContextFromText(document.getImmutableCharSequence(), offset,
+                BjoernLargeFileMode.getScanLimitLines(document));
     }
-    
-    private static String getCurrentBDDContextFromText(PsiElement element) {
-        PsiFile file = element.getContainingFile();
-        String text = file.getText();
-        int offset = element.getTextOffset();
-        
+
+    /**
+     * Returns the step keyword of the nearest line above the offset that starts with
+     * {@code Given:}, {@code When:} or {@code Then:}, reading at most {@code maxLines} lines.
+     */
+    static String getCurrentBDDContextFromText(CharSequence text, int offset, int maxLines) {
         // Look backwards from the current position to find the nearest BDD keyword
-        String[] lines = text.substring(0, offset).split("\n");
-        
-        for (int i = lines.length - 1; i >= 0; i--) {
-            String line = lines[i].trim();
+        int lineEnd = Math.min(offset, text.length());
+        for (int lines = 0; lineEnd >= 0 && lines < maxLines; lines++) {
+            int lineStart = StringUtil.lastIndexOf(text, '\n', 0, lineEnd) + 1;
+            String line = text.subSequence(lineStart, lineEnd).toString().trim();
             if (line.startsWith("Given:")) {
                 return "Given";
             } else if (line.startsWith("When:")) {
@@ -162,55 +333,176 @@ public class BjoernCompletionContributor extends CompletionContributor {
             } else if (line.startsWith("Then:")) {
                 return "Then";
             }
+            lineEnd = lineStart - 1;
         }
         
         return null;
     }
     
-    private static Set<String> extractStatementsFromFile(PsiFile file, String contextType) {
-        Set<String> statements = new LinkedHashSet<>();
-
-        // Collect statements from the current file first
-        collectStatements(file.getText(), contextType, statements);
+    /**
+     * Returns the template of the step on the closest list item line above the caret within the
+     * same step block, {@link BjoernStepTransitionIndex#BLOCK_START} if the caret is on the first
+     * item of a Given/When/Then block, or {@code null} if neither applies.
+     */
+    static String getPreviousStep(CharSequence text, int offset) {
+        if (offset < 0 || offset > text.length()) {
+            return null;
+        }
+        int lineStart = StringUtil.lastIndexOf(text, '\n', 0, offset) + 1;
+        while (lineStart > 0) {
+            int previousStart = StringUtil.lastIndexOf(text, '\n', 0, lineStart - 1) + 1;
+            String line = text.subSequence(previousStart, lineStart - 1).toString().trim();
+            lineStart = previousStart;
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (line.startsWith("-")) {
+                String statement = line.substring(1).trim();
+                return statement.isEmpty() || statement.startsWith("Scenario:") ? null : toTemplate(statement);
+            }
+            for (String context : BjoernStepIndex.STEP_CONTEXTS) {
+                if (line.equals(context + ":")) {
+                    return BjoernStepTransitionIndex.BLOCK_START;
+                }
+            }
+            return null;
+        }
+        return null;
+    }
 
-        // Then scan all other .zgr files in the project
+    /**
+     * Streams the templates the step index holds for the other specs of the project to
+     * {@code sink}, {@link #PROJECT_BATCH_SIZE} new ones at a time, and adds them to {@code seen}.
+     * The usages of templates seen before are added to their existing suggestion. Checks for
+     * cancellation between files and stops once {@link #PROJECT_SCAN_BUDGET_MS} have passed.
+     *
+     * @return whether all templates were seen, i.e. the index was available and the budget held
+     */
+    private static boolean streamProjectStatements(PsiFile file, String contextType, Object2IntMap<String> successors,
+                                                   Map<String, BjoernStepSuggestion> seen,
+                                                   Consumer<Collection<BjoernStepSuggestion>> sink) {
         Project project = file.getProject();
-        Collection<VirtualFile> allZgrFiles = FileTypeIndex.getFiles(
-                BjoernFileType.INSTANCE,
+        if (DumbService.isDumb(project)) {
+            return false; // index not available while indexing
+        }
+
+        VirtualFile currentFile = file.getVirtualFile();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PROJECT_SCAN_BUDGET_MS);
+        List<BjoernStepSuggestion> batch = new ArrayList<>(PROJECT_BATCH_SIZE);
+        boolean complete = FileBasedIndex.getInstance().processValues(
+                BjoernStepIndex.NAME,
+                contextType,
+                null,
+                (vf, counts) -> {
+                    ProgressManager.checkCanceled();
+                    if (vf.equals(currentFile)) {
+                        return true; // already done from the editor text
+                    }
+                    for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                        BjoernStepSuggestion suggestion = seen.get(entry.getKey());
+                        if (suggestion == null) {
+                            suggestion = createSuggestion(contextType, entry.getKey(), successors);
+                            seen.put(entry.getKey(), suggestion);
+                            batch.add(suggestion);
+                            if (batch.size() == PROJECT_BATCH_SIZE) {
+                                sink.accept(List.copyOf(batch));
+                                batch.clear();
+                            }
+                        }
+                        suggestion.addUsages(entry.getValue());
+                    }
+                    if (System.nanoTime() - deadline > 0) {
+                        LOG.debug("Bjoern step scan exceeded " + PROJECT_SCAN_BUDGET_MS + " ms, showing partial results");
+                        return false;
+                    }
+                    return true;
+                },
                 GlobalSearchScope.projectScope(project));
 
-        PsiManager psiManager = PsiManager.getInstance(project);
-        for (VirtualFile vf : allZgrFiles) {
-            if (vf.equals(file.getVirtualFile())) continue; // already done above
-            PsiFile otherFile = psiManager.findFile(vf);
-            if (otherFile != null) {
-                collectStatements(otherFile.getText(), contextType, statements);
-            }
+        if (!batch.isEmpty()) {
+            sink.accept(batch);
         }
+        return complete;
+    }
+
+    static void collectStatements(String text, String contextType, Set<String> statements) {
+        forEachStatement(text, contextType, statements::add);
+    }
+
+    /**
+     * Counts how often each template of the given context occurs in the text.
+     */
+    static void countStatements(String text, String contextType, Map<String, Integer> counts) {
+        forEachStatement(text, contextType, template -> counts.merge(template, 1, Integer::sum));
+    }
+
+    private static void forEachStatement(String text, String contextType, Consumer<String> consumer) {
+        forEachStepBlock(text, contextType, block -> block.forEach(consumer));
+    }
 
-        return statements;
+    /**
+     * Hands the templates of each step block of the given context to {@code consumer}, in order.
+     */
+    static void forEachStepBlock(String text, String contextType, Consumer<List<String>> consumer) {
+        forEachRawStepBlock(text, contextType, block -> {
+            List<String> templates = new ArrayList<>(block.size());
+            for (String statement : block) {
+                templates.add(toTemplate(statement));
+            }
+            consumer.accept(templates);
+        });
     }
 
-    private static void collectStatements(String text, String contextType, Set<String> statements) {
-        Pattern sectionPattern = Pattern.compile(
-                contextType + ":\\s*\n((?:\\s*-\\s*[^\n]+\n)*)",
+    /**
+     * Hands the statements of each step block of the given context to {@code consumer} as
+     * written, with parameter values.
+     */
+    static void forEachRawStepBlock(CharSequence text, String contextType, Consumer<List<String>> consumer) {
+        forEachRawStepBlock(text, contextType, (statements, startOffsets) -> consumer.accept(statements));
+    }
+
+    /**
+     * Hands the statements of each step block of the given context to {@code consumer} as
+     * written, together with the offset in the text each of them starts at.
+     */
+    static void forEachRawStepBlock(CharSequence text, String contextType, BiConsumer<List<String>, IntList> consumer) {
+        Pattern sectionPattern = SECTION_PATTERNS.computeIfAbsent(contextType, type -> Pattern.compile(
+                type + ":\\s*\n((?:\\s*-\\s*[^\n]+\n)*)",
                 Pattern.MULTILINE
-        );
+        ));
 
         Matcher sectionMatcher = sectionPattern.matcher(text);
+        Matcher itemMatcher = ITEM_PATTERN.matcher(text);
 
         while (sectionMatcher.find()) {
-            String section = sectionMatcher.group(1);
-
-            Pattern itemPattern = Pattern.compile("^\\s*-\\s*(.+)$", Pattern.MULTILINE);
-            Matcher itemMatcher = itemPattern.matcher(section);
+            itemMatcher.region(sectionMatcher.start(1), sectionMatcher.end(1));
 
+            List<String> block = new ArrayList<>();
+            IntList startOffsets = new IntArrayList();
             while (itemMatcher.find()) {
-                String statement = itemMatcher.group(1).trim();
-                // Replace quoted variables with empty placeholders
-                String templateStatement = VARIABLE_PATTERN.matcher(statement).replaceAll("\"\"");
-                statements.add(templateStatement);
+                String raw = itemMatcher.group(1);
+                String statement = raw.trim();
+                block.add(statement);
+                startOffsets.add(itemMatcher.start(1) + raw.indexOf(statement));
+            }
+            if (!block.isEmpty()) {
+                consumer.accept(block, startOffsets);
             }
         }
     }
+
+    /**
+     * Normalizes a step statement by replacing quoted variables with empty placeholders.
+     */
+    static String toTemplate(String statement) {
+        return BjoernSteps.toTemplate(statement);
+    }
+
+    /**
+     * Returns the quoted values of a step statement without their quotes, one per placeholder
+     * of its {@link #toTemplate template}.
+     */
+    static List<String> parameterValues(String statement) {
+        return BjoernSteps.parameterValues(statement);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.event.DocumentEvent;
+import com.intellij.openapi.editor.event.DocumentListener;
+import com.intellij.openapi.util.Key;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Keeps the per-document structural caches of Bjoern editors up to date.
+ * <p>
+ * Caches are stored as document user data together with the modification stamp they were
+ * computed for. Each document change updates an existing cache incrementally; a cache whose
+ * stamp does not match the document any more (e.g. after a missed event) is rebuilt on the
+ * next access.
+ */
+public class BjoernDocumentListener implements DocumentListener {
+
+    private static final Key<BjoernSectionModel> SECTION_MODEL_KEY = Key.create("bjoern.sectionModel");
+    private static final Key<BjoernParameterRanges> PARAMETER_RANGES_KEY = Key.create("bjoern.parameterRanges");
+
+    /**
+     * Returns the section table of the given document, building it if there is no
+     * up-to-date cached one.
+     */
+    static @NotNull BjoernSectionModel getSectionModel(@NotNull Document document) {
+        BjoernSectionModel model = document.getUserData(SECTION_MODEL_KEY);
+        if (model == null || model.getModificationStamp() != document.getModificationStamp()) {
+            model = BjoernSectionModel.build(document.getImmutableCharSequence());
+            model.setModificationStamp(document.getModificationStamp());
+            document.putUserData(SECTION_MODEL_KEY, model);
+        }
+        return model;
+    }
+
+    /**
+     * Returns the quoted parameter ranges of the given document, scanning it if there is no
+     * up-to-date cached table.
+     */
+    static @NotNull BjoernParameterRanges getParameterRanges(@NotNull Document document) {
+        BjoernParameterRanges ranges = document.getUserData(PARAMETER_RANGES_KEY);
+        if (ranges == null || ranges.getModificationStamp() != document.getModificationStamp()) {
+            ranges = BjoernParameterRanges.scan(document.getImmutableCharSequence());
+            ranges.setModificationStamp(document.getModificationStamp());
+            document.putUserData(PARAMETER_RANGES_KEY, ranges);
+        }
+        return ranges;
+    }
+
+    @Override
+    public void documentChanged(@NotNull DocumentEvent event) {
+        Document document = event.getDocument();
+        CharSequence text = document.getImmutableCharSequence();
+
+        BjoernSectionModel model = document.getUserData(SECTION_MODEL_KEY);
+        if (model != null) {
+            if (model.getModificationStamp() == event.getOldTimeStamp()) {
+                model.update(text, event.getOffset(), event.getOldLength(), event.getNewLength());
+                model.setModificationStamp(document.getModificationStamp());
+            } else {
+                document.putUserData(SECTION_MODEL_KEY, null);
+            }
+        }
+
+        BjoernParameterRanges ranges = document.getUserData(PARAMETER_RANGES_KEY);
+        if (ranges != null) {
+            if (ranges.getModificationStamp() == event.getOldTimeStamp()) {
+                ranges.update(text, event.getOffset(), event.getOldLength(), event.getNewLength());
+                ranges.setModificationStamp(document.getModificationStamp());
+            } else {
+                document.putUserData(PARAMETER_RANGES_KEY, null);
+            }
+        }
+    }
+}
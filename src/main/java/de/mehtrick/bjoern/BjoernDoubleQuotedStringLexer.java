@@ -25,6 +25,7 @@ public class BjoernDoubleQuotedStringLexer extends LexerBase {
 
     @Override
     public int getState() {
+        // Stateless: every YAML token handed to this layer is lexed on its own
         return 0;
     }
 
@@ -86,17 +87,16 @@ public class BjoernDoubleQuotedStringLexer extends LexerBase {
     }
 
     private int findClosingQuote(int startPos) {
+        // Single forward pass: a quote closes the string unless an odd run of backslashes precedes it
+        boolean escaped = false;
         for (int i = startPos; i < endOffset; i++) {
             char c = buffer.charAt(i);
-            if (c == '"') {
-                // Check if it's escaped
-                int backslashes = 0;
-                for (int j = i - 1; j >= startPos && buffer.charAt(j) == '\\'; j--) {
-                    backslashes++;
-                }
-                if (backslashes % 2 == 0) {
-                    return i; // Even number of backslashes means not escaped
-                }
+            if (c == '\\') {
+                escaped = !escaped;
+            } else if (c == '"' && !escaped) {
+                return i;
+            } else {
+                escaped = false;
             }
         }
         return -1; // No closing quote found
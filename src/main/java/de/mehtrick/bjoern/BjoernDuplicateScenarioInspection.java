@@ -0,0 +1,97 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.codeInspection.*;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.yaml.psi.YAMLKeyValue;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Inspection that flags scenario names also used by another spec of the project.
+ * <p>
+ * Each named scenario is one lookup in {@link BjoernScenarioNameIndex}, so checking a file costs
+ * O(scenarios) index lookups and never compares files pairwise. Duplicates within the same file
+ * are reported by {@link BjoernStructureInspection}.
+ */
+public class BjoernDuplicateScenarioInspection extends LocalInspectionTool {
+
+    // Other files named in a message at most
+    private static final int MAX_LISTED_FILES = 3;
+
+    @Override
+    public ProblemDescriptor @NotNull [] checkFile(@NotNull PsiFile file,
+                                                    @NotNull InspectionManager manager,
+                                                    boolean isOnTheFly) {
+        if (!file.getName().endsWith(".zgr")) {
+            return ProblemDescriptor.EMPTY_ARRAY;
+        }
+
+        // In large-file mode only the scenarios around the visible part are looked up
+        TextRange range = BjoernLargeFileMode.getInspectionRange(file, isOnTheFly);
+        Map<String, YAMLKeyValue> firstKeyValues = new LinkedHashMap<>();
+        for (BjoernSpecModel.Document document : BjoernSpecModel.forFile(file, range).getDocuments()) {
+            for (BjoernSpecModel.Scenario scenario : document.getScenarios()) {
+                YAMLKeyValue scenarioKV = scenario.getNameKeyValue();
+                if (scenarioKV == null || !BjoernLargeFileMode.isInRange(range, scenarioKV)) continue;
+
+                String scenarioName = scenario.getName();
+                if (!scenarioName.isBlank()) {
+                    firstKeyValues.putIfAbsent(scenarioName, scenarioKV);
+                }
+            }
+        }
+
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(file.getProject());
+        Map<String, List<String>> duplicates = findInOtherFiles(firstKeyValues.keySet(), file.getVirtualFile(),
+                name -> ContainerUtil.mapNotNull(BjoernScenarioNameIndex.findFiles(file.getProject(), name, scope),
+                        PsiFile::getVirtualFile));
+
+        List<ProblemDescriptor> problems = new ArrayList<>();
+        duplicates.forEach((scenarioName, otherFiles) -> problems.add(manager.createProblemDescriptor(
+                firstKeyValues.get(scenarioName),
+                duplicateAcrossFilesMessage(scenarioName, otherFiles),
+                isOnTheFly,
+                LocalQuickFix.EMPTY_ARRAY,
+                ProblemHighlightType.WARNING)));
+
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /**
+     * Looks each scenario name up once with {@code filesWithName} and returns the names other
+     * files than {@code currentFile} use, each with the sorted names of those files.
+     */
+    static Map<String, List<String>> findInOtherFiles(Collection<String> scenarioNames, @Nullable VirtualFile currentFile,
+                                                      Function<String, Collection<VirtualFile>> filesWithName) {
+        Map<String, List<String>> duplicates = new LinkedHashMap<>();
+        for (String scenarioName : scenarioNames) {
+            List<String> otherFiles = new ArrayList<>();
+            for (VirtualFile other : filesWithName.apply(scenarioName)) {
+                if (!other.equals(currentFile)) {
+                    otherFiles.add(other.getName());
+                }
+            }
+            if (!otherFiles.isEmpty()) {
+                Collections.sort(otherFiles);
+                duplicates.put(scenarioName, otherFiles);
+            }
+        }
+        return duplicates;
+    }
+
+    static String duplicateAcrossFilesMessage(String scenarioName, List<String> otherFiles) {
+        StringBuilder message = new StringBuilder("Scenario name '").append(scenarioName).append("' is also used in ");
+        message.append(String.join(", ", otherFiles.subList(0, Math.min(otherFiles.size(), MAX_LISTED_FILES))));
+        if (otherFiles.size() > MAX_LISTED_FILES) {
+            message.append(" and ").append(otherFiles.size() - MAX_LISTED_FILES).append(" more");
+        }
+        return message.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.event.EditorFactoryEvent;
+import com.intellij.openapi.editor.event.EditorFactoryListener;
+import com.intellij.openapi.editor.event.VisibleAreaEvent;
+import com.intellij.openapi.editor.event.VisibleAreaListener;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.*;
+
+/**
+ * Follows the visible area of Bjoern editors for {@link BjoernLargeFileMode}: when scrolling
+ * leaves the inspection window of a spec in large-file mode, the window is moved and the daemon
+ * checks the newly visible part.
+ */
+public class BjoernEditorListener implements EditorFactoryListener {
+
+    private static final Key<VisibleAreaListener> VISIBLE_AREA_LISTENER_KEY = Key.create("bjoern.visibleAreaListener");
+
+    @Override
+    public void editorCreated(@NotNull EditorFactoryEvent event) {
+        Editor editor = event.getEditor();
+        VirtualFile file = FileDocumentManager.getInstance().getFile(editor.getDocument());
+        if (editor.getProject() == null || file == null || !"zgr".equals(file.getExtension())) {
+            return;
+        }
+
+        VisibleAreaListener listener = e -> visibleAreaChanged(editor, e);
+        editor.putUserData(VISIBLE_AREA_LISTENER_KEY, listener);
+        editor.getScrollingModel().addVisibleAreaListener(listener);
+    }
+
+    @Override
+    public void editorReleased(@NotNull EditorFactoryEvent event) {
+        Editor editor = event.getEditor();
+        VisibleAreaListener listener = editor.getUserData(VISIBLE_AREA_LISTENER_KEY);
+        if (listener != null) {
+            editor.getScrollingModel().removeVisibleAreaListener(listener);
+            editor.putUserData(VISIBLE_AREA_LISTENER_KEY, null);
+        }
+    }
+
+    private static void visibleAreaChanged(Editor editor, VisibleAreaEvent event) {
+        Document document = editor.getDocument();
+        Rectangle area = event.getNewRectangle();
+        if (area == null || area.height == 0 || !BjoernLargeFileMode.isActive(document)) {
+            return;
+        }
+
+        int firstLine = editor.xyToLogicalPosition(new Point(0, area.y)).line;
+        int lastLine = editor.xyToLogicalPosition(new Point(0, area.y + area.height)).line;
+        if (BjoernLargeFileMode.updateInspectionWindow(document, firstLine, lastLine)) {
+            Project project = editor.getProject();
+            PsiFile psiFile = PsiDocumentManager.getInstance(project).getPsiFile(document);
+            if (psiFile != null) {
+                DaemonCodeAnalyzer.getInstance(project).restart(psiFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+
+/**
+ * Element types of the compact Bjoern tree built by {@link BjoernCompactParser}.
+ */
+public class BjoernElementTypes {
+    public static final IElementType FEATURE = new IElementType("BJOERN_FEATURE", BjoernLanguage.INSTANCE);
+    public static final IElementType METADATA = new IElementType("BJOERN_METADATA", BjoernLanguage.INSTANCE);
+    public static final IElementType BACKGROUND = new IElementType("BJOERN_BACKGROUND", BjoernLanguage.INSTANCE);
+    public static final IElementType SCENARIO = new IElementType("BJOERN_SCENARIO", BjoernLanguage.INSTANCE);
+    public static final IElementType STEP_BLOCK = new IElementType("BJOERN_STEP_BLOCK", BjoernLanguage.INSTANCE);
+    public static final IElementType STEP = new IElementType("BJOERN_STEP", BjoernLanguage.INSTANCE);
+    public static final IElementType PARAMETER = new IElementType("BJOERN_PARAMETER", BjoernLanguage.INSTANCE);
+
+    public static final TokenSet ALL = TokenSet.create(FEATURE, METADATA, BACKGROUND, SCENARIO, STEP_BLOCK, STEP, PARAMETER);
+}
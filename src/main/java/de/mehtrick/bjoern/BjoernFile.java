@@ -2,6 +2,8 @@ package de.mehtrick.bjoern;
 
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.psi.FileViewProvider;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubTree;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.yaml.psi.impl.YAMLFileImpl;
 
@@ -16,6 +18,23 @@ public class BjoernFile extends YAMLFileImpl {
         return BjoernFileType.INSTANCE;
     }
 
+    /**
+     * Returns the outline of this spec. Uses the stub if it is available, loading it from the
+     * stub index when the AST is not loaded either; otherwise builds it from the PSI.
+     */
+    @NotNull
+    public BjoernFileStub getSpecStub() {
+        StubElement<?> stub = getGreenStub();
+        if (stub == null) {
+            StubTree tree = getStubTree();
+            stub = tree != null ? tree.getRoot() : null;
+        }
+        if (stub instanceof BjoernFileStub bjoernStub) {
+            return bjoernStub;
+        }
+        return BjoernFileStub.build(this);
+    }
+
     @Override
     public String toString() {
         return "Bjoern File";
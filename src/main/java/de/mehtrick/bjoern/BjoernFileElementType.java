@@ -0,0 +1,121 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.StubBuilder;
+import com.intellij.psi.stubs.*;
+import com.intellij.psi.tree.IStubFileElementType;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.IOUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stub file element type of Bjoern specs.
+ * <p>
+ * The stub of a file is a {@link BjoernFileStub} with the spec outline; the YAML elements below
+ * the file get no stubs. {@link #indexStub} feeds the {@link BjoernScenarioNameIndex}; step templates
+ * are only indexed by {@link BjoernStepIndex}.
+ */
+public class BjoernFileElementType extends IStubFileElementType<BjoernFileStub> {
+
+    BjoernFileElementType() {
+        super("BJOERN_FILE", BjoernLanguage.INSTANCE);
+    }
+
+    @Override
+    public int getStubVersion() {
+        return 4;
+    }
+
+    @NotNull
+    @Override
+    public String getExternalId() {
+        return "bjoern.FILE";
+    }
+
+    @Override
+    public StubBuilder getBuilder() {
+        return new StubBuilder() {
+            @Override
+            public @NotNull StubElement<?> buildStubTree(@NotNull PsiFile file) {
+                return BjoernFileStub.build((BjoernFile) file);
+            }
+
+            @Override
+            public boolean skipChildProcessingWhenBuildingStubs(@NotNull ASTNode parent, @NotNull ASTNode node) {
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public void serialize(@NotNull BjoernFileStub stub, @NotNull StubOutputStream dataStream) throws IOException {
+        write(stub, dataStream);
+    }
+
+    @NotNull
+    @Override
+    public BjoernFileStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
+        return read(dataStream);
+    }
+
+    @Override
+    public void indexStub(@NotNull PsiFileStub stub, @NotNull IndexSink sink) {
+        if (!(stub instanceof BjoernFileStub bjoernStub)) {
+            return;
+        }
+        for (BjoernFileStub.Scenario scenario : bjoernStub.getScenarios()) {
+            String name = scenario.getName();
+            if (name != null && !name.isBlank()) {
+                sink.occurrence(BjoernScenarioNameIndex.KEY, name);
+            }
+        }
+    }
+
+    static void write(@NotNull BjoernFileStub stub, @NotNull DataOutput out) throws IOException {
+        DataInputOutputUtil.writeNullable(out, stub.getFeature(), value -> IOUtil.writeUTF(out, value));
+        writeSteps(stub.getBackgroundSteps(), out);
+        DataInputOutputUtil.writeINT(out, stub.getScenarios().size());
+        for (BjoernFileStub.Scenario scenario : stub.getScenarios()) {
+            DataInputOutputUtil.writeNullable(out, scenario.getName(), value -> IOUtil.writeUTF(out, value));
+            writeSteps(scenario.getSteps(), out);
+        }
+    }
+
+    static @NotNull BjoernFileStub read(@NotNull DataInput in) throws IOException {
+        String feature = DataInputOutputUtil.readNullable(in, () -> IOUtil.readUTF(in));
+        List<BjoernFileStub.Step> backgroundSteps = readSteps(in);
+        int scenarioCount = DataInputOutputUtil.readINT(in);
+        List<BjoernFileStub.Scenario> scenarios = new ArrayList<>(scenarioCount);
+        for (int i = 0; i < scenarioCount; i++) {
+            String name = DataInputOutputUtil.readNullable(in, () -> IOUtil.readUTF(in));
+            scenarios.add(new BjoernFileStub.Scenario(name, readSteps(in)));
+        }
+        return new BjoernFileStub(null, feature, backgroundSteps, scenarios);
+    }
+
+    // Only the statements are stored, the templates are derived from them
+    private static void writeSteps(List<BjoernFileStub.Step> steps, DataOutput out) throws IOException {
+        DataInputOutputUtil.writeINT(out, steps.size());
+        for (BjoernFileStub.Step step : steps) {
+            IOUtil.writeUTF(out, step.getContext());
+            IOUtil.writeUTF(out, step.getStatement());
+        }
+    }
+
+    private static List<BjoernFileStub.Step> readSteps(DataInput in) throws IOException {
+        int count = DataInputOutputUtil.readINT(in);
+        List<BjoernFileStub.Step> steps = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String context = IOUtil.readUTF(in);
+            steps.add(new BjoernFileStub.Step(context, IOUtil.readUTF(in)));
+        }
+        return steps;
+    }
+}
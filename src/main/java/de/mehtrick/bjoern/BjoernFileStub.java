@@ -0,0 +1,220 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.stubs.PsiFileStubImpl;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.yaml.psi.YAMLKeyValue;
+import org.jetbrains.yaml.psi.YAMLSequenceItem;
+import org.jetbrains.yaml.psi.YAMLValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * File stub of a Bjoern spec holding its outline: the feature name, the scenarios with their
+ * names and the Background and Scenario steps (context and text as written).
+ * <p>
+ * The YAML PSI the spec is parsed into is not stub based, so the outline is stored in the file
+ * stub itself rather than in child stubs. It is serialized with the stub tree and can be read
+ * from {@link BjoernFile#getSpecStub()} without loading the AST. Step templates are not stored:
+ * they are derived from the statements, and {@link BjoernStepIndex} is the only index of them.
+ */
+public class BjoernFileStub extends PsiFileStubImpl<BjoernFile> {
+
+    /**
+     * A step item of a Given/When/Then block.
+     */
+    public static final class Step {
+        private final String context;
+        private final String statement;
+        private String text;
+
+        public Step(@NotNull String context, @NotNull String statement) {
+            this.context = context;
+            this.statement = statement;
+        }
+
+        /**
+         * {@code Given}, {@code When} or {@code Then}.
+         */
+        public @NotNull String getContext() {
+            return context;
+        }
+
+        /**
+         * The step text with quoted parameters replaced by {@code ""}.
+         */
+        public @NotNull String getText() {
+            if (text == null) {
+                text = BjoernCompletionContributor.toTemplate(statement);
+            }
+            return text;
+        }
+
+        /**
+         * The step as written, with its parameter values.
+         */
+        public @NotNull String getStatement() {
+            return statement;
+        }
+    }
+
+    /**
+     * A scenario with its name ({@code null} if it has no {@code Scenario:} key) and steps.
+     */
+    public static final class Scenario {
+        private final String name;
+        private final List<Step> steps;
+
+        public Scenario(@Nullable String name, @NotNull List<Step> steps) {
+            this.name = name;
+            this.steps = steps;
+        }
+
+        public @Nullable String getName() {
+            return name;
+        }
+
+        public @NotNull List<Step> getSteps() {
+            return steps;
+        }
+    }
+
+    private final String feature;
+    private final List<Step> backgroundSteps;
+    private final List<Scenario> scenarios;
+
+    public BjoernFileStub(@Nullable BjoernFile file, @Nullable String feature, @NotNull List<Step> backgroundSteps,
+                          @NotNull List<Scenario> scenarios) {
+        super(file);
+        this.feature = feature;
+        this.backgroundSteps = backgroundSteps;
+        this.scenarios = scenarios;
+    }
+
+    /**
+     * Builds the stub from the PSI of the given file.
+     */
+    static @NotNull BjoernFileStub build(@NotNull BjoernFile file) {
+        if (file.getNode().findChildByType(BjoernElementTypes.ALL) != null) {
+            return buildFromCompactTree(file);
+        }
+
+        String feature = null;
+        List<Step> backgroundSteps = new ArrayList<>();
+        List<Scenario> scenarios = new ArrayList<>();
+
+        for (BjoernSpecModel.Document document : BjoernSpecModel.forFile(file).getDocuments()) {
+            YAMLKeyValue featureKV = document.getFeature();
+            if (feature == null && featureKV != null) {
+                feature = featureKV.getValueText().trim();
+            }
+            collectSteps(document.getBackgroundSteps(), backgroundSteps);
+            for (BjoernSpecModel.Scenario scenario : document.getScenarios()) {
+                List<Step> steps = new ArrayList<>();
+                collectSteps(scenario.getSteps(), steps);
+                scenarios.add(new Scenario(scenario.getName(), steps));
+            }
+        }
+        return new BjoernFileStub(file, feature, backgroundSteps, scenarios);
+    }
+
+    private static void collectSteps(List<BjoernSpecModel.StepBlock> blocks, List<Step> steps) {
+        for (BjoernSpecModel.StepBlock block : blocks) {
+            for (YAMLSequenceItem item : block.getItems()) {
+                YAMLValue value = item.getValue();
+                if (value == null) continue;
+
+                String text = value.getText().trim();
+                if (!text.isEmpty()) {
+                    steps.add(new Step(block.getContext(), text));
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the stub from the tree of {@link BjoernCompactParser}.
+     */
+    private static @NotNull BjoernFileStub buildFromCompactTree(@NotNull BjoernFile file) {
+        String feature = null;
+        List<Step> backgroundSteps = new ArrayList<>();
+        List<Scenario> scenarios = new ArrayList<>();
+
+        for (ASTNode node = file.getNode().getFirstChildNode(); node != null; node = node.getTreeNext()) {
+            IElementType type = node.getElementType();
+            if (type == BjoernElementTypes.FEATURE && feature == null) {
+                feature = valueOf(node.getText());
+            } else if (type == BjoernElementTypes.BACKGROUND) {
+                collectCompactSteps(node, backgroundSteps);
+            } else if (type == BjoernElementTypes.SCENARIO) {
+                String name = null;
+                String firstLine = StringUtil.trimStart(node.getText(), "-").trim();
+                if (firstLine.startsWith("Scenario:")) {
+                    name = BjoernSpecRules.stripOuterQuotes(valueOf(firstLine));
+                }
+                List<Step> steps = new ArrayList<>();
+                collectCompactSteps(node, steps);
+                scenarios.add(new Scenario(name, steps));
+            }
+        }
+        return new BjoernFileStub(file, feature, backgroundSteps, scenarios);
+    }
+
+    private static void collectCompactSteps(ASTNode parent, List<Step> steps) {
+        for (ASTNode block : parent.getChildren(TokenSet.create(BjoernElementTypes.STEP_BLOCK))) {
+            String context = block.getText().substring(0, block.getText().indexOf(':')).trim();
+            for (ASTNode step : block.getChildren(TokenSet.create(BjoernElementTypes.STEP))) {
+                String text = step.getText().substring(1).trim();
+                if (!text.isEmpty()) {
+                    steps.add(new Step(context, text));
+                }
+            }
+        }
+    }
+
+    // Value after the first colon of the first line, without a trailing comment
+    private static String valueOf(String text) {
+        int lineEnd = text.indexOf('\n');
+        String line = lineEnd >= 0 ? text.substring(0, lineEnd) : text;
+        String value = line.substring(line.indexOf(':') + 1);
+        int comment = value.indexOf(" #");
+        return (comment >= 0 ? value.substring(0, comment) : value).trim();
+    }
+
+    public @Nullable String getFeature() {
+        return feature;
+    }
+
+    public @NotNull List<Step> getBackgroundSteps() {
+        return backgroundSteps;
+    }
+
+    public @NotNull List<Scenario> getScenarios() {
+        return scenarios;
+    }
+
+    /**
+     * All steps of the spec: Background steps first, then the steps of each scenario.
+     */
+    public @NotNull List<Step> getAllSteps() {
+        if (scenarios.isEmpty()) {
+            return Collections.unmodifiableList(backgroundSteps);
+        }
+        List<Step> steps = new ArrayList<>(backgroundSteps);
+        for (Scenario scenario : scenarios) {
+            steps.addAll(scenario.getSteps());
+        }
+        return steps;
+    }
+
+    @Override
+    public @NotNull BjoernFileElementType getType() {
+        return BjoernParserDefinition.FILE;
+    }
+}
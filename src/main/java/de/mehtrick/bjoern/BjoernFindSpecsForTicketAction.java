@@ -0,0 +1,103 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.ui.SimpleListCellRenderer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Asks for a ticket id or URL and opens the specs whose {@code Reference:} points to it, looked
+ * up in {@link BjoernReferenceIndex}. The selected text or the first ticket id (else URL) of
+ * the {@code Reference:} line at the caret is suggested.
+ */
+public class BjoernFindSpecsForTicketAction extends AnAction {
+
+    private static final String TITLE = "Find Specs for Ticket";
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        if (DumbService.isDumb(project)) {
+            DumbService.getInstance(project).showDumbModeNotification("Spec references are available once indexing is finished");
+            return;
+        }
+
+        String ticket = Messages.showInputDialog(project, "Ticket id or URL:", TITLE, null,
+                suggestTicket(e.getData(CommonDataKeys.EDITOR)), null);
+        if (ticket == null || ticket.isBlank()) {
+            return;
+        }
+
+        List<VirtualFile> files = new ArrayList<>(
+                BjoernReferenceIndex.findFiles(project, ticket, GlobalSearchScope.projectScope(project)));
+        if (files.isEmpty()) {
+            Messages.showInfoMessage(project, "No spec references '" + ticket.trim() + "'.", TITLE);
+            return;
+        }
+        if (files.size() == 1) {
+            new OpenFileDescriptor(project, files.get(0)).navigate(true);
+            return;
+        }
+
+        files.sort(Comparator.comparing(VirtualFile::getPath));
+        JBPopupFactory.getInstance()
+                .createPopupChooserBuilder(files)
+                .setTitle("Specs Referencing " + ticket.trim())
+                .setRenderer(SimpleListCellRenderer.<VirtualFile>create("", VirtualFile::getPresentableUrl))
+                .setItemChosenCallback(file -> new OpenFileDescriptor(project, file).navigate(true))
+                .createPopup()
+                .showCenteredInCurrentWindow(project);
+    }
+
+    private static String suggestTicket(Editor editor) {
+        if (editor == null) {
+            return "";
+        }
+        String selected = editor.getSelectionModel().getSelectedText();
+        if (selected != null && !selected.isBlank()) {
+            return selected.trim();
+        }
+
+        CharSequence text = editor.getDocument().getCharsSequence();
+        int line = editor.getDocument().getLineNumber(editor.getCaretModel().getOffset());
+        String lineText = text.subSequence(editor.getDocument().getLineStartOffset(line),
+                editor.getDocument().getLineEndOffset(line)).toString();
+        String suggestion = "";
+        for (String key : BjoernReferenceIndex.referenceKeys(lineText)) {
+            if (!key.contains("://")) {
+                return key;
+            }
+            if (suggestion.isEmpty()) {
+                suggestion = key;
+            }
+        }
+        return suggestion;
+    }
+}
@@ -3,15 +3,28 @@ package de.mehtrick.bjoern;
 import com.intellij.lexer.LexerBase;
 import com.intellij.psi.tree.IElementType;
 import org.jetbrains.annotations.Nullable;
-import org.jetbrains.yaml.YAMLTokenTypes;
 
 import java.util.Set;
 
 public class BjoernKeywordValidationLexer extends LexerBase {
-    private static final Set<String> VALID_BDD_KEYWORDS = Set.of(
+    static final Set<String> VALID_BDD_KEYWORDS = Set.of(
             "Feature", "Background", "Given", "When", "Then", "Scenario", "Scenarios",
             "Version", "Reference", "Changelog"
     );
+
+    // Perfect hash of the keywords: (length, first character) identifies at most one keyword
+    private static final int MAX_KEYWORD_LENGTH = 10;
+    private static final String[] KEYWORD_TABLE = new String[(MAX_KEYWORD_LENGTH + 1) * 128];
+
+    static {
+        for (String keyword : VALID_BDD_KEYWORDS) {
+            int slot = slot(keyword.length(), keyword.charAt(0));
+            if (keyword.length() > MAX_KEYWORD_LENGTH || KEYWORD_TABLE[slot] != null) {
+                throw new IllegalStateException("Keyword table collision for " + keyword);
+            }
+            KEYWORD_TABLE[slot] = keyword;
+        }
+    }
     
     private CharSequence buffer;
     private int startOffset;
@@ -32,6 +45,7 @@ public class BjoernKeywordValidationLexer extends LexerBase {
 
     @Override
     public int getState() {
+        // Stateless: every YAML token handed to this layer is lexed on its own
         return 0;
     }
 
@@ -60,16 +74,8 @@ public class BjoernKeywordValidationLexer extends LexerBase {
         currentTokenStart = currentPosition;
         currentTokenEnd = endOffset;
         
-        // Extract the keyword text
-        String keywordText = buffer.subSequence(currentTokenStart, currentTokenEnd).toString().trim();
-        
-        // Remove colon if present
-        if (keywordText.endsWith(":")) {
-            keywordText = keywordText.substring(0, keywordText.length() - 1);
-        }
-        
-        // Check if it's a valid BDD keyword
-        if (VALID_BDD_KEYWORDS.contains(keywordText)) {
+        // Check if it's a valid BDD keyword, comparing the buffer range in place
+        if (isValidKeyword(buffer, currentTokenStart, currentTokenEnd)) {
             currentTokenType = BjoernTokenTypes.VALID_KEYWORD;
         } else {
             currentTokenType = BjoernTokenTypes.INVALID_KEYWORD;
@@ -78,6 +84,47 @@ public class BjoernKeywordValidationLexer extends LexerBase {
         currentPosition = endOffset;
     }
 
+    /**
+     * Returns {@code true} if the given range, trimmed and without one trailing colon, is one of
+     * {@link #VALID_BDD_KEYWORDS}. Does not allocate.
+     */
+    static boolean isValidKeyword(CharSequence text, int start, int end) {
+        // Trim like String.trim()
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        // Remove colon if present
+        if (end > start && text.charAt(end - 1) == ':') {
+            end--;
+        }
+
+        int length = end - start;
+        if (length == 0 || length > MAX_KEYWORD_LENGTH) {
+            return false;
+        }
+        char first = text.charAt(start);
+        if (first >= 128) {
+            return false;
+        }
+        String keyword = KEYWORD_TABLE[slot(length, first)];
+        if (keyword == null) {
+            return false;
+        }
+        for (int i = 1; i < length; i++) {
+            if (text.charAt(start + i) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int slot(int length, char first) {
+        return length * 128 + first;
+    }
+
     @Override
     public CharSequence getBufferSequence() {
         return buffer;
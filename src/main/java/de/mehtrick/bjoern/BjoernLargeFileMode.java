@@ -0,0 +1,123 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.wm.StatusBar;
+import com.intellij.openapi.wm.WindowManager;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Large-file mode of Bjoern editors: specs with more lines than configured in
+ * {@link BjoernSettings} give up work that grows with the whole spec on every change.
+ * <ul>
+ *   <li>On-the-fly inspections only check the lines around the visible part of the spec, the
+ *   inspection window. {@link BjoernEditorListener} moves the window once scrolling leaves it
+ *   and reruns the daemon for the file. They build their spec model and steps only for the
+ *   scenarios in the window, so scenario names duplicated within the spec are only found among
+ *   those. The near-duplicate clusters are project-wide and computed in the background. Batch
+ *   inspections still check the whole spec.</li>
+ *   <li>Completion suggests the steps of other specs only when invoked explicitly, not in the
+ *   automatic popup.</li>
+ *   <li>Scans backwards from the caret stop after {@link #WINDOW_LINES} lines.</li>
+ * </ul>
+ * Indentation, Tab navigation and parameter completion already read incrementally updated
+ * per-document tables and work the same in both modes. {@link BjoernLargeFileWidgetFactory}
+ * shows in the status bar when the selected spec is in large-file mode.
+ */
+final class BjoernLargeFileMode {
+
+    // Lines kept above and below the visible ones in the inspection window, and scanned back from the caret
+    static final int WINDOW_LINES = 300;
+
+    // First and last line of the inspection window of a document
+    private static final Key<int[]> INSPECTION_WINDOW_KEY = Key.create("bjoern.inspectionWindow");
+
+    private BjoernLargeFileMode() {
+    }
+
+    static boolean isActive(@Nullable Document document) {
+        if (document == null) {
+            return false;
+        }
+        BjoernSettings settings = BjoernSettings.getInstance();
+        return settings.isLargeFileModeEnabled() && document.getLineCount() > settings.getLargeFileThresholdLines();
+    }
+
+    static boolean isActive(@NotNull PsiFile file) {
+        return isActive(PsiDocumentManager.getInstance(file.getProject()).getDocument(file));
+    }
+
+    /**
+     * Returns the text range on-the-fly inspections of the file check in large-file mode, or
+     * null if they check the whole file: outside of large-file mode, in batch runs, and before
+     * an editor showed the file.
+     */
+    static @Nullable TextRange getInspectionRange(@NotNull PsiFile file, boolean isOnTheFly) {
+        if (!isOnTheFly) {
+            return null;
+        }
+        Document document = PsiDocumentManager.getInstance(file.getProject()).getDocument(file);
+        int[] window = document != null ? document.getUserData(INSPECTION_WINDOW_KEY) : null;
+        if (window == null || !isActive(document)) {
+            return null;
+        }
+        int lastLine = document.getLineCount() - 1;
+        return new TextRange(document.getLineStartOffset(Math.min(window[0], lastLine)),
+                document.getLineEndOffset(Math.min(window[1], lastLine)));
+    }
+
+    /**
+     * Whether the element is checked by on-the-fly inspections limited to {@code range}.
+     */
+    static boolean isInRange(@Nullable TextRange range, @NotNull PsiElement element) {
+        return range == null || range.intersects(element.getTextRange());
+    }
+
+    /**
+     * Records that the lines from {@code firstLine} to {@code lastLine} of the document are
+     * visible. Centers a new inspection window on them if they are not inside the current one.
+     *
+     * @return whether the window moved, i.e. the inspections of the file need to run again
+     */
+    static boolean updateInspectionWindow(@NotNull Document document, int firstLine, int lastLine) {
+        int[] window = document.getUserData(INSPECTION_WINDOW_KEY);
+        if (window != null && window[0] <= firstLine && lastLine <= window[1]) {
+            return false;
+        }
+        document.putUserData(INSPECTION_WINDOW_KEY,
+                new int[]{Math.max(0, firstLine - WINDOW_LINES), lastLine + WINDOW_LINES});
+        return true;
+    }
+
+    /**
+     * Number of lines a scan backwards from the caret of the document may read.
+     */
+    static int getScanLimitLines(@NotNull Document document) {
+        return isActive(document) ? WINDOW_LINES : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Reruns the daemon and updates the status bar widget of every open project.
+     */
+    static void settingsChanged() {
+        for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+            DaemonCodeAnalyzer.getInstance(project).restart();
+            updateWidget(project);
+        }
+    }
+
+    static void updateWidget(@NotNull Project project) {
+        StatusBar statusBar = WindowManager.getInstance().getStatusBar(project);
+        if (statusBar != null) {
+            statusBar.updateWidget(BjoernLargeFileWidgetFactory.ID);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.FileEditorManagerEvent;
+import com.intellij.openapi.fileEditor.FileEditorManagerListener;
+import com.intellij.openapi.options.ShowSettingsUtil;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.wm.StatusBar;
+import com.intellij.openapi.wm.StatusBarWidget;
+import com.intellij.openapi.wm.StatusBarWidgetFactory;
+import com.intellij.util.Consumer;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.awt.event.MouseEvent;
+
+/**
+ * Status bar widget telling that the selected spec is edited in {@link BjoernLargeFileMode};
+ * empty for other files. A click opens the Bjoern settings.
+ */
+public class BjoernLargeFileWidgetFactory implements StatusBarWidgetFactory {
+
+    static final String ID = "BjoernLargeFileMode";
+
+    @Override
+    public @NonNls @NotNull String getId() {
+        return ID;
+    }
+
+    @Override
+    public @Nls @NotNull String getDisplayName() {
+        return "Bjoern Large-File Mode";
+    }
+
+    @Override
+    public @NotNull StatusBarWidget createWidget(@NotNull Project project) {
+        return new Widget(project);
+    }
+
+    private static final class Widget implements StatusBarWidget, StatusBarWidget.TextPresentation {
+        private final Project project;
+
+        Widget(Project project) {
+            this.project = project;
+        }
+
+        @Override
+        public @NonNls @NotNull String ID() {
+            return ID;
+        }
+
+        @Override
+        public @Nullable WidgetPresentation getPresentation() {
+            return this;
+        }
+
+        @Override
+        public void install(@NotNull StatusBar statusBar) {
+            project.getMessageBus().connect(this).subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER,
+                    new FileEditorManagerListener() {
+                        @Override
+                        public void selectionChanged(@NotNull FileEditorManagerEvent event) {
+                            statusBar.updateWidget(ID);
+                        }
+                    });
+        }
+
+        @Override
+        public void dispose() {
+        }
+
+        @Override
+        public @NotNull String getText() {
+            return isActive() ? "Bjoern: large file" : "";
+        }
+
+        @Override
+        public float getAlignment() {
+            return Component.CENTER_ALIGNMENT;
+        }
+
+        @Override
+        public @Nullable String getTooltipText() {
+            if (!isActive()) {
+                return null;
+            }
+            return "The spec has more than " + BjoernSettings.getInstance().getLargeFileThresholdLines()
+                    + " lines: inspections only check its visible part, and steps of other specs are only "
+                    + "suggested when completion is invoked explicitly. Click to configure.";
+        }
+
+        @Override
+        public @Nullable Consumer<MouseEvent> getClickConsumer() {
+            return event -> ShowSettingsUtil.getInstance().showSettingsDialog(project, BjoernSettingsConfigurable.class);
+        }
+
+        private boolean isActive() {
+            Editor editor = FileEditorManager.getInstance(project).getSelectedTextEditor();
+            if (editor == null) {
+                return false;
+            }
+            VirtualFile file = editor.getVirtualFile();
+            return file != null && "zgr".equals(file.getExtension()) && BjoernLargeFileMode.isActive(editor.getDocument());
+        }
+    }
+}
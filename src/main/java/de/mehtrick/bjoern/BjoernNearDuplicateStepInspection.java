@@ -0,0 +1,115 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.codeInspection.*;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inspection that flags steps whose template is a near duplicate of a more common step of the
+ * project, as clustered by {@link BjoernNearDuplicateSteps}, and offers to replace them with the
+ * canonical step of their cluster. In the editor the steps are checked against the clusters
+ * computed last, so new near duplicates show up once the background clustering finished.
+ */
+public class BjoernNearDuplicateStepInspection extends LocalInspectionTool {
+
+    @Override
+    public ProblemDescriptor @NotNull [] checkFile(@NotNull PsiFile file,
+                                                    @NotNull InspectionManager manager,
+                                                    boolean isOnTheFly) {
+        if (!file.getName().endsWith(".zgr")) {
+            return ProblemDescriptor.EMPTY_ARRAY;
+        }
+
+        // Highlighting uses the clusters at hand and never waits for the project to be clustered
+        BjoernNearDuplicateSteps nearDuplicateSteps = BjoernNearDuplicateSteps.getInstance(file.getProject());
+        BjoernNearDuplicateSteps.Clusters clusters = isOnTheFly
+                ? nearDuplicateSteps.getLatestClusters()
+                : nearDuplicateSteps.getClusters();
+        if (clusters == null) {
+            return ProblemDescriptor.EMPTY_ARRAY;
+        }
+
+        List<ProblemDescriptor> problems = new ArrayList<>();
+        TextRange range = BjoernLargeFileMode.getInspectionRange(file, isOnTheFly);
+
+        for (BjoernSteps.Step step : BjoernSteps.forFile(file, range).getSteps()) {
+            List<String> cluster = clusters.clusterOf(step.getContext(), step.getTemplate());
+            if (cluster == null || cluster.get(0).equals(step.getTemplate())) continue;
+
+            String canonical = cluster.get(0);
+            PsiElement element = step.getElement();
+            int elementStart = element.getTextRange().getStartOffset();
+            problems.add(manager.createProblemDescriptor(
+                    element,
+                    new TextRange(step.getStartOffset(), step.getEndOffset()).shiftLeft(elementStart),
+                    "Step is a near duplicate of '" + canonical + "' (used "
+                            + clusters.getUsages(step.getContext(), canonical) + "×)",
+                    ProblemHighlightType.WEAK_WARNING,
+                    isOnTheFly,
+                    new MergeToCanonicalStepFix(canonical)));
+        }
+
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /**
+     * Returns the canonical template with its placeholders filled with the parameter values of
+     * the statement, in order, if both have the same number of them; the bare template otherwise.
+     */
+    static String mergedStatement(String statement, String canonicalTemplate) {
+        List<String> values = BjoernSteps.parameterValues(statement);
+        int[] placeholders = BjoernSteps.parameterRanges(canonicalTemplate);
+        if (values.size() != placeholders.length / 2) {
+            return canonicalTemplate;
+        }
+
+        StringBuilder merged = new StringBuilder();
+        int last = 0;
+        for (int i = 0; i < placeholders.length; i += 2) {
+            merged.append(canonicalTemplate, last, placeholders[i]).append('"').append(values.get(i / 2)).append('"');
+            last = placeholders[i + 1];
+        }
+        return merged.append(canonicalTemplate, last, canonicalTemplate.length()).toString();
+    }
+
+    private static class MergeToCanonicalStepFix implements LocalQuickFix {
+        private final String canonical;
+
+        MergeToCanonicalStepFix(String canonical) {
+            this.canonical = canonical;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "Merge to canonical step '" + canonical + "'";
+        }
+
+        @Override
+        public @NotNull String getFamilyName() {
+            return "Merge to canonical step";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiElement value = descriptor.getPsiElement();
+            if (value == null) return;
+
+            PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+            Document document = documentManager.getDocument(value.getContainingFile());
+            if (document == null) return;
+
+            TextRange range = descriptor.getTextRangeInElement().shiftRight(value.getTextRange().getStartOffset());
+            document.replaceString(range.getStartOffset(), range.getEndOffset(),
+                    mergedStatement(range.substring(document.getText()), canonical));
+            documentManager.commitDocument(document);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileTypes.FileTypeRegistry;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.PathUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Near-duplicate step templates of a project, clustered per step context by
+ * {@link BjoernStepSimilarity} over the templates and usage counts of {@link BjoernStepIndex}.
+ * <p>
+ * Clustering reads the whole step index, so the clusters are kept until a Bjoern spec is saved,
+ * created, deleted, moved or renamed; typing and changes to other files do not invalidate them.
+ * Editor highlighting uses {@link #getLatestClusters}, which never clusters in the daemon but
+ * recomputes in the background and reruns the daemon on the open specs once the new clusters
+ * are ready.
+ */
+@Service(Service.Level.PROJECT)
+public final class BjoernNearDuplicateSteps implements Disposable {
+
+    private final Project project;
+    // Bumped whenever a Bjoern spec changes on disk
+    private final SimpleModificationTracker specsTracker = new SimpleModificationTracker();
+    private volatile Snapshot snapshot;
+
+    private static final class Snapshot {
+        final long specsModificationCount;
+        final Clusters clusters;
+
+        Snapshot(long specsModificationCount, Clusters clusters) {
+            this.specsModificationCount = specsModificationCount;
+            this.clusters = clusters;
+        }
+    }
+
+    public BjoernNearDuplicateSteps(@NotNull Project project) {
+        this.project = project;
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                for (VFileEvent event : events) {
+                    if (isSpecEvent(event)) {
+                        specsTracker.incModificationCount();
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    private static boolean isSpecEvent(VFileEvent event) {
+        FileTypeRegistry fileTypes = FileTypeRegistry.getInstance();
+        VirtualFile file = event.getFile();
+        if (file != null && fileTypes.isFileOfType(file, BjoernFileType.INSTANCE)) {
+            return true;
+        }
+        if (fileTypes.getFileTypeByFileName(PathUtil.getFileName(event.getPath())) == BjoernFileType.INSTANCE) {
+            return true;
+        }
+        // A spec renamed to another extension
+        return event instanceof VFilePropertyChangeEvent propertyChange && propertyChange.isRename()
+                && fileTypes.getFileTypeByFileName((String) propertyChange.getOldValue()) == BjoernFileType.INSTANCE;
+    }
+
+    public static BjoernNearDuplicateSteps getInstance(@NotNull Project project) {
+        return project.getService(BjoernNearDuplicateSteps.class);
+    }
+
+    /**
+     * Returns up-to-date clusters, computing them if a spec changed since the last run.
+     * Must be called in a read action with indexes available.
+     */
+    public @NotNull Clusters getClusters() {
+        long specsModificationCount = specsTracker.getModificationCount();
+        Snapshot current = snapshot;
+        if (current != null && current.specsModificationCount == specsModificationCount) {
+            return current.clusters;
+        }
+        Clusters clusters = compute();
+        snapshot = new Snapshot(specsModificationCount, clusters);
+        return clusters;
+    }
+
+    /**
+     * Returns the clusters computed last, or {@code null} before the first run, without
+     * clustering in the calling thread. If a spec changed since, the clusters are recomputed
+     * in the background; overlapping requests are coalesced into one run.
+     */
+    public @Nullable Clusters getLatestClusters() {
+        long specsModificationCount = specsTracker.getModificationCount();
+        Snapshot current = snapshot;
+        if (current == null || current.specsModificationCount != specsModificationCount) {
+            ReadAction.nonBlocking(this::compute)
+                    .inSmartMode(project)
+                    .coalesceBy(this)
+                    .expireWith(this)
+                    .finishOnUiThread(ModalityState.any(), clusters -> {
+                        snapshot = new Snapshot(specsModificationCount, clusters);
+                        restartOpenSpecs();
+                    })
+                    .submit(AppExecutorUtil.getAppExecutorService());
+        }
+        return current != null ? current.clusters : null;
+    }
+
+    // Reruns the daemon on the open specs only, the other files do not show clusters
+    private void restartOpenSpecs() {
+        DaemonCodeAnalyzer daemon = DaemonCodeAnalyzer.getInstance(project);
+        PsiManager psiManager = PsiManager.getInstance(project);
+        for (VirtualFile file : FileEditorManager.getInstance(project).getOpenFiles()) {
+            if (file.isValid() && FileTypeRegistry.getInstance().isFileOfType(file, BjoernFileType.INSTANCE)) {
+                PsiFile psiFile = psiManager.findFile(file);
+                if (psiFile != null) {
+                    daemon.restart(psiFile);
+                }
+            }
+        }
+    }
+
+    private Clusters compute() {
+        Map<String, Map<String, Integer>> usages = new LinkedHashMap<>();
+        Map<String, List<List<String>>> clusters = new LinkedHashMap<>();
+        for (String context : BjoernStepIndex.STEP_CONTEXTS) {
+            Map<String, Integer> contextUsages = new HashMap<>();
+            FileBasedIndex.getInstance().processValues(BjoernStepIndex.NAME, context, null, (file, counts) -> {
+                ProgressManager.checkCanceled();
+                counts.forEach((template, count) -> contextUsages.merge(template, count, Integer::sum));
+                return true;
+            }, GlobalSearchScope.projectScope(project));
+            usages.put(context, contextUsages);
+            clusters.put(context, BjoernStepSimilarity.cluster(contextUsages, BjoernStepSimilarity.DEFAULT_THRESHOLD));
+        }
+        return new Clusters(usages, clusters);
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    /**
+     * Clusters of near-duplicate templates per context, each with its canonical template first.
+     */
+    public static final class Clusters {
+        private final Map<String, Map<String, Integer>> usages;
+        private final Map<String, List<List<String>>> clusters;
+        private final Map<String, Map<String, List<String>>> clusterOfTemplate = new HashMap<>();
+
+        Clusters(Map<String, Map<String, Integer>> usages, Map<String, List<List<String>>> clusters) {
+            this.usages = usages;
+            this.clusters = clusters;
+            clusters.forEach((context, contextClusters) -> {
+                Map<String, List<String>> byTemplate = new HashMap<>();
+                for (List<String> cluster : contextClusters) {
+                    for (String template : cluster) {
+                        byTemplate.put(template, cluster);
+                    }
+                }
+                clusterOfTemplate.put(context, byTemplate);
+            });
+        }
+
+        public @NotNull List<List<String>> get(@NotNull String context) {
+            return clusters.getOrDefault(context, List.of());
+        }
+
+        /**
+         * The cluster of the template, or {@code null} if it has no near duplicates.
+         */
+        public @Nullable List<String> clusterOf(@NotNull String context, @NotNull String template) {
+            return clusterOfTemplate.getOrDefault(context, Map.of()).get(template);
+        }
+
+        public int getUsages(@NotNull String context, @NotNull String template) {
+            return usages.getOrDefault(context, Map.of()).getOrDefault(template, 0);
+        }
+
+        public int getTemplateCount(@NotNull String context) {
+            return usages.getOrDefault(context, Map.of()).size();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.testFramework.LightVirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Opens a Markdown report of the near-duplicate steps of the project, one section per step
+ * context with each cluster's canonical step and its variants.
+ */
+public class BjoernNearDuplicateStepsReportAction extends AnAction {
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        if (DumbService.isDumb(project)) {
+            DumbService.getInstance(project).showDumbModeNotification("The step report is available once indexing is finished");
+            return;
+        }
+
+        String report = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ReadAction.compute(() -> buildReport(BjoernNearDuplicateSteps.getInstance(project).getClusters())),
+                "Finding Near-Duplicate Steps", true, project);
+        FileEditorManager.getInstance(project).openFile(new LightVirtualFile("Near-duplicate steps.md", report), true);
+    }
+
+    static String buildReport(BjoernNearDuplicateSteps.Clusters clusters) {
+        StringBuilder report = new StringBuilder("# Near-duplicate steps\n");
+        for (String context : BjoernStepIndex.STEP_CONTEXTS) {
+            List<List<String>> contextClusters = clusters.get(context);
+            report.append("\n## ").append(context).append("\n\n");
+            report.append(contextClusters.size()).append(" cluster(s) among ")
+                    .append(clusters.getTemplateCount(context)).append(" step template(s).\n");
+            for (List<String> cluster : contextClusters) {
+                report.append('\n');
+                for (int i = 0; i < cluster.size(); i++) {
+                    String template = cluster.get(i);
+                    report.append(i == 0 ? "- " : "  - ")
+                            .append('`').append(template).append("` (")
+                            .append(clusters.getUsages(context, template)).append("×)\n");
+                }
+            }
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,214 @@
+package de.mehtrick.bjoern;
+
+import java.util.Arrays;
+
+/**
+ * Sorted table of the double-quoted parameter ranges of a Bjoern spec text.
+ * <p>
+ * Produces exactly the matches of {@code "([^"\\]|\\.)*"} found left to right: a parameter
+ * starts at a quote and ends at the next quote that is not escaped by a backslash. A backslash
+ * followed by a line break (or by the end of the text) cannot be matched, so the search then
+ * continues at the next quote.
+ * <p>
+ * Lookups of the enclosing parameter are binary searches. After an edit, {@link #update}
+ * resumes scanning at the last parameter that is unaffected by the edit and stops as soon as
+ * it meets a parameter of the unchanged tail again.
+ */
+final class BjoernParameterRanges {
+
+    private int[] starts;
+    private int[] ends;
+    // Highest offset read while finding parameters 0..i; the parameters up to i only depend on text before it
+    private int[] reach;
+    private int count;
+    private long modificationStamp = -1;
+
+    private BjoernParameterRanges() {
+        this.starts = new int[16];
+        this.ends = new int[16];
+        this.reach = new int[16];
+    }
+
+    static BjoernParameterRanges scan(CharSequence text) {
+        BjoernParameterRanges ranges = new BjoernParameterRanges();
+        ranges.scanFrom(text, 0, -1, null, null, null, 0, 0, 0);
+        return ranges;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Start offset of parameter {@code index}, i.e. the offset of its opening quote.
+     */
+    int getStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * End offset of parameter {@code index}, i.e. the offset after its closing quote.
+     */
+    int getEnd(int index) {
+        return ends[index];
+    }
+
+    long getModificationStamp() {
+        return modificationStamp;
+    }
+
+    void setModificationStamp(long modificationStamp) {
+        this.modificationStamp = modificationStamp;
+    }
+
+    /**
+     * Returns the index of the parameter the offset is inside of (after the opening and before
+     * the closing quote), or -1.
+     */
+    int indexOfEnclosing(int offset) {
+        int index = Arrays.binarySearch(starts, 0, count, offset);
+        int candidate = index >= 0 ? index - 1 : -index - 2;
+        if (candidate >= 0 && offset < ends[candidate]) {
+            return candidate;
+        }
+        return -1;
+    }
+
+    /**
+     * Updates the table after {@code oldLength} characters at {@code offset} were replaced by
+     * {@code newLength} characters. {@code newText} is the complete text after the change.
+     */
+    void update(CharSequence newText, int offset, int oldLength, int newLength) {
+        // Last parameter that was found without reading any changed character
+        int keep = lastIndexWithReachBefore(offset);
+        int tailStart = firstIndexStartingAtOrAfter(offset + oldLength);
+        int[] tailStarts = Arrays.copyOfRange(starts, tailStart, count);
+        int[] tailEnds = Arrays.copyOfRange(ends, tailStart, count);
+        int[] tailReach = Arrays.copyOfRange(reach, tailStart, count);
+
+        int from = keep >= 0 ? ends[keep] : 0;
+        int reached = keep >= 0 ? reach[keep] : -1;
+        scanFrom(newText, from, reached, tailStarts, tailEnds, tailReach, keep + 1,
+                newLength - oldLength, offset + newLength);
+    }
+
+    /**
+     * Scans {@code text} from offset {@code from}, storing parameters from index {@code index} on.
+     * When a parameter found at or after {@code tailOffset} equals a parameter of the given old
+     * tail (shifted by {@code delta}), the remaining tail is copied instead of scanned.
+     */
+    private void scanFrom(CharSequence text, int from, int reached, int[] tailStarts, int[] tailEnds,
+                          int[] tailReach, int index, int delta, int tailOffset) {
+        int length = text.length();
+        int pos = from;
+        int tailIndex = 0;
+        while (true) {
+            int quote = indexOfQuote(text, pos, length);
+            if (quote < 0) {
+                break;
+            }
+            int close = findClosingQuote(text, quote + 1, length);
+            if (close < 0) {
+                // Attempt failed at the reported position; the regex continues at the next quote
+                reached = Math.max(reached, -close - 1);
+                pos = quote + 1;
+                continue;
+            }
+            reached = Math.max(reached, close);
+
+            if (tailStarts != null && quote >= tailOffset) {
+                while (tailIndex < tailStarts.length && tailStarts[tailIndex] + delta < quote) {
+                    tailIndex++;
+                }
+                if (tailIndex < tailStarts.length && tailStarts[tailIndex] + delta == quote) {
+                    // Same parameter as before the edit: everything after it is unchanged
+                    ensureCapacity(index + tailStarts.length - tailIndex);
+                    for (int i = tailIndex; i < tailStarts.length; i++, index++) {
+                        starts[index] = tailStarts[i] + delta;
+                        ends[index] = tailEnds[i] + delta;
+                        reached = Math.max(reached, tailReach[i] + delta);
+                        reach[index] = reached;
+                    }
+                    count = index;
+                    return;
+                }
+            }
+
+            ensureCapacity(index + 1);
+            starts[index] = quote;
+            ends[index] = close + 1;
+            reach[index] = reached;
+            index++;
+            pos = close + 1;
+        }
+        count = index;
+    }
+
+    private int lastIndexWithReachBefore(int offset) {
+        int low = 0;
+        int high = count - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (reach[mid] < offset) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private int firstIndexStartingAtOrAfter(int offset) {
+        int index = Arrays.binarySearch(starts, 0, count, offset);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > starts.length) {
+            int newCapacity = Math.max(capacity, starts.length * 2);
+            starts = Arrays.copyOf(starts, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+            reach = Arrays.copyOf(reach, newCapacity);
+        }
+    }
+
+    private static int indexOfQuote(CharSequence text, int from, int length) {
+        for (int i = from; i < length; i++) {
+            if (text.charAt(i) == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the offset of the closing quote, or {@code -(failureOffset + 1)} if the parameter
+     * cannot be closed. The failure offset is the last offset the result depends on, which is
+     * the text length if the end of the text was reached.
+     */
+    private static int findClosingQuote(CharSequence text, int from, int length) {
+        int i = from;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                return i;
+            }
+            if (c == '\\') {
+                // An escape needs a following character other than a line terminator
+                if (i + 1 >= length || isLineTerminator(text.charAt(i + 1))) {
+                    return -(i + 2);
+                }
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+        return -(length + 1);
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
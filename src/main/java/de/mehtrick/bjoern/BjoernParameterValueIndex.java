@@ -0,0 +1,136 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * File-based index of the values used for each parameter placeholder of a step template.
+ * <p>
+ * The key is {@link #slotKey} of a template and the index of its placeholder; the value is a
+ * {@link BjoernTopKValues} summary of the values a {@code .zgr} file uses there. Summaries are
+ * bounded, so neither the index nor the project summary merged at completion time grows with
+ * the size of the corpus. The index only re-reads files that changed.
+ */
+public class BjoernParameterValueIndex extends FileBasedIndexExtension<String, BjoernTopKValues> {
+
+    public static final ID<String, BjoernTopKValues> NAME = ID.create("de.mehtrick.bjoern.parameterValues");
+
+    @NotNull
+    @Override
+    public ID<String, BjoernTopKValues> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, BjoernTopKValues, FileContent> getIndexer() {
+        return inputData -> collectValues(inputData.getContentAsText().toString());
+    }
+
+    static Map<String, BjoernTopKValues> collectValues(String text) {
+        Map<String, BjoernTopKValues> result = new HashMap<>();
+        for (String context : BjoernStepIndex.STEP_CONTEXTS) {
+            BjoernCompletionContributor.forEachRawStepBlock(text, context, block -> {
+                for (String statement : block) {
+                    List<String> values = BjoernCompletionContributor.parameterValues(statement);
+                    if (values.isEmpty()) {
+                        continue;
+                    }
+                    String template = BjoernCompletionContributor.toTemplate(statement);
+                    for (int slot = 0; slot < values.size(); slot++) {
+                        String value = values.get(slot);
+                        if (!value.isEmpty()) {
+                            result.computeIfAbsent(slotKey(template, slot), key -> new BjoernTopKValues()).add(value);
+                        }
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Returns the most frequent values used for the given placeholder across the project, or an
+     * empty summary while indexing.
+     */
+    static @NotNull BjoernTopKValues getValues(@NotNull Project project, @NotNull String template, int slot) {
+        BjoernTopKValues values = new BjoernTopKValues();
+        if (DumbService.isDumb(project)) {
+            return values;
+        }
+        for (BjoernTopKValues fileValues : FileBasedIndex.getInstance().getValues(
+                NAME, slotKey(template, slot), GlobalSearchScope.projectScope(project))) {
+            values.addAll(fileValues);
+        }
+        return values;
+    }
+
+    static String slotKey(String template, int slot) {
+        // Templates are single lines
+        return template + '\n' + slot;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<BjoernTopKValues> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, BjoernTopKValues value) throws IOException {
+                List<Map.Entry<String, Integer>> top = value.top();
+                DataInputOutputUtil.writeINT(out, top.size());
+                for (Map.Entry<String, Integer> entry : top) {
+                    IOUtil.writeUTF(out, entry.getKey());
+                    DataInputOutputUtil.writeINT(out, entry.getValue());
+                }
+            }
+
+            @Override
+            public BjoernTopKValues read(@NotNull DataInput in) throws IOException {
+                int size = DataInputOutputUtil.readINT(in);
+                BjoernTopKValues values = new BjoernTopKValues();
+                for (int i = 0; i < size; i++) {
+                    String value = IOUtil.readUTF(in);
+                    values.add(value, DataInputOutputUtil.readINT(in));
+                }
+                return values;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(BjoernFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
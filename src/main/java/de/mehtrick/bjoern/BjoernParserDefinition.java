@@ -13,19 +13,36 @@ import com.intellij.psi.tree.TokenSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.yaml.YAMLParserDefinition;
 
+/**
+ * Parses Bjoern specs into the YAML PSI, or into the compact Bjoern tree of
+ * {@link BjoernCompactParser} when the {@value #COMPACT_PSI_PROPERTY} system property is
+ * {@code true}.
+ * <p>
+ * The compact tree holds far fewer elements per line, but the features built on the YAML PSI
+ * (structure validation, breadcrumbs, step navigation) find no YAML elements in it. The file
+ * stub is built from either tree, so the indexes work in both modes. {@link BjoernSteps} exposes
+ * the steps and their parameters of both trees.
+ */
 public class BjoernParserDefinition extends YAMLParserDefinition {
-    public static final IFileElementType FILE = new IFileElementType(BjoernLanguage.INSTANCE);
+    public static final BjoernFileElementType FILE = new BjoernFileElementType();
+
+    public static final String COMPACT_PSI_PROPERTY = "bjoern.compact.psi";
+
+    static boolean isCompactPsiEnabled() {
+        return Boolean.getBoolean(COMPACT_PSI_PROPERTY);
+    }
 
     @NotNull
     @Override
     public Lexer createLexer(Project project) {
-        return super.createLexer(project);
+        // The compact parser needs the quoted strings of steps as tokens of their own
+        return isCompactPsiEnabled() ? new BjoernLayeredLexer() : super.createLexer(project);
     }
 
     @NotNull
     @Override
     public PsiParser createParser(Project project) {
-        return super.createParser(project);
+        return isCompactPsiEnabled() ? new BjoernCompactParser() : super.createParser(project);
     }
 
     @Override
@@ -36,6 +53,9 @@ public class BjoernParserDefinition extends YAMLParserDefinition {
     @NotNull
     @Override
     public PsiElement createElement(ASTNode node) {
+        if (BjoernElementTypes.ALL.contains(node.getElementType())) {
+            return new BjoernCompactElement(node);
+        }
         return super.createElement(node);
     }
 
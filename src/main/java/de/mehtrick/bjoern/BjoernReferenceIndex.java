@@ -0,0 +1,115 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * File-based index from the tickets a spec references to the {@code .zgr} files.
+ * <p>
+ * Keys are the ticket ids and link URLs of the top-level {@code Reference:} values, as returned
+ * by {@link BjoernSpecRules#referenceKeys}. Finding the specs of a ticket is a single index
+ * lookup instead of a text search over every spec.
+ */
+public class BjoernReferenceIndex extends ScalarIndexExtension<String> {
+
+    public static final ID<String, Void> NAME = ID.create("de.mehtrick.bjoern.references");
+
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("^Reference:[ \\t]*(.*)$", Pattern.MULTILINE);
+
+    @NotNull
+    @Override
+    public ID<String, Void> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, Void, FileContent> getIndexer() {
+        return inputData -> {
+            Map<String, Void> result = new HashMap<>();
+            for (String key : referenceKeys(inputData.getContentAsText())) {
+                result.put(key, null);
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Collects the keys of every top-level {@code Reference:} line of the spec text.
+     */
+    static Set<String> referenceKeys(CharSequence text) {
+        Set<String> keys = new LinkedHashSet<>();
+        Matcher matcher = REFERENCE_PATTERN.matcher(text);
+        while (matcher.find()) {
+            keys.addAll(BjoernSpecRules.referenceKeys(matcher.group(1)));
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the specs referencing the given ticket id or URL.
+     */
+    public static @NotNull Collection<VirtualFile> findFiles(@NotNull Project project, @NotNull String ticketOrUrl,
+                                                            @NotNull GlobalSearchScope scope) {
+        if (DumbService.isDumb(project)) {
+            return List.of();
+        }
+        return FileBasedIndex.getInstance().getContainingFiles(
+                NAME, BjoernSpecRules.normalizeReferenceKey(ticketOrUrl), scope);
+    }
+
+    /**
+     * Returns the indexed keys of the project containing the given text, ignoring case; an exact
+     * match first, then in alphabetical order.
+     */
+    public static @NotNull List<String> findKeys(@NotNull Project project, @NotNull String text) {
+        if (DumbService.isDumb(project) || text.isBlank()) {
+            return List.of();
+        }
+        String needle = text.trim().toLowerCase(Locale.ROOT);
+        List<String> keys = new ArrayList<>();
+        FileBasedIndex.getInstance().processAllKeys(NAME, key -> {
+            if (key.toLowerCase(Locale.ROOT).contains(needle)) {
+                keys.add(key);
+            }
+            return true;
+        }, project);
+        Collections.sort(keys);
+        if (keys.remove(BjoernSpecRules.normalizeReferenceKey(text))) {
+            keys.add(0, BjoernSpecRules.normalizeReferenceKey(text));
+        }
+        return keys;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(BjoernFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
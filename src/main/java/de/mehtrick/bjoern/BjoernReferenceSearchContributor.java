@@ -0,0 +1,115 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.ide.actions.searcheverywhere.SearchEverywhereContributor;
+import com.intellij.ide.actions.searcheverywhere.SearchEverywhereContributorFactory;
+import com.intellij.ide.actions.searcheverywhere.SearchEverywherePsiRenderer;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Search Everywhere tab listing the specs whose {@code Reference:} contains the typed ticket id
+ * or URL, looked up in {@link BjoernReferenceIndex}.
+ */
+public class BjoernReferenceSearchContributor implements SearchEverywhereContributor<PsiFile> {
+
+    // Keys of a pattern whose specs are listed at most
+    private static final int MAX_KEYS = 100;
+
+    private final Project project;
+    private final SearchEverywherePsiRenderer renderer;
+
+    BjoernReferenceSearchContributor(@NotNull Project project) {
+        this.project = project;
+        // Disposed together with the contributor
+        this.renderer = new SearchEverywherePsiRenderer(this);
+    }
+
+    @NotNull
+    @Override
+    public String getSearchProviderId() {
+        return BjoernReferenceSearchContributor.class.getSimpleName();
+    }
+
+    @NotNull
+    @Override
+    public String getGroupName() {
+        return "Spec References";
+    }
+
+    @Override
+    public int getSortWeight() {
+        return 1000;
+    }
+
+    @Override
+    public boolean showInFindResults() {
+        return false;
+    }
+
+    @Override
+    public boolean isShownInSeparateTab() {
+        return true;
+    }
+
+    @Override
+    public void fetchElements(@NotNull String pattern, @NotNull ProgressIndicator progressIndicator,
+                              @NotNull Processor<? super PsiFile> consumer) {
+        if (pattern.isBlank()) {
+            return;
+        }
+        ReadAction.run(() -> {
+            GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+            PsiManager psiManager = PsiManager.getInstance(project);
+            Set<VirtualFile> seen = new LinkedHashSet<>();
+            int keys = 0;
+            for (String key : BjoernReferenceIndex.findKeys(project, pattern)) {
+                if (++keys > MAX_KEYS) {
+                    return;
+                }
+                for (VirtualFile file : BjoernReferenceIndex.findFiles(project, key, scope)) {
+                    progressIndicator.checkCanceled();
+                    if (!seen.add(file)) {
+                        continue;
+                    }
+                    PsiFile psiFile = psiManager.findFile(file);
+                    if (psiFile != null && !consumer.process(psiFile)) {
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean processSelectedItem(@NotNull PsiFile selected, int modifiers, @NotNull String searchText) {
+        selected.navigate(true);
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public ListCellRenderer<? super PsiFile> getElementsRenderer() {
+        return renderer;
+    }
+
+    public static class Factory implements SearchEverywhereContributorFactory<PsiFile> {
+        @Override
+        public @NotNull SearchEverywhereContributor<PsiFile> createContributor(@NotNull AnActionEvent initEvent) {
+            Project project = initEvent.getRequiredData(CommonDataKeys.PROJECT);
+            return new BjoernReferenceSearchContributor(project);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * Stub index from scenario names to the Bjoern specs defining them.
+ */
+public class BjoernScenarioNameIndex extends StringStubIndexExtension<BjoernFile> {
+
+    public static final StubIndexKey<String, BjoernFile> KEY = StubIndexKey.createIndexKey("bjoern.scenario.name");
+
+    @NotNull
+    @Override
+    public StubIndexKey<String, BjoernFile> getKey() {
+        return KEY;
+    }
+
+    @Override
+    public int getVersion() {
+        return super.getVersion() + 1;
+    }
+
+    /**
+     * Returns the specs in the given scope that have a scenario with the given (trimmed) name.
+     */
+    public static @NotNull Collection<BjoernFile> findFiles(@NotNull Project project, @NotNull String scenarioName,
+                                                             @NotNull GlobalSearchScope scope) {
+        return StubIndex.getElements(KEY, scenarioName, project, scope, BjoernFile.class);
+    }
+}
@@ -0,0 +1,210 @@
+package de.mehtrick.bjoern;
+
+import java.util.Arrays;
+
+/**
+ * Line-to-section table of a Bjoern spec text.
+ * <p>
+ * The table is built in a single pass over the text and records, for every line, the section
+ * state in effect <em>before</em> that line (Background, Scenarios, inside a Scenario and the
+ * last section keyword). Looking up the context of an offset is a binary search over the line
+ * start offsets, so callers no longer need to re-split all preceding lines for every query.
+ * After an edit, {@link #update} only rescans the changed lines and the following lines whose
+ * state actually changes.
+ * <p>
+ * The class only depends on {@link CharSequence} so it can be shared by the editor features
+ * and by code running outside the IDE.
+ */
+final class BjoernSectionModel {
+
+    static final int IN_BACKGROUND = 1;
+    static final int IN_SCENARIOS = 1 << 1;
+    static final int IN_SCENARIO = 1 << 2;
+
+    // Last section keyword seen, stored in bits 3-5 of the state
+    static final int LAST_SECTION_SHIFT = 3;
+    static final int LAST_SECTION_MASK = 7 << LAST_SECTION_SHIFT;
+    static final int LAST_NONE = 0;
+    static final int LAST_BACKGROUND = 1;
+    static final int LAST_SCENARIOS = 2;
+    static final int LAST_GIVEN = 3;
+    static final int LAST_WHEN = 4;
+    static final int LAST_THEN = 5;
+
+    private int[] lineStarts;
+    private int[] states;
+    private int lineCount;
+    private long modificationStamp = -1;
+
+    // State after the last line handled by scanLines
+    private int scanEndState;
+
+    private BjoernSectionModel() {
+        this.lineStarts = new int[16];
+        this.states = new int[16];
+    }
+
+    static BjoernSectionModel build(CharSequence text) {
+        BjoernSectionModel model = new BjoernSectionModel();
+        model.lineCount = model.scanLines(text, 0, 0, text.length(), 0);
+        return model;
+    }
+
+    int getLineCount() {
+        return lineCount;
+    }
+
+    int getLineStart(int line) {
+        return lineStarts[line];
+    }
+
+    long getModificationStamp() {
+        return modificationStamp;
+    }
+
+    void setModificationStamp(long modificationStamp) {
+        this.modificationStamp = modificationStamp;
+    }
+
+    /**
+     * Returns the index of the line containing the given offset.
+     */
+    int lineAt(int offset) {
+        int index = Arrays.binarySearch(lineStarts, 0, lineCount, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Returns the section state (a combination of {@link #IN_BACKGROUND}, {@link #IN_SCENARIOS},
+     * {@link #IN_SCENARIO} and the last section) resulting from all lines before the given one.
+     */
+    int stateBefore(int line) {
+        return states[line];
+    }
+
+    boolean isInScenarioBefore(int line) {
+        return (states[line] & IN_SCENARIO) != 0;
+    }
+
+    static int lastSection(int state) {
+        return (state & LAST_SECTION_MASK) >> LAST_SECTION_SHIFT;
+    }
+
+    /**
+     * Updates the table after {@code oldLength} characters at {@code offset} were replaced by
+     * {@code newLength} characters. {@code newText} is the complete text after the change.
+     */
+    void update(CharSequence newText, int offset, int oldLength, int newLength) {
+        int firstLine = lineAt(offset);
+        int tailStart = lineAt(offset + oldLength) + 1;
+        int tailLength = lineCount - tailStart;
+        int delta = newLength - oldLength;
+
+        // Lines after the edited ones keep their text, so set them aside and rescan the rest
+        int[] tailStarts = Arrays.copyOfRange(lineStarts, tailStart, lineCount);
+        int[] tailStates = Arrays.copyOfRange(states, tailStart, lineCount);
+
+        int rescanEnd = tailLength > 0 ? tailStarts[0] + delta - 1 : newText.length();
+        int count = scanLines(newText, firstLine, lineStarts[firstLine], rescanEnd, states[firstLine]);
+        int state = scanEndState;
+
+        ensureCapacity(count + tailLength);
+        int i = 0;
+        // Recompute tail states only until they match the previous ones again
+        for (; i < tailLength && state != tailStates[i]; i++) {
+            int lineStart = tailStarts[i] + delta;
+            lineStarts[count + i] = lineStart;
+            states[count + i] = state;
+            state = advance(state, newText, lineStart, lineEnd(newText, lineStart));
+        }
+        for (; i < tailLength; i++) {
+            lineStarts[count + i] = tailStarts[i] + delta;
+            states[count + i] = tailStates[i];
+        }
+        lineCount = count + tailLength;
+    }
+
+    /**
+     * Scans the lines of {@code text} starting at {@code lineStart}, stored from index
+     * {@code line} on, up to the line ending at or after {@code end}. Returns the new line count.
+     */
+    private int scanLines(CharSequence text, int line, int lineStart, int end, int state) {
+        int length = text.length();
+        while (true) {
+            ensureCapacity(line + 1);
+            int lineEnd = lineEnd(text, lineStart);
+            lineStarts[line] = lineStart;
+            states[line] = state;
+            line++;
+            state = advance(state, text, lineStart, lineEnd);
+            if (lineEnd >= end || lineEnd >= length) {
+                break;
+            }
+            lineStart = lineEnd + 1;
+        }
+        scanEndState = state;
+        return line;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > lineStarts.length) {
+            int newCapacity = Math.max(capacity, lineStarts.length * 2);
+            lineStarts = Arrays.copyOf(lineStarts, newCapacity);
+            states = Arrays.copyOf(states, newCapacity);
+        }
+    }
+
+    /**
+     * Applies the effect of a single line to the section state.
+     */
+    static int advance(int state, CharSequence text, int lineStart, int lineEnd) {
+        int start = skipWhitespace(text, lineStart, lineEnd);
+        if (startsWith(text, start, lineEnd, "Background:")) {
+            return IN_BACKGROUND | (LAST_BACKGROUND << LAST_SECTION_SHIFT);
+        } else if (startsWith(text, start, lineEnd, "Scenarios:")) {
+            return IN_SCENARIOS | (LAST_SCENARIOS << LAST_SECTION_SHIFT);
+        } else if (startsWith(text, start, lineEnd, "- Scenario:")) {
+            return (state & ~IN_BACKGROUND) | IN_SCENARIO;
+        } else if (startsWith(text, start, lineEnd, "Given:")) {
+            return withLastSection(state, LAST_GIVEN);
+        } else if (startsWith(text, start, lineEnd, "When:")) {
+            return withLastSection(state, LAST_WHEN);
+        } else if (startsWith(text, start, lineEnd, "Then:")) {
+            return withLastSection(state, LAST_THEN);
+        }
+        return state;
+    }
+
+    private static int withLastSection(int state, int lastSection) {
+        return (state & ~LAST_SECTION_MASK) | (lastSection << LAST_SECTION_SHIFT);
+    }
+
+    static int lineEnd(CharSequence text, int lineStart) {
+        int length = text.length();
+        for (int i = lineStart; i < length; i++) {
+            if (text.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    private static int skipWhitespace(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static boolean startsWith(CharSequence text, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
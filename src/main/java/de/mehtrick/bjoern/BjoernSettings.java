@@ -0,0 +1,56 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Application-wide settings of the Bjoern plugin, edited in {@link BjoernSettingsConfigurable}.
+ */
+@Service(Service.Level.APP)
+@State(name = "BjoernSettings", storages = @Storage("bjoern.xml"))
+public final class BjoernSettings implements PersistentStateComponent<BjoernSettings.State> {
+
+    static final int DEFAULT_LARGE_FILE_THRESHOLD_LINES = 10000;
+
+    public static final class State {
+        public boolean largeFileModeEnabled = true;
+        // Specs with more lines than this are edited in large-file mode
+        public int largeFileThresholdLines = DEFAULT_LARGE_FILE_THRESHOLD_LINES;
+    }
+
+    private State state = new State();
+
+    public static BjoernSettings getInstance() {
+        return ApplicationManager.getApplication().getService(BjoernSettings.class);
+    }
+
+    @Override
+    public @NotNull State getState() {
+        return state;
+    }
+
+    @Override
+    public void loadState(@NotNull State state) {
+        this.state = state;
+    }
+
+    public boolean isLargeFileModeEnabled() {
+        return state.largeFileModeEnabled;
+    }
+
+    public void setLargeFileModeEnabled(boolean enabled) {
+        state.largeFileModeEnabled = enabled;
+    }
+
+    public int getLargeFileThresholdLines() {
+        return state.largeFileThresholdLines;
+    }
+
+    public void setLargeFileThresholdLines(int lines) {
+        state.largeFileThresholdLines = lines;
+    }
+}
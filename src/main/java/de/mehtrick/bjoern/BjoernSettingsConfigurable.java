@@ -0,0 +1,67 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.options.Configurable;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBCheckBox;
+import com.intellij.util.ui.FormBuilder;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+
+/**
+ * Settings page of the Bjoern plugin under Editor | Bjoern.
+ */
+public class BjoernSettingsConfigurable implements Configurable {
+
+    private JBCheckBox largeFileModeEnabled;
+    private JBIntSpinner largeFileThresholdLines;
+
+    @Override
+    public @Nls String getDisplayName() {
+        return "Bjoern";
+    }
+
+    @Override
+    public @Nullable JComponent createComponent() {
+        largeFileModeEnabled = new JBCheckBox("Use large-file mode for big specs");
+        largeFileThresholdLines = new JBIntSpinner(BjoernSettings.DEFAULT_LARGE_FILE_THRESHOLD_LINES, 1000, 10_000_000, 1000);
+        largeFileModeEnabled.addActionListener(e -> largeFileThresholdLines.setEnabled(largeFileModeEnabled.isSelected()));
+        return FormBuilder.createFormBuilder()
+                .addComponent(largeFileModeEnabled)
+                .addLabeledComponent("Specs with more lines than:", largeFileThresholdLines)
+                .addComponentToRightColumn(new JLabel("<html>Inspections only check the visible part of the spec, "
+                        + "and completion only suggests steps of other specs when invoked explicitly.</html>"))
+                .addComponentFillVertically(new JPanel(), 0)
+                .getPanel();
+    }
+
+    @Override
+    public boolean isModified() {
+        BjoernSettings settings = BjoernSettings.getInstance();
+        return largeFileModeEnabled.isSelected() != settings.isLargeFileModeEnabled()
+                || largeFileThresholdLines.getNumber() != settings.getLargeFileThresholdLines();
+    }
+
+    @Override
+    public void apply() {
+        BjoernSettings settings = BjoernSettings.getInstance();
+        settings.setLargeFileModeEnabled(largeFileModeEnabled.isSelected());
+        settings.setLargeFileThresholdLines(largeFileThresholdLines.getNumber());
+        BjoernLargeFileMode.settingsChanged();
+    }
+
+    @Override
+    public void reset() {
+        BjoernSettings settings = BjoernSettings.getInstance();
+        largeFileModeEnabled.setSelected(settings.isLargeFileModeEnabled());
+        largeFileThresholdLines.setNumber(settings.getLargeFileThresholdLines());
+        largeFileThresholdLines.setEnabled(settings.isLargeFileModeEnabled());
+    }
+
+    @Override
+    public void disposeUIResources() {
+        largeFileModeEnabled = null;
+        largeFileThresholdLines = null;
+    }
+}
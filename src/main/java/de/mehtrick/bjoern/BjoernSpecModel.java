@@ -0,0 +1,309 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.yaml.psi.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lightweight structural view of a Bjoern spec file: feature, reference, background,
+ * scenarios and their Given/When/Then step blocks.
+ * <p>
+ * The model is built with a single walk over the YAML PSI and cached until the file changes,
+ * so all inspections of a daemon pass share one traversal instead of each walking the
+ * documents and mappings again.
+ */
+public final class BjoernSpecModel {
+
+    static final Set<String> BDD_STEP_KEYS = Set.of("Given", "When", "Then");
+
+    /**
+     * One top-level YAML document of the spec (normally there is exactly one).
+     */
+    public static final class Document {
+        private final YAMLMapping mapping;
+        private final Set<String> topLevelKeys;
+        private final YAMLKeyValue feature;
+        private final YAMLKeyValue reference;
+        private final YAMLKeyValue background;
+        private final List<StepBlock> backgroundSteps;
+        private final YAMLKeyValue scenariosKeyValue;
+        private final List<Scenario> scenarios;
+
+        Document(YAMLMapping mapping, Set<String> topLevelKeys, YAMLKeyValue feature, YAMLKeyValue reference,
+                 YAMLKeyValue background, List<StepBlock> backgroundSteps,
+                 YAMLKeyValue scenariosKeyValue, List<Scenario> scenarios) {
+            this.mapping = mapping;
+            this.topLevelKeys = topLevelKeys;
+            this.feature = feature;
+            this.reference = reference;
+            this.background = background;
+            this.backgroundSteps = backgroundSteps;
+            this.scenariosKeyValue = scenariosKeyValue;
+            this.scenarios = scenarios;
+        }
+
+        public @NotNull YAMLMapping getMapping() {
+            return mapping;
+        }
+
+        public @NotNull Set<String> getTopLevelKeys() {
+            return topLevelKeys;
+        }
+
+        public @Nullable YAMLKeyValue getFeature() {
+            return feature;
+        }
+
+        public @Nullable YAMLKeyValue getReference() {
+            return reference;
+        }
+
+        public @Nullable YAMLKeyValue getBackground() {
+            return background;
+        }
+
+        public @NotNull List<StepBlock> getBackgroundSteps() {
+            return backgroundSteps;
+        }
+
+        public @Nullable YAMLKeyValue getScenariosKeyValue() {
+            return scenariosKeyValue;
+        }
+
+        public @NotNull List<Scenario> getScenarios() {
+            return scenarios;
+        }
+    }
+
+    /**
+     * A {@code - Scenario: name} item of the {@code Scenarios} sequence.
+     */
+    public static final class Scenario {
+        private final YAMLSequenceItem item;
+        private final YAMLKeyValue nameKeyValue;
+        private final String name;
+        private final List<StepBlock> steps;
+
+        Scenario(YAMLSequenceItem item, YAMLKeyValue nameKeyValue, String name, List<StepBlock> steps) {
+            this.item = item;
+            this.nameKeyValue = nameKeyValue;
+            this.name = name;
+            this.steps = steps;
+        }
+
+        public @NotNull YAMLSequenceItem getItem() {
+            return item;
+        }
+
+        /**
+         * The {@code Scenario:} key-value, or {@code null} if the item has none.
+         */
+        public @Nullable YAMLKeyValue getNameKeyValue() {
+            return nameKeyValue;
+        }
+
+        /**
+         * The trimmed scenario name, or {@code null} if the item has no {@code Scenario:} key.
+         */
+        public @Nullable String getName() {
+            return name;
+        }
+
+        public @NotNull List<StepBlock> getSteps() {
+            return steps;
+        }
+    }
+
+    /**
+     * A {@code Given:}, {@code When:} or {@code Then:} block with its step items.
+     */
+    public static final class StepBlock {
+        private final YAMLKeyValue keyValue;
+        private final String context;
+        private final List<YAMLSequenceItem> items;
+
+        StepBlock(YAMLKeyValue keyValue, String context, List<YAMLSequenceItem> items) {
+            this.keyValue = keyValue;
+            this.context = context;
+            this.items = items;
+        }
+
+        public @NotNull YAMLKeyValue getKeyValue() {
+            return keyValue;
+        }
+
+        /**
+         * The step keyword without colon: {@code Given}, {@code When} or {@code Then}.
+         */
+        public @NotNull String getContext() {
+            return context;
+        }
+
+        public @NotNull List<YAMLSequenceItem> getItems() {
+            return items;
+        }
+
+        /**
+         * A block is empty if it has no value, an empty sequence or a blank scalar.
+         */
+        public boolean isEmpty() {
+            YAMLValue value = keyValue.getValue();
+            if (value == null) {
+                return true;
+            } else if (value instanceof YAMLSequence) {
+                return items.isEmpty();
+            }
+            return value.getText().isBlank();
+        }
+    }
+
+    private static final BjoernSpecModel EMPTY = new BjoernSpecModel(Collections.emptyList());
+
+    private final List<Document> documents;
+
+    private BjoernSpecModel(List<Document> documents) {
+        this.documents = documents;
+    }
+
+    public @NotNull List<Document> getDocuments() {
+        return documents;
+    }
+
+    /**
+     * Returns the cached model of the given file, rebuilding it after PSI modifications.
+     */
+    public static @NotNull BjoernSpecModel forFile(@NotNull PsiFile file) {
+        if (!(file instanceof YAMLFile)) {
+            return EMPTY;
+        }
+        return CachedValuesManager.getCachedValue(file, () ->
+                CachedValueProvider.Result.create(build((YAMLFile) file), file));
+    }
+
+    /**
+     * Returns the model of the part of the file the range intersects, or the cached model of
+     * the whole file if the range is null. The Background and the scenarios outside of the
+     * range are left out; the scenarios are found by walking the {@code Scenarios} sequence
+     * from the item at the start of the range, so the work grows with the range, not with the
+     * file. The top-level keys and key-values are those of the whole documents.
+     */
+    public static @NotNull BjoernSpecModel forFile(@NotNull PsiFile file, @Nullable TextRange range) {
+        if (range == null || !(file instanceof YAMLFile)) {
+            return forFile(file);
+        }
+        return build((YAMLFile) file, range);
+    }
+
+    private static BjoernSpecModel build(YAMLFile file) {
+        return build(file, null);
+    }
+
+    private static BjoernSpecModel build(YAMLFile file, @Nullable TextRange range) {
+        List<Document> documents = new ArrayList<>();
+        for (YAMLDocument document : file.getDocuments()) {
+            if (range != null && !range.intersects(document.getTextRange())) continue;
+
+            YAMLValue topValue = document.getTopLevelValue();
+            if (topValue instanceof YAMLMapping mapping) {
+                documents.add(buildDocument(mapping, range));
+            }
+        }
+        return new BjoernSpecModel(documents);
+    }
+
+    private static Document buildDocument(YAMLMapping mapping, @Nullable TextRange range) {
+        Set<String> topLevelKeys = new HashSet<>();
+        YAMLKeyValue feature = null;
+        YAMLKeyValue reference = null;
+        YAMLKeyValue background = null;
+        YAMLKeyValue scenariosKeyValue = null;
+
+        for (YAMLKeyValue kv : mapping.getKeyValues()) {
+            String key = kv.getKeyText();
+            topLevelKeys.add(key);
+            // Keep the first occurrence, like YAMLMapping.getKeyValueByKey
+            switch (key) {
+                case "Feature" -> feature = feature != null ? feature : kv;
+                case "Reference" -> reference = reference != null ? reference : kv;
+                case "Background" -> background = background != null ? background : kv;
+                case "Scenarios" -> scenariosKeyValue = scenariosKeyValue != null ? scenariosKeyValue : kv;
+                default -> {
+                }
+            }
+        }
+
+        List<StepBlock> backgroundSteps = Collections.emptyList();
+        if (background != null && background.getValue() instanceof YAMLMapping bgMapping
+                && (range == null || range.intersects(background.getTextRange()))) {
+            backgroundSteps = collectStepBlocks(bgMapping);
+        }
+
+        List<Scenario> scenarios = new ArrayList<>();
+        if (scenariosKeyValue != null && scenariosKeyValue.getValue() instanceof YAMLSequence sequence) {
+            for (YAMLSequenceItem item : itemsInRange(sequence, range)) {
+                if (!(item.getValue() instanceof YAMLMapping scenarioMapping)) continue;
+
+                YAMLKeyValue nameKV = scenarioMapping.getKeyValueByKey("Scenario");
+                String name = nameKV != null ? nameKV.getValueText().trim() : null;
+                scenarios.add(new Scenario(item, nameKV, name, collectStepBlocks(scenarioMapping)));
+            }
+        }
+
+        return new Document(mapping, topLevelKeys, feature, reference, background, backgroundSteps,
+                scenariosKeyValue, scenarios);
+    }
+
+    /**
+     * Returns the items of the sequence the range intersects, all of them if it is null.
+     */
+    private static List<YAMLSequenceItem> itemsInRange(YAMLSequence sequence, @Nullable TextRange range) {
+        if (range == null) {
+            return sequence.getItems();
+        }
+
+        // The child of the sequence at the start of the range, or its first child if the range starts before it
+        PsiElement child = sequence.getFirstChild();
+        if (range.getStartOffset() > sequence.getTextRange().getStartOffset()) {
+            child = sequence.getContainingFile().findElementAt(range.getStartOffset());
+            while (child != null && child.getParent() != sequence && !(child instanceof PsiFile)) {
+                child = child.getParent();
+            }
+            if (child == null || child instanceof PsiFile) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<YAMLSequenceItem> items = new ArrayList<>();
+        for (; child != null && child.getTextRange().getStartOffset() < range.getEndOffset(); child = child.getNextSibling()) {
+            if (child instanceof YAMLSequenceItem item && range.intersects(item.getTextRange())) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private static List<StepBlock> collectStepBlocks(YAMLMapping mapping) {
+        List<StepBlock> blocks = new ArrayList<>();
+        for (YAMLKeyValue kv : mapping.getKeyValues()) {
+            String key = kv.getKeyText();
+            if (!BDD_STEP_KEYS.contains(key)) continue;
+
+            List<YAMLSequenceItem> items = kv.getValue() instanceof YAMLSequence sequence
+                    ? sequence.getItems()
+                    : Collections.emptyList();
+            blocks.add(new StepBlock(kv, key, items));
+        }
+        return blocks;
+    }
+}
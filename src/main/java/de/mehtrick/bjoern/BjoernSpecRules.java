@@ -0,0 +1,155 @@
+package de.mehtrick.bjoern;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Validation rules and messages shared by the Bjoern inspections and the {@code bjoern-cli}
+ * batch validator.
+ * <p>
+ * Only depends on the JDK, so the CLI module compiles this file without the IntelliJ Platform.
+ */
+public final class BjoernSpecRules {
+
+    /**
+     * Top-level fields every spec document must have, in reporting order.
+     */
+    public static final List<String> REQUIRED_TOP_LEVEL = List.of("Feature", "Scenarios");
+
+    /**
+     * Keys of the step blocks of a Background or Scenario.
+     */
+    public static final List<String> STEP_KEYS = List.of("Given", "When", "Then");
+
+    // Matches any URL-scheme portion like "ftp://", "file://", etc.
+    private static final Pattern URL_SCHEME_PATTERN = Pattern.compile("[a-zA-Z][a-zA-Z0-9+\\-.]*://");
+
+    // Matches a markdown link: [text](url)
+    static final Pattern MARKDOWN_LINK_PATTERN = Pattern.compile("\\[([^\\]]*)]\\(([^)]+)\\)");
+
+    // Matches a ticket id like "JIRA-42": an upper-case project key, so "utf-8" or "Version-2" are none
+    private static final Pattern TICKET_ID_PATTERN = Pattern.compile("\\b[A-Z][A-Z0-9_]+-\\d+\\b");
+
+    // Matches an http(s) URL in plain text, without trailing punctuation
+    private static final Pattern URL_PATTERN =
+            Pattern.compile("https?://[^\\s\"()\\[\\]]*[^\\s\"()\\[\\],.;:!?]", Pattern.CASE_INSENSITIVE);
+
+    private BjoernSpecRules() {
+    }
+
+    /**
+     * Returns {@code true} if a {@code Reference:} value only uses {@code http://} or
+     * {@code https://} URLs and, if it looks like a markdown link, is a well-formed one.
+     */
+    public static boolean isValidReferenceValue(String value) {
+        if (value == null || value.isBlank()) {
+            return true;
+        }
+
+        String trimmed = stripOuterQuotes(value.trim());
+
+        // Only validate as markdown link if the text contains the "](" sequence, which
+        // distinguishes a markdown link attempt from plain text containing brackets.
+        if (trimmed.contains("](")) {
+            Matcher mdMatcher = MARKDOWN_LINK_PATTERN.matcher(trimmed);
+            if (!mdMatcher.matches()) {
+                // Looks like a markdown link attempt but has invalid format
+                return false;
+            }
+            // Validate the URL in the markdown link
+            String url = mdMatcher.group(2).trim();
+            return isAllowedUrl(url);
+        }
+
+        // Check any embedded URL scheme in plain-text values
+        Matcher schemeMatcher = URL_SCHEME_PATTERN.matcher(trimmed);
+        while (schemeMatcher.find()) {
+            String scheme = schemeMatcher.group().toLowerCase();
+            if (!scheme.startsWith("http://") && !scheme.startsWith("https://")) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the lookup keys of a {@code Reference:} value: the URL of each markdown link
+     * {@code [text](url)} and each plain http(s) URL, and every ticket id (like {@code JIRA-42})
+     * in the link texts, URLs or plain text, normalized by {@link #normalizeReferenceKey}.
+     */
+    public static List<String> referenceKeys(String value) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        String trimmed = stripOuterQuotes(value.trim());
+
+        Matcher mdMatcher = MARKDOWN_LINK_PATTERN.matcher(trimmed);
+        while (mdMatcher.find()) {
+            keys.add(normalizeReferenceKey(mdMatcher.group(2)));
+        }
+        Matcher urlMatcher = URL_PATTERN.matcher(trimmed);
+        while (urlMatcher.find()) {
+            keys.add(normalizeReferenceKey(urlMatcher.group()));
+        }
+        Matcher ticketMatcher = TICKET_ID_PATTERN.matcher(trimmed);
+        while (ticketMatcher.find()) {
+            keys.add(normalizeReferenceKey(ticketMatcher.group()));
+        }
+        return List.copyOf(keys);
+    }
+
+    /**
+     * Ticket ids are looked up case-insensitively and in upper case; URLs as written. Only
+     * upper-case ids are found in spec text, but a typed {@code jira-7} finds {@code JIRA-7}.
+     */
+    public static String normalizeReferenceKey(String key) {
+        String trimmed = key.trim();
+        String upperCase = trimmed.toUpperCase(Locale.ROOT);
+        return TICKET_ID_PATTERN.matcher(upperCase).matches() ? upperCase : trimmed;
+    }
+
+    public static String invalidReferenceMessage(String rawValue) {
+        String trimmed = stripOuterQuotes(rawValue.trim());
+        if (trimmed.contains("](") && !MARKDOWN_LINK_PATTERN.matcher(trimmed).matches()) {
+            return "Reference: invalid markdown link format. Expected [text](url).";
+        }
+        return "Reference: only 'http://' and 'https://' URL schemes are allowed.";
+    }
+
+    public static String missingTopLevelMessage(String required) {
+        return "Bjoern spec is missing required top-level field: '" + required + ":'";
+    }
+
+    public static String duplicateScenarioMessage(String scenarioName) {
+        return "Duplicate scenario name: '" + scenarioName + "'";
+    }
+
+    /**
+     * @param contextLabel {@code Background} or the label from {@link #scenarioLabel}
+     */
+    public static String emptyStepBlockMessage(String stepKey, String contextLabel) {
+        return "Empty '" + stepKey + ":' block in " + contextLabel + " – add at least one step";
+    }
+
+    public static String scenarioLabel(String scenarioName) {
+        return scenarioName != null ? "Scenario '" + scenarioName + "'" : "Scenario";
+    }
+
+    static String stripOuterQuotes(String s) {
+        if (s.startsWith("\"") && s.endsWith("\"") && s.length() >= 2) {
+            return s.substring(1, s.length() - 1);
+        }
+        return s;
+    }
+
+    private static boolean isAllowedUrl(String url) {
+        String lower = url.toLowerCase();
+        return lower.startsWith("http://") || lower.startsWith("https://");
+    }
+}
@@ -0,0 +1,101 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * File-based index mapping each BDD step context ({@code Given}, {@code When}, {@code Then})
+ * to the normalized step templates of a {@code .zgr} file and how often each occurs in it.
+ * <p>
+ * Templates are produced by {@link BjoernCompletionContributor#countStatements}, so quoted
+ * variables are already replaced with {@code ""} placeholders. Completion looks up the entries
+ * of a single context instead of loading and re-scanning every spec file in the project, and
+ * sums the per-file counts to rank the templates. The index only re-counts files that changed.
+ */
+public class BjoernStepIndex extends FileBasedIndexExtension<String, Map<String, Integer>> {
+
+    public static final ID<String, Map<String, Integer>> NAME = ID.create("de.mehtrick.bjoern.steps");
+
+    static final List<String> STEP_CONTEXTS = List.of("Given", "When", "Then");
+
+    @NotNull
+    @Override
+    public ID<String, Map<String, Integer>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, Map<String, Integer>, FileContent> getIndexer() {
+        return inputData -> {
+            String text = inputData.getContentAsText().toString();
+            Map<String, Map<String, Integer>> result = new HashMap<>();
+            for (String context : STEP_CONTEXTS) {
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                BjoernCompletionContributor.countStatements(text, context, counts);
+                if (!counts.isEmpty()) {
+                    result.put(context, counts);
+                }
+            }
+            return result;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<Map<String, Integer>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, Map<String, Integer> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (Map.Entry<String, Integer> entry : value.entrySet()) {
+                    IOUtil.writeUTF(out, entry.getKey());
+                    DataInputOutputUtil.writeINT(out, entry.getValue());
+                }
+            }
+
+            @Override
+            public Map<String, Integer> read(@NotNull DataInput in) throws IOException {
+                int size = DataInputOutputUtil.readINT(in);
+                Map<String, Integer> counts = new LinkedHashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    String template = IOUtil.readUTF(in);
+                    counts.put(template, DataInputOutputUtil.readINT(in));
+                }
+                return counts;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return 3;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(BjoernFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
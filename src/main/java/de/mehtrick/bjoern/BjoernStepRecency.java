@@ -0,0 +1,51 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers which step completions the user accepted last, per project and session.
+ * <p>
+ * Only the {@link #CAPACITY} most recently accepted steps are kept; their score decreases by one
+ * with every step accepted after them.
+ */
+@Service(Service.Level.PROJECT)
+public final class BjoernStepRecency {
+
+    static final int CAPACITY = 64;
+
+    private final Map<String, Long> lastAccepted = new HashMap<>();
+    private long acceptCount;
+
+    public static BjoernStepRecency getInstance(@NotNull Project project) {
+        return project.getService(BjoernStepRecency.class);
+    }
+
+    public synchronized void recordAccepted(@NotNull String context, @NotNull String template) {
+        lastAccepted.put(key(context, template), ++acceptCount);
+        if (lastAccepted.size() > CAPACITY) {
+            lastAccepted.values().removeIf(accepted -> acceptCount - accepted >= CAPACITY);
+        }
+    }
+
+    /**
+     * Returns {@link #CAPACITY} for the step accepted last, one less for each step accepted
+     * since, and 0 for steps not among the last {@link #CAPACITY} acceptances.
+     */
+    public synchronized int getRecencyScore(@NotNull String context, @NotNull String template) {
+        Long accepted = lastAccepted.get(key(context, template));
+        if (accepted == null) {
+            return 0;
+        }
+        return (int) Math.max(0, CAPACITY - (acceptCount - accepted));
+    }
+
+    private static String key(String context, String template) {
+        // Templates are single lines
+        return context + '\n' + template;
+    }
+}
@@ -0,0 +1,244 @@
+package de.mehtrick.bjoern;
+
+import java.util.*;
+
+/**
+ * Finds near-duplicate step templates with MinHash and locality-sensitive hashing.
+ * <p>
+ * A template is compared by the set of character trigrams of its lower-cased text. Its MinHash
+ * signature of {@value #HASHES} values is cut into {@value #BANDS} bands of {@value #ROWS}; only
+ * templates sharing a band become candidates. A pair with a trigram Jaccard similarity of 0.5
+ * shares a band with a probability of about 94%, a pair of 0.6 with over 99%. Each template is compared with at most
+ * {@value #MAX_BUCKET_COMPARISONS} other members of a band bucket, so clustering stays linear
+ * in the number of templates however skewed the buckets are. Candidates are first checked
+ * against the MinHash estimate of their similarity and only then compared exactly.
+ */
+final class BjoernStepSimilarity {
+
+    static final double DEFAULT_THRESHOLD = 0.5;
+
+    static final int BANDS = 21;
+    static final int ROWS = 3;
+    static final int HASHES = BANDS * ROWS;
+
+    private static final int MAX_BUCKET_COMPARISONS = 16;
+
+    private static final int TEMPLATE_BITS = 24;
+    private static final long TEMPLATE_MASK = (1L << TEMPLATE_BITS) - 1;
+
+    // Pairs whose MinHash estimate is this far below the threshold are not compared exactly
+    private static final double ESTIMATE_SLACK = 0.2;
+
+    // Hash i of a shingle x is MULTIPLIERS[i] * mix(x) + ADDENDS[i]
+    private static final long[] MULTIPLIERS = new long[HASHES];
+    private static final long[] ADDENDS = new long[HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_B30E_7L);
+        for (int i = 0; i < HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            ADDENDS[i] = random.nextLong();
+        }
+    }
+
+    private BjoernStepSimilarity() {
+    }
+
+    /**
+     * Sorted distinct hashes of the character trigrams of the lower-cased template with runs of
+     * whitespace collapsed.
+     */
+    static int[] shingles(String template) {
+        // Normalized text padded with a space on both sides, so every word has boundary trigrams
+        char[] text = new char[template.length() + 2];
+        int length = 0;
+        text[length++] = ' ';
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (text[length - 1] != ' ') {
+                    text[length++] = ' ';
+                }
+            } else {
+                text[length++] = Character.toLowerCase(c);
+            }
+        }
+        if (text[length - 1] != ' ') {
+            text[length++] = ' ';
+        }
+
+        int[] shingles = new int[Math.max(1, length - 2)];
+        for (int i = 0; i + 3 <= length; i++) {
+            shingles[i] = (text[i] * 31 + text[i + 1]) * 31 + text[i + 2];
+        }
+        Arrays.sort(shingles);
+        int distinct = 1;
+        for (int i = 1; i < shingles.length; i++) {
+            if (shingles[i] != shingles[distinct - 1]) {
+                shingles[distinct++] = shingles[i];
+            }
+        }
+        return distinct == shingles.length ? shingles : Arrays.copyOf(shingles, distinct);
+    }
+
+    static long[] signature(int[] shingles) {
+        long[] signature = new long[HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (int shingle : shingles) {
+            long x = mix(shingle);
+            for (int i = 0; i < HASHES; i++) {
+                long hash = MULTIPLIERS[i] * x + ADDENDS[i];
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Exact Jaccard similarity of two sorted distinct shingle arrays.
+     */
+    static double jaccard(int[] a, int[] b) {
+        int i = 0, j = 0, common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    static double similarity(String a, String b) {
+        return jaccard(shingles(a), shingles(b));
+    }
+
+    /**
+     * Groups the templates into clusters of near duplicates, linking templates with a similarity
+     * of at least {@code threshold}. Returns the clusters with two or more templates, each with its
+     * canonical template first (the most used, then the shortest, then alphabetically), ordered by
+     * their total usage, highest first.
+     *
+     * @param usages the templates and how often each is used
+     */
+    static List<List<String>> cluster(Map<String, Integer> usages, double threshold) {
+        List<String> templates = new ArrayList<>(usages.keySet());
+        int n = templates.size();
+        if (n > TEMPLATE_MASK + 1) {
+            throw new IllegalArgumentException("Too many templates: " + n);
+        }
+        int[][] shingles = new int[n][];
+        int[][] sketches = new int[n][];
+        // Bucket entries: a hash of band and band values in the high bits, the template below
+        long[] entries = new long[n * BANDS];
+        for (int t = 0; t < n; t++) {
+            shingles[t] = shingles(templates.get(t));
+            long[] signature = signature(shingles[t]);
+            sketches[t] = sketch(signature);
+            for (int band = 0; band < BANDS; band++) {
+                long key = band;
+                for (int row = 0; row < ROWS; row++) {
+                    key = key * 0x9E3779B97F4A7C15L + signature[band * ROWS + row];
+                }
+                entries[t * BANDS + band] = (mix(key) << TEMPLATE_BITS) | t;
+            }
+        }
+        // Sorting groups the entries of a bucket; a rare hash collision only adds comparisons
+        Arrays.sort(entries);
+
+        int[] parent = new int[n];
+        for (int t = 0; t < n; t++) {
+            parent[t] = t;
+        }
+        int bucketStart = 0;
+        for (int j = 1; j < entries.length; j++) {
+            if (entries[j] >>> TEMPLATE_BITS != entries[bucketStart] >>> TEMPLATE_BITS) {
+                bucketStart = j;
+                continue;
+            }
+            int b = (int) (entries[j] & TEMPLATE_MASK);
+            for (int i = Math.max(bucketStart, j - MAX_BUCKET_COMPARISONS); i < j; i++) {
+                int a = (int) (entries[i] & TEMPLATE_MASK);
+                int rootA = find(parent, a);
+                int rootB = find(parent, b);
+                if (rootA != rootB && mayReach(shingles[a].length, shingles[b].length, threshold)
+                        && estimate(sketches[a], sketches[b]) >= threshold - ESTIMATE_SLACK
+                        && jaccard(shingles[a], shingles[b]) >= threshold) {
+                    parent[rootB] = rootA;
+                }
+            }
+        }
+
+        Map<Integer, List<String>> groups = new HashMap<>();
+        for (int t = 0; t < n; t++) {
+            groups.computeIfAbsent(find(parent, t), root -> new ArrayList<>()).add(templates.get(t));
+        }
+        Comparator<String> canonicalFirst = Comparator.<String>comparingInt(usages::get).reversed()
+                .thenComparingInt(String::length)
+                .thenComparing(Comparator.naturalOrder());
+        List<List<String>> clusters = new ArrayList<>();
+        for (List<String> group : groups.values()) {
+            if (group.size() > 1) {
+                group.sort(canonicalFirst);
+                clusters.add(group);
+            }
+        }
+        clusters.sort(Comparator.<List<String>>comparingLong(cluster -> totalUsages(cluster, usages)).reversed()
+                .thenComparing(cluster -> cluster.get(0)));
+        return clusters;
+    }
+
+    private static long totalUsages(List<String> cluster, Map<String, Integer> usages) {
+        long total = 0;
+        for (String template : cluster) {
+            total += usages.get(template);
+        }
+        return total;
+    }
+
+    // Low 32 bits of each MinHash value; equal minima stay equal
+    private static int[] sketch(long[] signature) {
+        int[] sketch = new int[signature.length];
+        for (int i = 0; i < signature.length; i++) {
+            sketch[i] = (int) signature[i];
+        }
+        return sketch;
+    }
+
+    // Share of equal MinHash values, an unbiased estimate of the Jaccard similarity
+    private static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    // The Jaccard similarity of sets of these sizes is at most the smaller over the larger
+    private static boolean mayReach(int sizeA, int sizeB, double threshold) {
+        return Math.min(sizeA, sizeB) >= threshold * Math.max(sizeA, sizeB);
+    }
+
+    private static int find(int[] parent, int t) {
+        while (parent[t] != t) {
+            parent[t] = parent[parent[t]];
+            t = parent[t];
+        }
+        return t;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
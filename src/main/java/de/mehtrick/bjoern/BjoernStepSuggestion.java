@@ -0,0 +1,62 @@
+package de.mehtrick.bjoern;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Lookup object of a step completion: a normalized step template of one context, the number
+ * of times it occurs in the project's specs and how often it follows the step above the caret.
+ * <p>
+ * The usage count grows while completion streams the step index, so items already shown are
+ * ranked with the counts seen so far and settle once the scan is complete.
+ */
+final class BjoernStepSuggestion {
+    private final String context;
+    private final String template;
+    private final int transitions;
+    // Written by the completion thread only
+    private volatile int usages;
+
+    BjoernStepSuggestion(@NotNull String context, @NotNull String template, int transitions) {
+        this.context = context;
+        this.template = template;
+        this.transitions = transitions;
+    }
+
+    @NotNull String getContext() {
+        return context;
+    }
+
+    @NotNull String getTemplate() {
+        return template;
+    }
+
+    /**
+     * How often this step follows the previous step of the block in the project, see
+     * {@link BjoernStepTransitionIndex}.
+     */
+    int getTransitions() {
+        return transitions;
+    }
+
+    int getUsages() {
+        return usages;
+    }
+
+    void addUsages(int count) {
+        usages += count;
+    }
+
+    /**
+     * Returns a suggestion with the same template and counts, for a new completion run.
+     */
+    @NotNull BjoernStepSuggestion copy() {
+        BjoernStepSuggestion copy = new BjoernStepSuggestion(context, template, transitions);
+        copy.usages = usages;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return context + ": " + template + " (" + transitions + "/" + usages + ")";
+    }
+}
@@ -0,0 +1,142 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * File-based index of step transitions: which step template follows which within the
+ * Given/When/Then blocks of a {@code .zgr} file, and how often.
+ * <p>
+ * The key is {@link #transitionKey} of the context and the previous template, with the empty
+ * template standing for the start of a block. The value maps each following template to its
+ * count in the file. Keys are enumerated by the index and values keep the templates themselves,
+ * so different steps never share an entry. The per-file tables are merged into one
+ * {@link Object2IntOpenHashMap} at completion time. The index re-counts only the files that
+ * changed.
+ */
+public class BjoernStepTransitionIndex extends FileBasedIndexExtension<String, Object2IntMap<String>> {
+
+    public static final ID<String, Object2IntMap<String>> NAME = ID.create("de.mehtrick.bjoern.stepTransitions");
+
+    /**
+     * Previous template of the first step of a block.
+     */
+    static final String BLOCK_START = "";
+
+    @NotNull
+    @Override
+    public ID<String, Object2IntMap<String>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, Object2IntMap<String>, FileContent> getIndexer() {
+        return inputData -> countTransitions(inputData.getContentAsText().toString());
+    }
+
+    static Map<String, Object2IntMap<String>> countTransitions(String text) {
+        Map<String, Object2IntMap<String>> result = new HashMap<>();
+        for (String context : BjoernStepIndex.STEP_CONTEXTS) {
+            BjoernCompletionContributor.forEachStepBlock(text, context, block -> {
+                String previous = BLOCK_START;
+                for (String template : block) {
+                    result.computeIfAbsent(transitionKey(context, previous), key -> new Object2IntOpenHashMap<>())
+                            .mergeInt(template, 1, Integer::sum);
+                    previous = template;
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Returns how often each template follows {@code previousTemplate} in the given context
+     * across the project, or an empty table while indexing.
+     */
+    static @NotNull Object2IntMap<String> getSuccessorCounts(@NotNull Project project, @NotNull String context,
+                                                             @NotNull String previousTemplate) {
+        Object2IntOpenHashMap<String> counts = new Object2IntOpenHashMap<>();
+        if (DumbService.isDumb(project)) {
+            return counts;
+        }
+        List<Object2IntMap<String>> perFile = FileBasedIndex.getInstance().getValues(
+                NAME, transitionKey(context, previousTemplate), GlobalSearchScope.projectScope(project));
+        for (Object2IntMap<String> fileCounts : perFile) {
+            for (Object2IntMap.Entry<String> entry : fileCounts.object2IntEntrySet()) {
+                counts.addTo(entry.getKey(), entry.getIntValue());
+            }
+        }
+        return counts;
+    }
+
+    static String transitionKey(String context, String previousTemplate) {
+        // Templates are single lines
+        return context + '\n' + previousTemplate;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<Object2IntMap<String>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, Object2IntMap<String> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (Object2IntMap.Entry<String> entry : value.object2IntEntrySet()) {
+                    IOUtil.writeUTF(out, entry.getKey());
+                    DataInputOutputUtil.writeINT(out, entry.getIntValue());
+                }
+            }
+
+            @Override
+            public Object2IntMap<String> read(@NotNull DataInput in) throws IOException {
+                int size = DataInputOutputUtil.readINT(in);
+                Object2IntOpenHashMap<String> counts = new Object2IntOpenHashMap<>(size);
+                for (int i = 0; i < size; i++) {
+                    String template = IOUtil.readUTF(in);
+                    counts.put(template, DataInputOutputUtil.readINT(in));
+                }
+                return counts;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return 3;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(BjoernFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
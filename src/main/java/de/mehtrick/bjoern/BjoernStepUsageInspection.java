@@ -0,0 +1,214 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.codeInspection.*;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.yaml.psi.YAMLSequenceItem;
+import org.jetbrains.yaml.psi.YAMLValue;
+
+import java.util.*;
+
+/**
+ * Batch inspection that lists step templates used only once in the whole project and steps that
+ * are repeated verbatim in every scenario of a spec, which belong in its Background.
+ * <p>
+ * Template counts are summed from {@link BjoernStepIndex} in one pass per step context, and the
+ * scenarios of each spec are read from its {@link BjoernFileStub}, so no spec is parsed unless
+ * it has a finding. Single-use steps are then located in the file text with the patterns the
+ * step index is built from.
+ */
+public class BjoernStepUsageInspection extends GlobalInspectionTool {
+
+    @Override
+    public boolean isGraphNeeded() {
+        return false;
+    }
+
+    @Override
+    public void runInspection(@NotNull AnalysisScope scope,
+                              @NotNull InspectionManager manager,
+                              @NotNull GlobalInspectionContext globalContext,
+                              @NotNull ProblemDescriptionsProcessor problemDescriptionsProcessor) {
+        Project project = globalContext.getProject();
+        GlobalSearchScope projectScope = GlobalSearchScope.projectScope(project);
+        PsiManager psiManager = PsiManager.getInstance(project);
+
+        for (Map.Entry<VirtualFile, Set<String>> entry : findSingleUseSteps(project, projectScope).entrySet()) {
+            if (!scope.contains(entry.getKey())) continue;
+            PsiFile file = psiManager.findFile(entry.getKey());
+            if (file == null) continue;
+
+            for (StepOccurrence occurrence : locateSteps(file.getViewProvider().getContents())) {
+                String template = BjoernCompletionContributor.toTemplate(occurrence.getStatement());
+                if (!entry.getValue().contains(stepKey(occurrence.getContext(), template))) continue;
+
+                ProblemDescriptor descriptor = manager.createProblemDescriptor(
+                        file,
+                        occurrence.getRange(),
+                        "Step '" + template + "' is used only once in the project",
+                        ProblemHighlightType.GENERIC_ERROR_OR_WARNING,
+                        false);
+                problemDescriptionsProcessor.addProblemElement(globalContext.getRefManager().getReference(file), descriptor);
+            }
+        }
+
+        for (VirtualFile virtualFile : FileTypeIndex.getFiles(BjoernFileType.INSTANCE, projectScope)) {
+            ProgressManager.checkCanceled();
+            if (!scope.contains(virtualFile)) continue;
+            if (!(psiManager.findFile(virtualFile) instanceof BjoernFile file)) continue;
+
+            BjoernFileStub stub = file.getSpecStub();
+            List<BjoernFileStub.Step> repeated = repeatedInEveryScenario(stub);
+            if (repeated.isEmpty()) continue;
+
+            Set<String> backgroundSteps = new HashSet<>();
+            for (BjoernFileStub.Step step : stub.getBackgroundSteps()) {
+                backgroundSteps.add(stepKey(step.getContext(), step.getStatement()));
+            }
+            for (BjoernFileStub.Step step : repeated) {
+                YAMLValue value = findFirstScenarioStep(file, step);
+                if (value == null) continue;
+
+                String key = stepKey(step.getContext(), step.getStatement());
+                String message = "'" + step.getContext() + ": " + step.getStatement() + "' is repeated in all "
+                        + stub.getScenarios().size() + " scenarios; "
+                        + (backgroundSteps.contains(key)
+                        ? "it is already a Background step"
+                        : "move it to the Background");
+                ProblemDescriptor descriptor = manager.createProblemDescriptor(
+                        value, message, false, LocalQuickFix.EMPTY_ARRAY, ProblemHighlightType.GENERIC_ERROR_OR_WARNING);
+                problemDescriptionsProcessor.addProblemElement(globalContext.getRefManager().getReference(file), descriptor);
+            }
+        }
+    }
+
+    /**
+     * Returns the step keys of the templates used only once in the project, by the file using
+     * them. Reads each file's counts from the step index once per step context.
+     */
+    private static Map<VirtualFile, Set<String>> findSingleUseSteps(Project project, GlobalSearchScope scope) {
+        Map<VirtualFile, Set<String>> singleUseSteps = new HashMap<>();
+        FileBasedIndex index = FileBasedIndex.getInstance();
+
+        for (String context : BjoernStepIndex.STEP_CONTEXTS) {
+            Map<String, Integer> totals = new HashMap<>();
+            Map<String, VirtualFile> firstFiles = new HashMap<>();
+            index.processValues(BjoernStepIndex.NAME, context, null, (file, counts) -> {
+                ProgressManager.checkCanceled();
+                for (Map.Entry<String, Integer> count : counts.entrySet()) {
+                    totals.merge(count.getKey(), count.getValue(), Integer::sum);
+                    firstFiles.putIfAbsent(count.getKey(), file);
+                }
+                return true;
+            }, scope);
+
+            for (Map.Entry<String, Integer> total : totals.entrySet()) {
+                if (total.getValue() == 1) {
+                    singleUseSteps.computeIfAbsent(firstFiles.get(total.getKey()), file -> new HashSet<>())
+                            .add(stepKey(context, total.getKey()));
+                }
+            }
+        }
+        return singleUseSteps;
+    }
+
+    /**
+     * Returns the steps of a spec with two or more scenarios that every scenario contains
+     * verbatim, with the same context and parameter values, in the order of the first scenario.
+     */
+    static List<BjoernFileStub.Step> repeatedInEveryScenario(BjoernFileStub stub) {
+        List<BjoernFileStub.Scenario> scenarios = stub.getScenarios();
+        if (scenarios.size() < 2) {
+            return List.of();
+        }
+
+        Map<String, BjoernFileStub.Step> candidates = new LinkedHashMap<>();
+        for (BjoernFileStub.Step step : scenarios.get(0).getSteps()) {
+            candidates.putIfAbsent(stepKey(step.getContext(), step.getStatement()), step);
+        }
+        for (int i = 1; i < scenarios.size() && !candidates.isEmpty(); i++) {
+            Set<String> steps = new HashSet<>();
+            for (BjoernFileStub.Step step : scenarios.get(i).getSteps()) {
+                steps.add(stepKey(step.getContext(), step.getStatement()));
+            }
+            candidates.keySet().retainAll(steps);
+        }
+        return new ArrayList<>(candidates.values());
+    }
+
+    private static YAMLValue findFirstScenarioStep(BjoernFile file, BjoernFileStub.Step step) {
+        for (BjoernSpecModel.Document document : BjoernSpecModel.forFile(file).getDocuments()) {
+            for (BjoernSpecModel.Scenario scenario : document.getScenarios()) {
+                for (BjoernSpecModel.StepBlock block : scenario.getSteps()) {
+                    if (!block.getContext().equals(step.getContext())) continue;
+                    for (YAMLSequenceItem item : block.getItems()) {
+                        YAMLValue value = item.getValue();
+                        if (value != null && value.getText().trim().equals(step.getStatement())) {
+                            return value;
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A step as written in a spec, with its range in the file text.
+     */
+    static final class StepOccurrence {
+        private final String context;
+        private final String statement;
+        private final TextRange range;
+
+        StepOccurrence(String context, String statement, TextRange range) {
+            this.context = context;
+            this.statement = statement;
+            this.range = range;
+        }
+
+        String getContext() {
+            return context;
+        }
+
+        String getStatement() {
+            return statement;
+        }
+
+        TextRange getRange() {
+            return range;
+        }
+    }
+
+    /**
+     * Finds the steps of every step context in the text with
+     * {@link BjoernCompletionContributor#forEachRawStepBlock}, so they agree with the step index.
+     */
+    static List<StepOccurrence> locateSteps(CharSequence text) {
+        List<StepOccurrence> occurrences = new ArrayList<>();
+        for (String context : BjoernStepIndex.STEP_CONTEXTS) {
+            BjoernCompletionContributor.forEachRawStepBlock(text, context, (statements, startOffsets) -> {
+                for (int i = 0; i < statements.size(); i++) {
+                    String statement = statements.get(i);
+                    occurrences.add(new StepOccurrence(context, statement,
+                            TextRange.from(startOffsets.getInt(i), statement.length())));
+                }
+            });
+        }
+        occurrences.sort(Comparator.comparingInt(occurrence -> occurrence.getRange().getStartOffset()));
+        return occurrences;
+    }
+
+    private static String stepKey(String context, String step) {
+        return context + '\n' + step;
+    }
+}
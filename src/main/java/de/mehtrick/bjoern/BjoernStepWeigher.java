@@ -0,0 +1,35 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.codeInsight.completion.CompletionLocation;
+import com.intellij.codeInsight.completion.CompletionWeigher;
+import com.intellij.codeInsight.lookup.LookupElement;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Ranks step completions of Bjoern specs: steps that most often follow the step above the caret
+ * come first, then steps the user accepted recently, then the others by how often they occur in
+ * the project. Other lookup elements weigh 0.
+ */
+public class BjoernStepWeigher extends CompletionWeigher {
+
+    // Transition counts are capped to the 23 bits above the recency score
+    private static final int MAX_TRANSITIONS = (1 << 23) - 1;
+
+    @Override
+    public Comparable<Long> weigh(@NotNull LookupElement element, @NotNull CompletionLocation location) {
+        if (!(element.getObject() instanceof BjoernStepSuggestion suggestion)) {
+            return 0L;
+        }
+        int recency = BjoernStepRecency.getInstance(location.getProject())
+                .getRecencyScore(suggestion.getContext(), suggestion.getTemplate());
+        return weight(suggestion.getTransitions(), recency, suggestion.getUsages());
+    }
+
+    /**
+     * Larger weights rank higher. The transition count outweighs the recency score, which
+     * outweighs any usage count.
+     */
+    static long weight(int transitions, int recency, int usages) {
+        return ((long) Math.min(transitions, MAX_TRANSITIONS) << 40) | ((long) recency << 32) | usages;
+    }
+}
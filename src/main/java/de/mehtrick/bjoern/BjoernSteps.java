@@ -0,0 +1,319 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.yaml.psi.YAMLSequenceItem;
+import org.jetbrains.yaml.psi.YAMLValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The Given/When/Then steps of a Bjoern spec with their quoted parameters.
+ * <p>
+ * A parameter is a {@link BjoernTokenTypes#DOUBLE_QUOTED_STRING} token of
+ * {@link BjoernDoubleQuotedStringLexer}, the layer the highlighter colors parameters with. In the
+ * compact tree the parser lexer produces these tokens, and the steps and parameters are the
+ * {@link BjoernElementTypes#STEP STEP} and {@link BjoernElementTypes#PARAMETER PARAMETER}
+ * elements. The YAML parser has no place for them inside its plain scalars, so in the YAML tree
+ * the layer is run over the scalar of each step item instead. Either way the steps of a file are
+ * cached until its PSI changes, so completion and inspections look them up instead of scanning
+ * the text.
+ */
+public final class BjoernSteps {
+
+    private static final TokenSet STEP_BLOCKS = TokenSet.create(BjoernElementTypes.STEP_BLOCK);
+    private static final TokenSet STEPS = TokenSet.create(BjoernElementTypes.STEP);
+    private static final TokenSet PARAMETERS = TokenSet.create(BjoernElementTypes.PARAMETER);
+
+    /**
+     * A step item: its statement as written and the ranges of its parameters in the file.
+     */
+    public static final class Step {
+        private final PsiElement element;
+        private final String context;
+        private final String statement;
+        private final int start;
+        // Start and end offsets of the parameters in the file, quotes included
+        private final int[] parameters;
+        private final String template;
+
+        Step(PsiElement element, String context, String statement, int start, int[] parameters) {
+            this.element = element;
+            this.context = context;
+            this.statement = statement;
+            this.start = start;
+            this.parameters = parameters;
+            this.template = toTemplate(statement, start, parameters);
+        }
+
+        /**
+         * The YAML scalar of the step item, or the {@link BjoernElementTypes#STEP} element in
+         * the compact tree.
+         */
+        public @NotNull PsiElement getElement() {
+            return element;
+        }
+
+        /**
+         * The step keyword of the block without colon: {@code Given}, {@code When} or {@code Then}.
+         */
+        public @NotNull String getContext() {
+            return context;
+        }
+
+        public @NotNull String getStatement() {
+            return statement;
+        }
+
+        /**
+         * The statement with every parameter replaced by an empty {@code ""} placeholder.
+         */
+        public @NotNull String getTemplate() {
+            return template;
+        }
+
+        public int getStartOffset() {
+            return start;
+        }
+
+        public int getEndOffset() {
+            return start + statement.length();
+        }
+
+        public int getParameterCount() {
+            return parameters.length / 2;
+        }
+
+        /**
+         * Offset of the opening quote of parameter {@code index} in the file.
+         */
+        public int getParameterStart(int index) {
+            return parameters[2 * index];
+        }
+
+        /**
+         * Offset after the closing quote of parameter {@code index} in the file.
+         */
+        public int getParameterEnd(int index) {
+            return parameters[2 * index + 1];
+        }
+
+        /**
+         * The value of parameter {@code index} without its quotes.
+         */
+        public @NotNull String getParameterValue(int index) {
+            return statement.substring(getParameterStart(index) - start + 1, getParameterEnd(index) - start - 1);
+        }
+
+        /**
+         * Returns the index of the parameter the offset is inside of (after the opening and
+         * before the closing quote), or -1.
+         */
+        public int indexOfParameterAt(int offset) {
+            for (int i = 0; i < getParameterCount(); i++) {
+                if (offset > getParameterStart(i) && offset < getParameterEnd(i)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final BjoernSteps EMPTY = new BjoernSteps(Collections.emptyList());
+
+    private final List<Step> steps;
+
+    private BjoernSteps(List<Step> steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * The steps of the file in text order.
+     */
+    public @NotNull List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Returns the step whose statement contains the offset (its end included), or null.
+     */
+    public @Nullable Step findStepAt(int offset) {
+        int low = 0;
+        int high = steps.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Step step = steps.get(mid);
+            if (offset < step.getStartOffset()) {
+                high = mid - 1;
+            } else if (offset > step.getEndOffset()) {
+                low = mid + 1;
+            } else {
+                return step;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the cached steps of the given file, rebuilding them after PSI modifications.
+     */
+    public static @NotNull BjoernSteps forFile(@NotNull PsiFile file) {
+        if (!(file instanceof BjoernFile)) {
+            return EMPTY;
+        }
+        return CachedValuesManager.getCachedValue(file, () ->
+                CachedValueProvider.Result.create(build(file), file));
+    }
+
+    /**
+     * Returns the steps of the part of the file the range intersects, or the cached steps of the
+     * whole file if the range is null. Only the scenarios and the Background around the range
+     * are visited, see {@link BjoernSpecModel#forFile(PsiFile, TextRange)}.
+     */
+    public static @NotNull BjoernSteps forFile(@NotNull PsiFile file, @Nullable TextRange range) {
+        if (range == null || !(file instanceof BjoernFile)) {
+            return forFile(file);
+        }
+        return build(file, range);
+    }
+
+    private static BjoernSteps build(PsiFile file) {
+        return build(file, null);
+    }
+
+    private static BjoernSteps build(PsiFile file, @Nullable TextRange range) {
+        List<Step> steps = new ArrayList<>();
+        if (file.getNode().findChildByType(BjoernElementTypes.ALL) != null) {
+            collectCompactSteps(file.getNode(), range, steps);
+        } else {
+            for (BjoernSpecModel.Document document : BjoernSpecModel.forFile(file, range).getDocuments()) {
+                collectSteps(document.getBackgroundSteps(), steps);
+                for (BjoernSpecModel.Scenario scenario : document.getScenarios()) {
+                    collectSteps(scenario.getSteps(), steps);
+                }
+            }
+        }
+        if (range != null) {
+            steps.removeIf(step -> !range.intersects(step.getStartOffset(), step.getEndOffset()));
+        }
+        steps.sort(Comparator.comparingInt(Step::getStartOffset));
+        return new BjoernSteps(steps);
+    }
+
+    private static void collectSteps(List<BjoernSpecModel.StepBlock> blocks, List<Step> steps) {
+        for (BjoernSpecModel.StepBlock block : blocks) {
+            for (YAMLSequenceItem item : block.getItems()) {
+                YAMLValue value = item.getValue();
+                if (value == null) continue;
+
+                String text = value.getText();
+                String statement = text.trim();
+                if (statement.isEmpty()) continue;
+
+                int start = value.getTextRange().getStartOffset() + text.indexOf(statement.charAt(0));
+                int[] parameters = parameterRanges(statement);
+                for (int i = 0; i < parameters.length; i++) {
+                    parameters[i] += start;
+                }
+                steps.add(new Step(value, block.getContext(), statement, start, parameters));
+            }
+        }
+    }
+
+    private static void collectCompactSteps(ASTNode file, @Nullable TextRange range, List<Step> steps) {
+        // The top-level element at the start of the range, or the first one
+        ASTNode first = file.getFirstChildNode();
+        if (range != null && range.getStartOffset() > 0) {
+            first = file.findLeafElementAt(range.getStartOffset());
+            while (first != null && first.getTreeParent() != file) {
+                first = first.getTreeParent();
+            }
+        }
+        for (ASTNode node = first; node != null; node = node.getTreeNext()) {
+            if (range != null && node.getStartOffset() >= range.getEndOffset()) break;
+            IElementType type = node.getElementType();
+            if (type != BjoernElementTypes.BACKGROUND && type != BjoernElementTypes.SCENARIO) continue;
+
+            for (ASTNode block : node.getChildren(STEP_BLOCKS)) {
+                String blockText = block.getText();
+                String context = blockText.substring(0, blockText.indexOf(':')).trim();
+                for (ASTNode step : block.getChildren(STEPS)) {
+                    String text = step.getText();
+                    String statement = text.substring(1).trim();
+                    if (statement.isEmpty()) continue;
+
+                    int start = step.getStartOffset() + text.indexOf(statement.charAt(0), 1);
+                    ASTNode[] parameterNodes = step.getChildren(PARAMETERS);
+                    int[] parameters = new int[2 * parameterNodes.length];
+                    for (int i = 0; i < parameterNodes.length; i++) {
+                        parameters[2 * i] = parameterNodes[i].getStartOffset();
+                        parameters[2 * i + 1] = parameterNodes[i].getStartOffset() + parameterNodes[i].getTextLength();
+                    }
+                    steps.add(new Step(step.getPsi(), context, statement, start, parameters));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the start and end offsets of the parameters of a statement, quotes included, as
+     * found by {@link BjoernDoubleQuotedStringLexer}.
+     */
+    static int @NotNull [] parameterRanges(@NotNull CharSequence statement) {
+        IntArrayList ranges = new IntArrayList();
+        BjoernDoubleQuotedStringLexer lexer = new BjoernDoubleQuotedStringLexer();
+        lexer.start(statement, 0, statement.length(), 0);
+        for (; lexer.getTokenType() != null; lexer.advance()) {
+            if (lexer.getTokenType() == BjoernTokenTypes.DOUBLE_QUOTED_STRING) {
+                ranges.add(lexer.getTokenStart());
+                ranges.add(lexer.getTokenEnd());
+            }
+        }
+        return ranges.toIntArray();
+    }
+
+    /**
+     * Replaces every parameter of the statement with an empty {@code ""} placeholder.
+     */
+    static @NotNull String toTemplate(@NotNull String statement) {
+        return toTemplate(statement, 0, parameterRanges(statement));
+    }
+
+    /**
+     * Returns the values of the parameters of the statement without their quotes, one per
+     * placeholder of its {@link #toTemplate template}.
+     */
+    static @NotNull List<String> parameterValues(@NotNull String statement) {
+        int[] parameters = parameterRanges(statement);
+        List<String> values = new ArrayList<>(parameters.length / 2);
+        for (int i = 0; i < parameters.length; i += 2) {
+            values.add(statement.substring(parameters[i] + 1, parameters[i + 1] - 1));
+        }
+        return values;
+    }
+
+    private static String toTemplate(String statement, int start, int[] parameters) {
+        if (parameters.length == 0) {
+            return statement;
+        }
+        StringBuilder template = new StringBuilder(statement.length());
+        int last = 0;
+        for (int i = 0; i < parameters.length; i += 2) {
+            template.append(statement, last, parameters[i] - start).append("\"\"");
+            last = parameters[i + 1] - start;
+        }
+        return template.append(statement, last, statement.length()).toString();
+    }
+}
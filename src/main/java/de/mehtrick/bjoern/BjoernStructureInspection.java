@@ -4,7 +4,7 @@ import com.intellij.codeInspection.*;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiFile;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.yaml.psi.*;
+import org.jetbrains.yaml.psi.YAMLKeyValue;
 
 import java.util.*;
 
@@ -20,9 +20,6 @@ import java.util.*;
  */
 public class BjoernStructureInspection extends LocalInspectionTool {
 
-    private static final Set<String> REQUIRED_TOP_LEVEL = Set.of("Feature", "Scenarios");
-    private static final Set<String> BDD_STEP_KEYS = Set.of("Given", "When", "Then");
-
     @Override
     public ProblemDescriptor @NotNull [] checkFile(@NotNull PsiFile file,
                                                     @NotNull InspectionManager manager,
@@ -30,21 +27,14 @@ public class BjoernStructureInspection extends LocalInspectionTool {
         if (!file.getName().endsWith(".zgr")) {
             return ProblemDescriptor.EMPTY_ARRAY;
         }
-        if (!(file instanceof YAMLFile yamlFile)) {
-            return ProblemDescriptor.EMPTY_ARRAY;
-        }
 
         List<ProblemDescriptor> problems = new ArrayList<>();
+        TextRange range = BjoernLargeFileMode.getInspectionRange(file, isOnTheFly);
 
-        for (YAMLDocument document : yamlFile.getDocuments()) {
-            YAMLValue topValue = document.getTopLevelValue();
-            if (!(topValue instanceof YAMLMapping mapping)) {
-                continue;
-            }
-
-            checkRequiredTopLevelFields(mapping, manager, isOnTheFly, problems, file);
-            checkDuplicateScenarioNames(mapping, manager, isOnTheFly, problems);
-            checkEmptyStepBlocks(mapping, manager, isOnTheFly, problems);
+        for (BjoernSpecModel.Document document : BjoernSpecModel.forFile(file, range).getDocuments()) {
+            checkRequiredTopLevelFields(document, manager, isOnTheFly, problems, file);
+            checkDuplicateScenarioNames(document, manager, isOnTheFly, problems, range);
+            checkEmptyStepBlocks(document, manager, isOnTheFly, problems, range);
         }
 
         return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
@@ -53,23 +43,20 @@ public class BjoernStructureInspection extends LocalInspectionTool {
     // -------------------------------------------------------------------------
     // Check 1: required top-level fields
     // -------------------------------------------------------------------------
-    private void checkRequiredTopLevelFields(YAMLMapping mapping,
+    private void checkRequiredTopLevelFields(BjoernSpecModel.Document document,
                                               InspectionManager manager,
                                               boolean isOnTheFly,
                                               List<ProblemDescriptor> problems,
                                               PsiFile file) {
-        Set<String> presentKeys = new HashSet<>();
-        for (YAMLKeyValue kv : mapping.getKeyValues()) {
-            presentKeys.add(kv.getKeyText());
-        }
+        Set<String> presentKeys = document.getTopLevelKeys();
 
-        for (String required : REQUIRED_TOP_LEVEL) {
+        for (String required : BjoernSpecRules.REQUIRED_TOP_LEVEL) {
             if (!presentKeys.contains(required)) {
                 // Report on the whole file (first character) since the field is missing entirely
                 problems.add(manager.createProblemDescriptor(
                         file,
                         TextRange.from(0, 1),
-                        "Bjoern spec is missing required top-level field: '" + required + ":'",
+                        BjoernSpecRules.missingTopLevelMessage(required),
                         ProblemHighlightType.WARNING,
                         isOnTheFly));
             }
@@ -79,33 +66,27 @@ public class BjoernStructureInspection extends LocalInspectionTool {
     // -------------------------------------------------------------------------
     // Check 2: duplicate scenario names
     // -------------------------------------------------------------------------
-    private void checkDuplicateScenarioNames(YAMLMapping mapping,
+    private void checkDuplicateScenarioNames(BjoernSpecModel.Document document,
                                               InspectionManager manager,
                                               boolean isOnTheFly,
-                                              List<ProblemDescriptor> problems) {
-        YAMLKeyValue scenariosKV = mapping.getKeyValueByKey("Scenarios");
-        if (scenariosKV == null) return;
-
-        YAMLValue scenariosValue = scenariosKV.getValue();
-        if (!(scenariosValue instanceof YAMLSequence sequence)) return;
-
+                                              List<ProblemDescriptor> problems,
+                                              TextRange range) {
         Map<String, YAMLKeyValue> seenNames = new LinkedHashMap<>();
 
-        for (YAMLSequenceItem item : sequence.getItems()) {
-            YAMLValue itemValue = item.getValue();
-            if (!(itemValue instanceof YAMLMapping scenarioMapping)) continue;
-
-            YAMLKeyValue scenarioKV = scenarioMapping.getKeyValueByKey("Scenario");
+        for (BjoernSpecModel.Scenario scenario : document.getScenarios()) {
+            YAMLKeyValue scenarioKV = scenario.getNameKeyValue();
             if (scenarioKV == null) continue;
 
-            String scenarioName = scenarioKV.getValueText().trim();
+            String scenarioName = scenario.getName();
             if (scenarioName.isBlank()) continue;
 
             if (seenNames.containsKey(scenarioName)) {
+                if (!BjoernLargeFileMode.isInRange(range, scenarioKV)) continue;
+
                 // Report on the duplicate (second occurrence)
                 problems.add(manager.createProblemDescriptor(
                         scenarioKV,
-                        "Duplicate scenario name: '" + scenarioName + "'",
+                        BjoernSpecRules.duplicateScenarioMessage(scenarioName),
                         isOnTheFly,
                         LocalQuickFix.EMPTY_ARRAY,
                         ProblemHighlightType.WARNING));
@@ -118,72 +99,40 @@ public class BjoernStructureInspection extends LocalInspectionTool {
     // -------------------------------------------------------------------------
     // Check 3: empty Given / When / Then blocks
     // -------------------------------------------------------------------------
-    private void checkEmptyStepBlocks(YAMLMapping mapping,
+    private void checkEmptyStepBlocks(BjoernSpecModel.Document document,
                                        InspectionManager manager,
                                        boolean isOnTheFly,
-                                       List<ProblemDescriptor> problems) {
+                                       List<ProblemDescriptor> problems,
+                                       TextRange range) {
         // Check Background
-        YAMLKeyValue backgroundKV = mapping.getKeyValueByKey("Background");
-        if (backgroundKV != null) {
-            YAMLValue bgValue = backgroundKV.getValue();
-            if (bgValue instanceof YAMLMapping bgMapping) {
-                for (YAMLKeyValue kv : bgMapping.getKeyValues()) {
-                    if (BDD_STEP_KEYS.contains(kv.getKeyText())) {
-                        checkStepHasItems(kv, manager, isOnTheFly, problems, "Background");
-                    }
-                }
-            }
+        for (BjoernSpecModel.StepBlock block : document.getBackgroundSteps()) {
+            checkStepHasItems(block, manager, isOnTheFly, problems, "Background", range);
         }
 
         // Check each Scenario
-        YAMLKeyValue scenariosKV = mapping.getKeyValueByKey("Scenarios");
-        if (scenariosKV == null) return;
-
-        YAMLValue scenariosValue = scenariosKV.getValue();
-        if (!(scenariosValue instanceof YAMLSequence sequence)) return;
-
-        for (YAMLSequenceItem item : sequence.getItems()) {
-            YAMLValue itemValue = item.getValue();
-            if (!(itemValue instanceof YAMLMapping scenarioMapping)) continue;
-
-            YAMLKeyValue scenarioKV = scenarioMapping.getKeyValueByKey("Scenario");
-            String scenarioLabel = scenarioKV != null ? "Scenario '" + scenarioKV.getValueText().trim() + "'" : "Scenario";
+        for (BjoernSpecModel.Scenario scenario : document.getScenarios()) {
+            String scenarioLabel = BjoernSpecRules.scenarioLabel(scenario.getName());
 
-            for (YAMLKeyValue kv : scenarioMapping.getKeyValues()) {
-                if (BDD_STEP_KEYS.contains(kv.getKeyText())) {
-                    checkStepHasItems(kv, manager, isOnTheFly, problems, scenarioLabel);
-                }
+            for (BjoernSpecModel.StepBlock block : scenario.getSteps()) {
+                checkStepHasItems(block, manager, isOnTheFly, problems, scenarioLabel, range);
             }
         }
     }
 
-    private void checkStepHasItems(YAMLKeyValue stepKV,
+    private void checkStepHasItems(BjoernSpecModel.StepBlock block,
                                     InspectionManager manager,
                                     boolean isOnTheFly,
                                     List<ProblemDescriptor> problems,
-                                    String contextLabel) {
-        YAMLValue value = stepKV.getValue();
-        boolean isEmpty;
-
-        if (value == null) {
-            isEmpty = true;
-        } else if (value instanceof YAMLSequence sequence) {
-            isEmpty = sequence.getItems().isEmpty();
-        } else {
-            // scalar / null value – consider empty
-            isEmpty = value.getText().isBlank();
-        }
-
-        if (isEmpty) {
+                                    String contextLabel,
+                                    TextRange range) {
+        if (BjoernLargeFileMode.isInRange(range, block.getKeyValue()) && block.isEmpty()) {
+            YAMLKeyValue stepKV = block.getKeyValue();
             problems.add(manager.createProblemDescriptor(
                     stepKV,
-                    "Empty '" + stepKV.getKeyText() + ":' block in " + contextLabel + " – add at least one step",
+                    BjoernSpecRules.emptyStepBlockMessage(stepKV.getKeyText(), contextLabel),
                     isOnTheFly,
                     LocalQuickFix.EMPTY_ARRAY,
                     ProblemHighlightType.WEAK_WARNING));
         }
     }
 }
-
-
-
@@ -9,11 +9,6 @@ import com.intellij.openapi.vfs.VirtualFile;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Handles Tab key navigation between parameter placeholders ("") in Bjoern .zgr files.
  * <p>
@@ -23,9 +18,6 @@ import java.util.regex.Pattern;
  */
 public class BjoernTabHandler extends EditorActionHandler {
 
-    // Matches a double-quoted string, allowing for backslash-escaped characters (e.g. \") inside.
-    private static final Pattern PARAMETER_PATTERN = Pattern.compile("\"([^\"\\\\]|\\\\.)*\"");
-
     private final EditorActionHandler myOriginalHandler;
 
     public BjoernTabHandler(EditorActionHandler originalHandler) {
@@ -35,9 +27,8 @@ public class BjoernTabHandler extends EditorActionHandler {
     @Override
     protected boolean isEnabledForCaret(@NotNull Editor editor, @NotNull Caret caret, DataContext dataContext) {
         if (isInBjoernFile(editor)) {
-            String text = editor.getDocument().getText();
-            int offset = caret.getOffset();
-            if (isInsideParameter(text, offset)) {
+            BjoernParameterRanges ranges = BjoernDocumentListener.getParameterRanges(editor.getDocument());
+            if (ranges.indexOfEnclosing(caret.getOffset()) >= 0) {
                 return true;
             }
         }
@@ -63,14 +54,8 @@ public class BjoernTabHandler extends EditorActionHandler {
     }
 
     static boolean isInsideParameter(String text, int offset) {
-        Matcher matcher = PARAMETER_PATTERN.matcher(text);
-        while (matcher.find()) {
-            // "inside" means after the opening quote and before the closing quote
-            if (offset > matcher.start() && offset < matcher.end()) {
-                return true;
-            }
-        }
-        return false;
+        // "inside" means after the opening quote and before the closing quote
+        return BjoernParameterRanges.scan(text).indexOfEnclosing(offset) >= 0;
     }
 
     /**
@@ -81,8 +66,8 @@ public class BjoernTabHandler extends EditorActionHandler {
      * @return true if navigation was performed, false if caret is not inside a parameter
      */
     static boolean navigateToNextParameter(Editor editor, @NotNull Caret caret) {
-        String text = editor.getDocument().getText();
-        int[] target = findNextParameter(text, caret.getOffset());
+        BjoernParameterRanges ranges = BjoernDocumentListener.getParameterRanges(editor.getDocument());
+        int[] target = findNextParameter(ranges, caret.getOffset());
         if (target == null) {
             return false;
         }
@@ -108,32 +93,18 @@ public class BjoernTabHandler extends EditorActionHandler {
      * parameter.
      */
     static int[] findNextParameter(String text, int currentOffset) {
-        List<int[]> params = new ArrayList<>();
-        Matcher matcher = PARAMETER_PATTERN.matcher(text);
-        while (matcher.find()) {
-            params.add(new int[]{matcher.start(), matcher.end()});
-        }
-
-        if (params.isEmpty()) {
-            return null;
-        }
+        return findNextParameter(BjoernParameterRanges.scan(text), currentOffset);
+    }
 
+    private static int[] findNextParameter(BjoernParameterRanges ranges, int currentOffset) {
         // Find the index of the parameter the cursor is currently inside
-        int currentParamIndex = -1;
-        for (int i = 0; i < params.size(); i++) {
-            int[] param = params.get(i);
-            if (currentOffset > param[0] && currentOffset < param[1]) {
-                currentParamIndex = i;
-                break;
-            }
-        }
-
+        int currentParamIndex = ranges.indexOfEnclosing(currentOffset);
         if (currentParamIndex == -1) {
             return null;
         }
 
         // Navigate to next parameter, wrapping around at the end
-        int nextParamIndex = (currentParamIndex + 1) % params.size();
-        return params.get(nextParamIndex);
+        int nextParamIndex = (currentParamIndex + 1) % ranges.size();
+        return new int[]{ranges.getStart(nextParamIndex), ranges.getEnd(nextParamIndex)};
     }
 }
@@ -0,0 +1,107 @@
+package de.mehtrick.bjoern;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded summary of the most frequent values of one parameter slot (Space-Saving).
+ * <p>
+ * Holds at most {@code capacity} values. A new value arriving at a full summary replaces the
+ * least frequent one and takes over its count, so a count is overestimated by at most the
+ * smallest count held. A value that makes up more than {@code 1/capacity} of all occurrences
+ * is never dropped. Summaries merge by adding the values of one to the other, so per-file
+ * summaries combine into a project summary of the same size.
+ */
+final class BjoernTopKValues {
+
+    static final int DEFAULT_CAPACITY = 16;
+
+    private final int capacity;
+    private final Map<String, Integer> counts = new HashMap<>();
+
+    BjoernTopKValues() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    BjoernTopKValues(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    int size() {
+        return counts.size();
+    }
+
+    void add(String value) {
+        add(value, 1);
+    }
+
+    void add(String value, int count) {
+        Integer current = counts.get(value);
+        if (current != null) {
+            counts.put(value, current + count);
+            return;
+        }
+        if (counts.size() < capacity) {
+            counts.put(value, count);
+            return;
+        }
+
+        String leastFrequent = null;
+        int leastCount = Integer.MAX_VALUE;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() < leastCount) {
+                leastFrequent = entry.getKey();
+                leastCount = entry.getValue();
+            }
+        }
+        counts.remove(leastFrequent);
+        counts.put(value, leastCount + count);
+    }
+
+    void addAll(BjoernTopKValues other) {
+        other.counts.forEach(this::add);
+    }
+
+    /**
+     * The (possibly overestimated) count of the value, or 0 if the summary does not hold it.
+     */
+    int getCount(String value) {
+        return counts.getOrDefault(value, 0);
+    }
+
+    /**
+     * The values held, most frequent first; values with equal counts in natural order.
+     */
+    List<Map.Entry<String, Integer>> top() {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        return Collections.unmodifiableList(entries);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BjoernTopKValues other && capacity == other.capacity && counts.equals(other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * capacity + counts.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return top().toString();
+    }
+}
@@ -1,25 +1,196 @@
 package de.mehtrick.bjoern;
 
 import com.intellij.lexer.LayeredLexer;
+import com.intellij.lexer.RestartableLexer;
+import com.intellij.lexer.TokenIterator;
 import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.yaml.YAMLTokenTypes;
 import org.jetbrains.yaml.lexer.YAMLFlexLexer;
 
-public class BjoernValidatingLexer extends LayeredLexer {
+/**
+ * YAML lexer with Bjoern keyword validation and parameter layers.
+ * <p>
+ * The YAML lexer only reports its initial state at column 0, so inside "Scenarios:" the editor
+ * would relex from that key on every keystroke. This lexer instead reports {@link #LINE_START_STATE}
+ * at the first token of a line that lexes the same when the YAML lexer is started afresh on it:
+ * a line with content, outside a flow collection, that neither follows a block scalar header or
+ * block scalar line nor can continue the plain scalar of the line before, because it is indented
+ * no deeper than the key or sequence item owning that scalar. Restarting in that state starts the
+ * YAML lexer in its initial state at the line. Every other token reports a state that is not
+ * restartable. The layers only ever look at a single YAML token and keep no state of their own,
+ * so a restart at a line starting with a layered token relexes that token as a whole.
+ */
+public class BjoernValidatingLexer extends LayeredLexer implements RestartableLexer {
+    private static final int START_STATE = 0;
+
+    /**
+     * State of the first token of a line the YAML lexer can be restarted at.
+     */
+    static final int LINE_START_STATE = 0x10000;
+
+    // Reported instead of the initial state of the YAML lexer where this lexer cannot restart
+    private static final int NOT_RESTARTABLE_STATE = 0x10001;
+
+    private static final TokenSet BLANKS = TokenSet.create(YAMLTokenTypes.EOL, YAMLTokenTypes.INDENT,
+            YAMLTokenTypes.WHITESPACE, YAMLTokenTypes.COMMENT, BjoernTokenTypes.COMMENT);
+    private static final TokenSet KEYS = TokenSet.create(YAMLTokenTypes.SCALAR_KEY,
+            BjoernTokenTypes.VALID_KEYWORD, BjoernTokenTypes.INVALID_KEYWORD);
+    private static final TokenSet BLOCK_SCALARS = TokenSet.create(YAMLTokenTypes.SCALAR_LIST, YAMLTokenTypes.SCALAR_TEXT);
+
+    private CharSequence buffer;
+    private int bufferStart;
+    private boolean lineStart;
+    private int flowDepth;
+    // Deepest indent at which the next line cannot continue a scalar of the lines before, -1 for none
+    private int nextLineMaxIndent;
+
+    // The current line
+    private boolean lineBlank;
+    private boolean lineComment;
+    private boolean lineBlockScalar;
+    private int lineKeyColumn;
+    private int lineItemColumn;
+    private IElementType lastType;
+    private int lastStart;
+
     public BjoernValidatingLexer() {
         super(new YAMLFlexLexer());
-        
+
         // Register lexer for keyword validation
-        registerSelfStoppingLayer(new BjoernKeywordValidationLexer(), 
-                                  new IElementType[]{YAMLTokenTypes.SCALAR_KEY}, 
+        registerSelfStoppingLayer(new BjoernKeywordValidationLexer(),
+                                  new IElementType[]{YAMLTokenTypes.SCALAR_KEY},
                                   IElementType.EMPTY_ARRAY);
-        
+
         // Register lexer for double-quoted strings in text content
-        registerSelfStoppingLayer(new BjoernDoubleQuotedStringLexer(), 
-                                  new IElementType[]{YAMLTokenTypes.TEXT}, 
+        registerSelfStoppingLayer(new BjoernDoubleQuotedStringLexer(),
+                                  new IElementType[]{YAMLTokenTypes.TEXT},
                                   IElementType.EMPTY_ARRAY);
-        
-        // Note: Removed custom comment lexer to let YAML handle comments natively
-        // YAML should process hash comments as comment tokens automatically
     }
-}
\ No newline at end of file
+
+    @Override
+    public void start(@NotNull CharSequence buffer, int startOffset, int endOffset, int initialState) {
+        this.buffer = buffer;
+        this.bufferStart = startOffset;
+        this.flowDepth = 0;
+        this.nextLineMaxIndent = -1;
+        int yamlState = initialState == LINE_START_STATE || initialState == NOT_RESTARTABLE_STATE
+                ? START_STATE : initialState;
+        super.start(buffer, startOffset, endOffset, yamlState);
+        track();
+    }
+
+    @Override
+    public void start(@NotNull CharSequence buffer, int startOffset, int endOffset, int initialState,
+                      TokenIterator tokenIterator) {
+        start(buffer, startOffset, endOffset, initialState);
+    }
+
+    @Override
+    public void advance() {
+        super.advance();
+        track();
+    }
+
+    @Override
+    public int getState() {
+        if (lineStart) {
+            return LINE_START_STATE;
+        }
+        int state = super.getState();
+        return state == START_STATE ? NOT_RESTARTABLE_STATE : state;
+    }
+
+    @Override
+    public int getStartState() {
+        return START_STATE;
+    }
+
+    @Override
+    public boolean isRestartableState(int state) {
+        return state == START_STATE || state == LINE_START_STATE;
+    }
+
+    // Decides whether the current token is a restart point and adds it to the current line
+    private void track() {
+        IElementType type = getTokenType();
+        if (type == null) {
+            lineStart = false;
+            return;
+        }
+        int start = getTokenStart();
+        if (start == bufferStart) {
+            beginLine(start);
+            lineStart = true;
+        } else if (buffer.charAt(start - 1) == '\n') {
+            endLine();
+            int indent = beginLine(start);
+            lineStart = !lineBlank && !lineComment && flowDepth == 0 && indent <= nextLineMaxIndent;
+        } else {
+            lineStart = false;
+        }
+
+        if (type == YAMLTokenTypes.LBRACE || type == YAMLTokenTypes.LBRACKET) {
+            flowDepth++;
+        } else if (type == YAMLTokenTypes.RBRACE || type == YAMLTokenTypes.RBRACKET) {
+            flowDepth--;
+        } else if (BLOCK_SCALARS.contains(type)) {
+            lineBlockScalar = true;
+        } else if (KEYS.contains(type)) {
+            lineKeyColumn = column(start);
+        } else if (type == YAMLTokenTypes.SEQUENCE_MARKER) {
+            lineItemColumn = column(start);
+        }
+        if (!BLANKS.contains(type)) {
+            lastType = type;
+            lastStart = start;
+        }
+    }
+
+    /**
+     * Starts a line at {@code start} and returns its indent.
+     */
+    private int beginLine(int start) {
+        int content = start;
+        while (content < buffer.length() && (buffer.charAt(content) == ' ' || buffer.charAt(content) == '\t')) {
+            content++;
+        }
+        char first = content < buffer.length() ? buffer.charAt(content) : '\n';
+        lineBlank = first == '\n' || first == '\r';
+        lineComment = first == '#';
+        lineBlockScalar = false;
+        lineKeyColumn = -1;
+        lineItemColumn = -1;
+        lastType = null;
+        return content - start;
+    }
+
+    // Derives from the finished line how deep the next line may be indented to be a restart point
+    private void endLine() {
+        if (lineBlank) {
+            // A plain scalar may continue after blank lines
+            return;
+        }
+        if (lineComment || lineBlockScalar || lastType == null) {
+            nextLineMaxIndent = -1;
+        } else if (buffer.charAt(lastStart) == '|' || buffer.charAt(lastStart) == '>') {
+            // Block scalar header
+            nextLineMaxIndent = -1;
+        } else if (lastType == YAMLTokenTypes.COLON || lastType == YAMLTokenTypes.SEQUENCE_MARKER) {
+            // The value starts on the next line
+            nextLineMaxIndent = Integer.MAX_VALUE;
+        } else {
+            // A value ends the line: lines indented deeper than its owner would continue it
+            nextLineMaxIndent = lineKeyColumn >= 0 ? lineKeyColumn : lineItemColumn;
+        }
+    }
+
+    private int column(int offset) {
+        int lineStartOffset = offset;
+        while (lineStartOffset > 0 && buffer.charAt(lineStartOffset - 1) != '\n') {
+            lineStartOffset--;
+        }
+        return offset - lineStartOffset;
+    }
+}
@@ -0,0 +1,160 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+
+import java.util.function.Function;
+
+/**
+ * Parses specs into the compact tree of {@link BjoernCompactParser} and checks its shape, and
+ * that the stub built from it matches the one built from the YAML PSI. Runs in a light project
+ * of the platform test framework.
+ */
+public class BjoernCompactParserTest {
+
+    private static final String NESTED = "# Kopf\n" +
+            "Feature: Kasse # Kommentar\n" +
+            "Background:\n" +
+            "  Given:\n" +
+            "    - Ein \"Automat\"\n" +
+            "Scenarios:\n" +
+            "  # Erstes Szenario\n" +
+            "  - Scenario: Kaufen\n" +
+            "    Given:\n" +
+            "      - Mit \"2\" Flaschen\n" +
+            "      # zwischen Schritten\n" +
+            "      - Ein sehr langer Schritt\n" +
+            "        in zwei Zeilen\n" +
+            "    When:\n" +
+            "      - \"Kaufen\"\n" +
+            "    Then:\n" +
+            "      - Fertig\n" +
+            "  - Given:\n" +
+            "      - Ohne Namen\n" +
+            "    Then:\n" +
+            "      - Auch fertig\n";
+
+    // Sequences at the column of their key, as YAML allows
+    private static final String SAME_COLUMN_SEQUENCES = "Feature: Kasse\n" +
+            "Scenarios:\n" +
+            "- Scenario: Kaufen\n" +
+            "  Given:\n" +
+            "  - Mit \"2\" Flaschen\n" +
+            "  Then:\n" +
+            "  - Fertig\n" +
+            "- Scenario: Bezahlen\n" +
+            "  When:\n" +
+            "  - Ich zahle\n";
+
+    private static <T> T parse(String text, boolean compact, Function<BjoernFile, T> read) throws Exception {
+        IdeaProjectTestFixture fixture = IdeaTestFixtureFactory.getFixtureFactory()
+                .createLightFixtureBuilder(LightProjectDescriptor.EMPTY_PROJECT_DESCRIPTOR, "BjoernCompactParserTest")
+                .getFixture();
+        EdtTestUtil.runInEdtAndWait(fixture::setUp);
+        System.setProperty(BjoernParserDefinition.COMPACT_PSI_PROPERTY, String.valueOf(compact));
+        try {
+            return ReadAction.compute(() -> read.apply((BjoernFile) PsiFileFactory.getInstance(fixture.getProject())
+                    .createFileFromText("spec.zgr", BjoernFileType.INSTANCE, text)));
+        } finally {
+            System.clearProperty(BjoernParserDefinition.COMPACT_PSI_PROPERTY);
+            EdtTestUtil.runInEdtAndWait(fixture::tearDown);
+        }
+    }
+
+    // The Bjoern elements of the tree, one per line, with the first line of their text
+    private static String outline(ASTNode node) {
+        StringBuilder outline = new StringBuilder();
+        appendOutline(node, 0, outline);
+        return outline.toString();
+    }
+
+    private static void appendOutline(ASTNode node, int depth, StringBuilder outline) {
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            if (!BjoernElementTypes.ALL.contains(child.getElementType())) {
+                continue;
+            }
+            String firstLine = child.getText().split("\n", 2)[0].replaceAll("\\s+#.*$", "");
+            outline.append("  ".repeat(depth)).append(child.getElementType().toString().substring("BJOERN_".length()))
+                    .append(' ').append(firstLine).append('\n');
+            appendOutline(child, depth + 1, outline);
+        }
+    }
+
+    private static String describe(BjoernFileStub stub) {
+        StringBuilder description = new StringBuilder("Feature: " + stub.getFeature() + "\n");
+        for (BjoernFileStub.Step step : stub.getBackgroundSteps()) {
+            description.append("Background ").append(step.getContext()).append(": ").append(step.getStatement()).append('\n');
+        }
+        for (BjoernFileStub.Scenario scenario : stub.getScenarios()) {
+            description.append("Scenario ").append(scenario.getName()).append('\n');
+            for (BjoernFileStub.Step step : scenario.getSteps()) {
+                description.append("  ").append(step.getContext()).append(": ").append(step.getStatement()).append('\n');
+            }
+        }
+        return description.toString();
+    }
+
+    private static void assertSameStub(String spec) throws Exception {
+        String yaml = parse(spec, false, file -> describe(BjoernFileStub.build(file)));
+        String compact = parse(spec, true, file -> describe(BjoernFileStub.build(file)));
+        if (!compact.equals(yaml)) {
+            throw new AssertionError("Stub of the compact tree:\n" + compact + "differs from the YAML one:\n" + yaml);
+        }
+    }
+
+    public void testTreeShape() throws Exception {
+        String outline = parse(NESTED, true, file -> outline(file.getNode()));
+        String expected = "FEATURE Feature: Kasse\n" +
+                "BACKGROUND Background:\n" +
+                "  STEP_BLOCK Given:\n" +
+                "    STEP - Ein \"Automat\"\n" +
+                "      PARAMETER \"Automat\"\n" +
+                "SCENARIO - Scenario: Kaufen\n" +
+                "  STEP_BLOCK Given:\n" +
+                "    STEP - Mit \"2\" Flaschen\n" +
+                "      PARAMETER \"2\"\n" +
+                "    STEP - Ein sehr langer Schritt\n" +
+                "  STEP_BLOCK When:\n" +
+                "    STEP - \"Kaufen\"\n" +
+                "      PARAMETER \"Kaufen\"\n" +
+                "  STEP_BLOCK Then:\n" +
+                "    STEP - Fertig\n" +
+                "SCENARIO - Given:\n" +
+                "  STEP_BLOCK Given:\n" +
+                "    STEP - Ohne Namen\n" +
+                "  STEP_BLOCK Then:\n" +
+                "    STEP - Auch fertig\n";
+        if (!outline.equals(expected)) {
+            throw new AssertionError("Expected:\n" + expected + "but got:\n" + outline);
+        }
+    }
+
+    public void testMultiLineStepIsOneStep() throws Exception {
+        String step = parse(NESTED, true, file -> {
+            for (ASTNode node : file.getNode().getChildren(null)) {
+                if (node.getElementType() == BjoernElementTypes.SCENARIO) {
+                    return node.findChildByType(BjoernElementTypes.STEP_BLOCK)
+                            .getChildren(TokenSet.create(BjoernElementTypes.STEP))[1].getText();
+                }
+            }
+            return null;
+        });
+        if (!"- Ein sehr langer Schritt\n        in zwei Zeilen".equals(step)) {
+            throw new AssertionError("Unexpected step: " + step);
+        }
+    }
+
+    public void testStubMatchesYamlTree() throws Exception {
+        assertSameStub(NESTED);
+    }
+
+    public void testStubMatchesYamlTreeForSequencesAtKeyColumn() throws Exception {
+        assertSameStub(SAME_COLUMN_SEQUENCES);
+    }
+}
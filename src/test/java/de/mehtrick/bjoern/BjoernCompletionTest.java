@@ -1,6 +1,9 @@
 package de.mehtrick.bjoern;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 public class BjoernCompletionTest {
@@ -136,4 +139,139 @@ public class BjoernCompletionTest {
             throw new AssertionError("Tab from filled parameter should navigate to next parameter");
         }
     }
+
+    public void testCountStatements() {
+        String text = "Given:\n  - there are \"2\" bottles\n  - a shop\n" +
+                "Then:\n  - done\n" +
+                "Given:\n  - there are \"5\" bottles\n";
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        BjoernCompletionContributor.countStatements(text, "Given", counts);
+
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        expected.put("there are \"\" bottles", 2);
+        expected.put("a shop", 1);
+        if (!counts.equals(expected)) {
+            throw new AssertionError("Expected " + expected + " but got " + counts);
+        }
+    }
+
+    public void testRecencyScore() {
+        BjoernStepRecency recency = new BjoernStepRecency();
+        if (recency.getRecencyScore("Given", "a shop") != 0) {
+            throw new AssertionError("Steps never accepted should score 0");
+        }
+
+        recency.recordAccepted("Given", "a shop");
+        recency.recordAccepted("Given", "there are \"\" bottles");
+        if (recency.getRecencyScore("Given", "there are \"\" bottles") != BjoernStepRecency.CAPACITY
+                || recency.getRecencyScore("Given", "a shop") != BjoernStepRecency.CAPACITY - 1) {
+            throw new AssertionError("The step accepted last should score highest");
+        }
+        if (recency.getRecencyScore("Then", "a shop") != 0) {
+            throw new AssertionError("Recency should be tracked per context");
+        }
+
+        for (int i = 0; i < BjoernStepRecency.CAPACITY; i++) {
+            recency.recordAccepted("When", "step " + i);
+        }
+        if (recency.getRecencyScore("Given", "a shop") != 0) {
+            throw new AssertionError("Steps accepted before the last " + BjoernStepRecency.CAPACITY + " should score 0");
+        }
+    }
+
+    public void testStepWeightRanksTransitionsThenRecencyThenUsages() {
+        if (BjoernStepWeigher.weight(0, 0, 500) <= BjoernStepWeigher.weight(0, 0, 3)) {
+            throw new AssertionError("More usages should weigh more");
+        }
+        if (BjoernStepWeigher.weight(0, 1, 1) <= BjoernStepWeigher.weight(0, 0, Integer.MAX_VALUE)) {
+            throw new AssertionError("A recently accepted step should outweigh any usage count");
+        }
+        if (BjoernStepWeigher.weight(1, 0, 0) <= BjoernStepWeigher.weight(0, BjoernStepRecency.CAPACITY, Integer.MAX_VALUE)) {
+            throw new AssertionError("A predicted next step should outweigh recency and usages");
+        }
+        if (BjoernStepWeigher.weight(Integer.MAX_VALUE, 0, 0) <= BjoernStepWeigher.weight(2, 0, 0)) {
+            throw new AssertionError("Capped transition counts should still weigh more");
+        }
+    }
+
+    public void testPreviousStep() {
+        String text = "Given:\n  - Ein Automat\n  # Kommentar\n  - Mit \"2\" Flaschen\n  - \nWhen:\n  - ";
+        int afterFlaschen = text.indexOf("  - \nWhen") + 4;
+        if (!"Mit \"\" Flaschen".equals(BjoernCompletionContributor.getPreviousStep(text, afterFlaschen))) {
+            throw new AssertionError("Previous step should be the normalized item above the caret");
+        }
+        int firstOfWhen = text.length();
+        if (!BjoernStepTransitionIndex.BLOCK_START.equals(BjoernCompletionContributor.getPreviousStep(text, firstOfWhen))) {
+            throw new AssertionError("First item of a block should follow the block start");
+        }
+        if (BjoernCompletionContributor.getPreviousStep("Feature: F\n  - ", 14) != null) {
+            throw new AssertionError("Items outside step blocks have no previous step");
+        }
+    }
+
+    public void testCountTransitions() {
+        String text = "Given:\n  - Ein Automat\n  - Mit \"2\" Flaschen\n" +
+                "Given:\n  - Ein Automat\n  - Mit \"5\" Flaschen\n  - Ein Automat\n";
+        Map<String, Object2IntMap<String>> transitions = BjoernStepTransitionIndex.countTransitions(text);
+
+        String fromAutomat = BjoernStepTransitionIndex.transitionKey("Given", "Ein Automat");
+        if (transitions.get(fromAutomat).getInt("Mit \"\" Flaschen") != 2) {
+            throw new AssertionError("Expected two transitions to the Flaschen step but got " + transitions.get(fromAutomat));
+        }
+        String fromStart = BjoernStepTransitionIndex.transitionKey("Given", BjoernStepTransitionIndex.BLOCK_START);
+        if (transitions.get(fromStart).getInt("Ein Automat") != 2) {
+            throw new AssertionError("Both blocks should start with the Automat step");
+        }
+        if (transitions.containsKey(BjoernStepTransitionIndex.transitionKey("When", BjoernStepTransitionIndex.BLOCK_START))) {
+            throw new AssertionError("There are no When blocks");
+        }
+    }
+
+    public void testTransitionsOfCollidingTemplatesStayApart() {
+        // "Aa" and "BB" have the same String hash code
+        String text = "Given:\n  - Aa\n  - BB\nGiven:\n  - BB\n  - Aa\n";
+        Map<String, Object2IntMap<String>> transitions = BjoernStepTransitionIndex.countTransitions(text);
+
+        Object2IntMap<String> fromStart = transitions.get(
+                BjoernStepTransitionIndex.transitionKey("Given", BjoernStepTransitionIndex.BLOCK_START));
+        if (fromStart.getInt("Aa") != 1 || fromStart.getInt("BB") != 1) {
+            throw new AssertionError("Expected one block to start with each step but got " + fromStart);
+        }
+        Object2IntMap<String> fromAa = transitions.get(BjoernStepTransitionIndex.transitionKey("Given", "Aa"));
+        if (fromAa.size() != 1 || fromAa.getInt("BB") != 1) {
+            throw new AssertionError("Expected only BB after Aa but got " + fromAa);
+        }
+    }
+
+    public void testParameterValuesPerSlot() {
+        String text = "Given:\n  - Mit \"2\" Flaschen \"Cola\"\n  - Mit \"0\" Flaschen \"Cola\"\n" +
+                "Then:\n  - Mit \"2\" Flaschen \"Fanta\"\n  - Ohne Parameter\n";
+        Map<String, BjoernTopKValues> values = BjoernParameterValueIndex.collectValues(text);
+
+        String template = "Mit \"\" Flaschen \"\"";
+        BjoernTopKValues counts = values.get(BjoernParameterValueIndex.slotKey(template, 0));
+        if (counts.getCount("2") != 2 || counts.getCount("0") != 1) {
+            throw new AssertionError("Unexpected values of the first placeholder: " + counts);
+        }
+        BjoernTopKValues drinks = values.get(BjoernParameterValueIndex.slotKey(template, 1));
+        if (!drinks.top().toString().equals("[Cola=2, Fanta=1]")) {
+            throw new AssertionError("Unexpected values of the second placeholder: " + drinks);
+        }
+        if (values.size() != 2) {
+            throw new AssertionError("Steps without values should not be indexed: " + values.keySet());
+        }
+    }
+
+    public void testContextFromTextStopsAtScanLimit() {
+        String text = "Given:\n  - Ein Automat\n  - Mit \"2\" Flaschen\n  - ";
+        if (!"Given".equals(BjoernCompletionContributor.getCurrentBDDContextFromText(text, text.length(), Integer.MAX_VALUE))) {
+            throw new AssertionError("Should find the Given block above the caret");
+        }
+        if (BjoernCompletionContributor.getCurrentBDDContextFromText(text, text.length(), 3) != null) {
+            throw new AssertionError("Should not read more lines than the scan limit");
+        }
+        if (!"Given".equals(BjoernCompletionContributor.getCurrentBDDContextFromText(text, text.length(), 4))) {
+            throw new AssertionError("Should find the Given block within the scan limit");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.yaml.YAMLTokenTypes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Differential tests of {@link BjoernDoubleQuotedStringLexer} against the former tokenization,
+ * which counted the backslashes before every quote backwards.
+ */
+public class BjoernDoubleQuotedStringLexerTest {
+
+    private static final char[] ALPHABET = {'"', '\\', '\\', 'a', ' ', '\n', 'C', ':'};
+
+    public void testRandomInputsMatchReferenceTokenization() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20000; round++) {
+            String text = randomText(random, random.nextInt(40));
+            assertSameTokens(text, 0, text.length());
+        }
+    }
+
+    public void testRandomSubRangesMatchReferenceTokenization() {
+        Random random = new Random(11);
+        for (int round = 0; round < 5000; round++) {
+            String text = randomText(random, 1 + random.nextInt(60));
+            int start = random.nextInt(text.length());
+            int end = start + random.nextInt(text.length() - start + 1);
+            assertSameTokens(text, start, end);
+        }
+    }
+
+    public void testLongBackslashRuns() {
+        String windowsPath = "- copy \"C:\\\\Program Files\\\\App\\\\\" to \"D:\\\\backup\\\\\"";
+        assertSameTokens(windowsPath, 0, windowsPath.length());
+
+        String even = "\"" + "\\".repeat(100000) + "\" rest";
+        assertSameTokens(even, 0, even.length());
+        String odd = "\"" + "\\".repeat(100001) + "\" rest \"";
+        assertSameTokens(odd, 0, odd.length());
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return text.toString();
+    }
+
+    private static void assertSameTokens(String text, int start, int end) {
+        List<String> expected = referenceTokens(text, start, end);
+        List<String> actual = new ArrayList<>();
+        BjoernDoubleQuotedStringLexer lexer = new BjoernDoubleQuotedStringLexer();
+        lexer.start(text, start, end, 0);
+        while (lexer.getTokenType() != null) {
+            actual.add(describe(lexer.getTokenType(), lexer.getTokenStart(), lexer.getTokenEnd()));
+            lexer.advance();
+        }
+        if (!expected.equals(actual)) {
+            throw new AssertionError("Tokens differ for '" + text.substring(start, end) + "': expected "
+                    + expected + " but got " + actual);
+        }
+    }
+
+    /**
+     * The tokenization before the forward scan, kept as oracle.
+     */
+    private static List<String> referenceTokens(String text, int start, int end) {
+        List<String> tokens = new ArrayList<>();
+        int position = start;
+        while (position < end) {
+            if (text.charAt(position) == '"') {
+                int close = referenceClosingQuote(text, position + 1, end);
+                if (close != -1) {
+                    tokens.add(describe(BjoernTokenTypes.DOUBLE_QUOTED_STRING, position, close + 1));
+                    position = close + 1;
+                } else {
+                    tokens.add(describe(YAMLTokenTypes.TEXT, position, position + 1));
+                    position++;
+                }
+                continue;
+            }
+            int next = text.indexOf('"', position);
+            int tokenEnd = next == -1 || next >= end ? end : next;
+            tokens.add(describe(YAMLTokenTypes.TEXT, position, tokenEnd));
+            position = tokenEnd;
+        }
+        return tokens;
+    }
+
+    private static int referenceClosingQuote(String text, int startPos, int end) {
+        for (int i = startPos; i < end; i++) {
+            if (text.charAt(i) == '"') {
+                int backslashes = 0;
+                for (int j = i - 1; j >= startPos && text.charAt(j) == '\\'; j--) {
+                    backslashes++;
+                }
+                if (backslashes % 2 == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String describe(IElementType type, int start, int end) {
+        return type + "[" + start + "," + end + ")";
+    }
+}
@@ -0,0 +1,59 @@
+package de.mehtrick.bjoern;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.LightVirtualFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class BjoernDuplicateScenarioInspectionTest {
+
+    public void testMessageListsOtherFiles() {
+        String message = BjoernDuplicateScenarioInspection.duplicateAcrossFilesMessage("Kaufen", List.of("a.zgr", "b.zgr"));
+        if (!message.equals("Scenario name 'Kaufen' is also used in a.zgr, b.zgr")) {
+            throw new AssertionError("Unexpected message: " + message);
+        }
+    }
+
+    public void testMessageTruncatesLongFileLists() {
+        String message = BjoernDuplicateScenarioInspection.duplicateAcrossFilesMessage("Kaufen",
+                List.of("a.zgr", "b.zgr", "c.zgr", "d.zgr", "e.zgr"));
+        if (!message.equals("Scenario name 'Kaufen' is also used in a.zgr, b.zgr, c.zgr and 2 more")) {
+            throw new AssertionError("Unexpected message: " + message);
+        }
+    }
+
+    public void testLookupExcludesCurrentFile() {
+        VirtualFile current = new LightVirtualFile("current.zgr", "");
+        VirtualFile a = new LightVirtualFile("a.zgr", "");
+        VirtualFile b = new LightVirtualFile("b.zgr", "");
+        Map<String, List<VirtualFile>> index = Map.of(
+                "Kaufen", List.of(current, b, a),
+                "Bezahlen", List.of(current),
+                "Liefern", List.of(a));
+
+        List<String> lookedUp = new ArrayList<>();
+        Map<String, List<String>> duplicates = BjoernDuplicateScenarioInspection.findInOtherFiles(
+                List.of("Kaufen", "Bezahlen", "Liefern", "Unbekannt"), current, name -> {
+                    lookedUp.add(name);
+                    return index.getOrDefault(name, List.of());
+                });
+
+        if (!duplicates.equals(Map.of("Kaufen", List.of("a.zgr", "b.zgr"), "Liefern", List.of("a.zgr")))) {
+            throw new AssertionError("Unexpected duplicates: " + duplicates);
+        }
+        if (!lookedUp.equals(List.of("Kaufen", "Bezahlen", "Liefern", "Unbekannt"))) {
+            throw new AssertionError("Each name should be looked up once: " + lookedUp);
+        }
+    }
+
+    public void testSameFileOnlyIsNoDuplicate() {
+        VirtualFile current = new LightVirtualFile("current.zgr", "");
+        Map<String, List<String>> duplicates = BjoernDuplicateScenarioInspection.findInOtherFiles(
+                List.of("Kaufen"), current, name -> List.of(current));
+        if (!duplicates.isEmpty()) {
+            throw new AssertionError("A name used only in the current file is no cross-file duplicate: " + duplicates);
+        }
+    }
+}
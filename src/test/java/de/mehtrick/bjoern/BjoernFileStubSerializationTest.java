@@ -0,0 +1,82 @@
+package de.mehtrick.bjoern;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+public class BjoernFileStubSerializationTest {
+
+    private static BjoernFileStub roundTrip(BjoernFileStub stub) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BjoernFileElementType.write(stub, out);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        BjoernFileStub read = BjoernFileElementType.read(in);
+        if (in.available() != 0) {
+            throw new AssertionError(in.available() + " byte(s) left after reading the stub");
+        }
+        return read;
+    }
+
+    private static void assertSameSteps(List<BjoernFileStub.Step> expected, List<BjoernFileStub.Step> actual) {
+        if (expected.size() != actual.size()) {
+            throw new AssertionError("Expected " + expected.size() + " steps but got " + actual.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            BjoernFileStub.Step e = expected.get(i);
+            BjoernFileStub.Step a = actual.get(i);
+            if (!e.getContext().equals(a.getContext()) || !e.getStatement().equals(a.getStatement())
+                    || !e.getText().equals(a.getText())) {
+                throw new AssertionError("Step " + i + " changed: " + a.getContext() + " " + a.getStatement());
+            }
+        }
+    }
+
+    public void testOutlineSurvivesRoundTrip() throws IOException {
+        BjoernFileStub stub = new BjoernFileStub(null, "Getr\u00e4nke kaufen",
+                List.of(new BjoernFileStub.Step("Given", "Ein \"Automat\" ist da")),
+                List.of(new BjoernFileStub.Scenario("Kaufen", List.of(
+                                new BjoernFileStub.Step("When", "Ich werfe \"2\" Euro ein"),
+                                new BjoernFileStub.Step("Then", "Ich bekomme \"1\" \"Cola\""))),
+                        new BjoernFileStub.Scenario(null, List.of())));
+
+        BjoernFileStub read = roundTrip(stub);
+        if (!"Getr\u00e4nke kaufen".equals(read.getFeature())) {
+            throw new AssertionError("Unexpected feature: " + read.getFeature());
+        }
+        assertSameSteps(stub.getBackgroundSteps(), read.getBackgroundSteps());
+        if (read.getScenarios().size() != 2) {
+            throw new AssertionError("Expected 2 scenarios but got " + read.getScenarios().size());
+        }
+        if (!"Kaufen".equals(read.getScenarios().get(0).getName()) || read.getScenarios().get(1).getName() != null) {
+            throw new AssertionError("Scenario names changed");
+        }
+        assertSameSteps(stub.getScenarios().get(0).getSteps(), read.getScenarios().get(0).getSteps());
+        assertSameSteps(stub.getScenarios().get(1).getSteps(), read.getScenarios().get(1).getSteps());
+    }
+
+    public void testTemplatesAreDerivedFromStatements() throws IOException {
+        BjoernFileStub stub = new BjoernFileStub(null, null,
+                List.of(new BjoernFileStub.Step("Given", "Ein \"Automat\" mit \"3\" F\u00e4chern")), List.of());
+
+        BjoernFileStub read = roundTrip(stub);
+        if (read.getFeature() != null || !read.getScenarios().isEmpty()) {
+            throw new AssertionError("Expected an outline without feature and scenarios");
+        }
+        String template = read.getBackgroundSteps().get(0).getText();
+        if (!template.equals("Ein \"\" mit \"\" F\u00e4chern")) {
+            throw new AssertionError("Unexpected template: " + template);
+        }
+    }
+
+    public void testLongStatementSurvivesRoundTrip() throws IOException {
+        String statement = "Ein sehr langer Schritt ".repeat(4000);
+        BjoernFileStub stub = new BjoernFileStub(null, "Lang",
+                List.of(new BjoernFileStub.Step("Given", statement)), List.of());
+        assertSameSteps(stub.getBackgroundSteps(), roundTrip(stub).getBackgroundSteps());
+    }
+}
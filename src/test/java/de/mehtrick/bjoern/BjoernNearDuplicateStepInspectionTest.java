@@ -0,0 +1,19 @@
+package de.mehtrick.bjoern;
+
+public class BjoernNearDuplicateStepInspectionTest {
+
+    public void testMergeKeepsParameterValues() {
+        String merged = BjoernNearDuplicateStepInspection.mergedStatement(
+                "Es gibt \"2\" Flaschen \"Cola\"", "Mit \"\" Flaschen \"\"");
+        if (!merged.equals("Mit \"2\" Flaschen \"Cola\"")) {
+            throw new AssertionError("Unexpected merge result: " + merged);
+        }
+    }
+
+    public void testMergeWithDifferentPlaceholderCountUsesTemplate() {
+        String merged = BjoernNearDuplicateStepInspection.mergedStatement("Ein Automat mit \"$5\"", "Ein Automat");
+        if (!merged.equals("Ein Automat")) {
+            throw new AssertionError("Unexpected merge result: " + merged);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package de.mehtrick.bjoern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class BjoernParameterRangesTest {
+
+    // The pattern BjoernTabHandler used before the range table was introduced
+    private static final Pattern PARAMETER_PATTERN = Pattern.compile("\"([^\"\\\\]|\\\\.)*\"");
+
+    private static final String ALPHABET = "\"\"\\\\\n ab";
+
+    public void testScanMatchesRegex() {
+        Random random = new Random(7);
+        for (int round = 0; round < 5000; round++) {
+            String text = randomText(random, random.nextInt(40));
+            assertSameRanges(text, BjoernParameterRanges.scan(text), "text #" + round);
+        }
+    }
+
+    public void testIncrementalUpdateMatchesRegex() {
+        Random random = new Random(11);
+        StringBuilder text = new StringBuilder("- Mit \"2\" Flaschen \"Cola\"\n- Pfad \"C:\\\\temp\\\\\" ok\n");
+        BjoernParameterRanges ranges = BjoernParameterRanges.scan(text);
+
+        for (int round = 0; round < 5000; round++) {
+            int offset = random.nextInt(text.length() + 1);
+            int oldLength = random.nextInt(Math.min(4, text.length() - offset) + 1);
+            String inserted = randomText(random, random.nextInt(4));
+            text.replace(offset, offset + oldLength, inserted);
+            ranges.update(text, offset, oldLength, inserted.length());
+            assertSameRanges(text.toString(), ranges, "edit #" + round);
+            if (text.length() > 200) {
+                text.setLength(0);
+                ranges = BjoernParameterRanges.scan(text);
+            }
+        }
+    }
+
+    public void testIndexOfEnclosing() {
+        String text = "- step with \"\" and \"foo\" values";
+        BjoernParameterRanges ranges = BjoernParameterRanges.scan(text);
+        int empty = text.indexOf("\"\"");
+        if (ranges.indexOfEnclosing(empty + 1) != 0) {
+            throw new AssertionError("Offset between empty quotes should be inside the first parameter");
+        }
+        if (ranges.indexOfEnclosing(empty) != -1 || ranges.indexOfEnclosing(empty + 2) != -1) {
+            throw new AssertionError("Offsets on the quotes themselves should not be inside a parameter");
+        }
+        if (ranges.indexOfEnclosing(text.indexOf("foo") + 2) != 1) {
+            throw new AssertionError("Offset inside 'foo' should be inside the second parameter");
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private static void assertSameRanges(String text, BjoernParameterRanges ranges, String label) {
+        List<int[]> expected = new ArrayList<>();
+        Matcher matcher = PARAMETER_PATTERN.matcher(text);
+        while (matcher.find()) {
+            expected.add(new int[]{matcher.start(), matcher.end()});
+        }
+        if (expected.size() != ranges.size()) {
+            throw new AssertionError(label + ": expected " + expected.size() + " parameters but got " + ranges.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (expected.get(i)[0] != ranges.getStart(i) || expected.get(i)[1] != ranges.getEnd(i)) {
+                throw new AssertionError(label + ": parameter " + i + " differs from the regex match");
+            }
+        }
+    }
+}
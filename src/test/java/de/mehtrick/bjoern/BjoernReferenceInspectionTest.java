@@ -1,5 +1,8 @@
 package de.mehtrick.bjoern;
 
+import java.util.List;
+import java.util.Set;
+
 public class BjoernReferenceInspectionTest {
 
     public void testValidHttpUrl() {
@@ -82,4 +85,46 @@ public class BjoernReferenceInspectionTest {
             throw new AssertionError("HTML anchor with https should be valid");
         }
     }
+
+    public void testReferenceKeysOfMarkdownLink() {
+        List<String> keys = BjoernSpecRules.referenceKeys("\"[Ticket-123](https://jira.example.org/browse/TICKET-123)\"");
+        if (!keys.equals(List.of("https://jira.example.org/browse/TICKET-123", "TICKET-123"))) {
+            throw new AssertionError("Unexpected keys " + keys);
+        }
+    }
+
+    public void testReferenceKeysOfPlainText() {
+        List<String> keys = BjoernSpecRules.referenceKeys("JIRA-7 and https://example.org/x, siehe ABC-1");
+        if (!keys.equals(List.of("https://example.org/x", "JIRA-7", "ABC-1"))) {
+            throw new AssertionError("Unexpected keys " + keys);
+        }
+        if (!BjoernSpecRules.referenceKeys("  ").isEmpty()) {
+            throw new AssertionError("Blank references have no keys");
+        }
+    }
+
+    public void testReferenceKeysOfSpecText() {
+        String spec = "Feature: F\nReference: \"[JIRA-1](https://jira.example.org/JIRA-1)\"\n" +
+                "Scenarios:\n  - Scenario: A\n    Given:\n      - Reference: JIRA-99\n";
+        Set<String> keys = BjoernReferenceIndex.referenceKeys(spec);
+        if (!keys.contains("JIRA-1") || keys.contains("JIRA-99")) {
+            throw new AssertionError("Only top-level Reference lines should be indexed: " + keys);
+        }
+    }
+
+    public void testReferenceKeysNeedUpperCaseProjectKey() {
+        List<String> keys = BjoernSpecRules.referenceKeys("Encoding utf-8, Version-2, jira-7 und X-1");
+        if (!keys.isEmpty()) {
+            throw new AssertionError("Expected no ticket ids but got " + keys);
+        }
+    }
+
+    public void testTypedTicketIdIsNormalized() {
+        if (!BjoernSpecRules.normalizeReferenceKey(" jira-7 ").equals("JIRA-7")) {
+            throw new AssertionError("Typed ticket ids should be looked up in upper case");
+        }
+        if (!BjoernSpecRules.normalizeReferenceKey("https://example.org/a-1").equals("https://example.org/a-1")) {
+            throw new AssertionError("URLs should be looked up as written");
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package de.mehtrick.bjoern;
+
+public class BjoernSectionModelTest {
+
+    private static final String SPEC = "Feature: Test\n" +
+            "Background:\n" +
+            "  Given:\n" +
+            "    - Ein Automat\n" +
+            "Scenarios:\n" +
+            "  - Scenario: Erstes\n" +
+            "    Given:\n" +
+            "      - Mit \"2\" Flaschen Cola\n" +
+            "  - Scenario: Zweites\n" +
+            "    Then:\n" +
+            "      - Fertig\n";
+
+    public void testLineAtOffsets() {
+        BjoernSectionModel model = BjoernSectionModel.build(SPEC);
+        if (model.lineAt(0) != 0) {
+            throw new AssertionError("Offset 0 should be on line 0");
+        }
+        int backgroundStart = SPEC.indexOf("Background:");
+        if (model.lineAt(backgroundStart) != 1 || model.lineAt(backgroundStart + 3) != 1) {
+            throw new AssertionError("Offsets inside 'Background:' should be on line 1");
+        }
+        if (model.lineAt(SPEC.length()) != model.getLineCount() - 1) {
+            throw new AssertionError("End offset should be on the last line");
+        }
+    }
+
+    public void testSectionStates() {
+        BjoernSectionModel model = BjoernSectionModel.build(SPEC);
+
+        int backgroundGiven = model.lineAt(SPEC.indexOf("  Given:"));
+        if ((model.stateBefore(backgroundGiven) & BjoernSectionModel.IN_BACKGROUND) == 0) {
+            throw new AssertionError("Given under Background should be in the Background section");
+        }
+
+        int scenarioItem = model.lineAt(SPEC.indexOf("  - Scenario: Erstes"));
+        int scenarioState = model.stateBefore(scenarioItem);
+        if ((scenarioState & BjoernSectionModel.IN_SCENARIOS) == 0 || model.isInScenarioBefore(scenarioItem)) {
+            throw new AssertionError("First Scenario item should only be under Scenarios");
+        }
+
+        int scenarioStep = model.lineAt(SPEC.indexOf("      - Mit"));
+        if (!model.isInScenarioBefore(scenarioStep)) {
+            throw new AssertionError("Step under a Scenario should be inside the Scenario");
+        }
+        if (BjoernSectionModel.lastSection(model.stateBefore(scenarioStep)) != BjoernSectionModel.LAST_GIVEN) {
+            throw new AssertionError("Step under 'Given:' should have Given as last section");
+        }
+    }
+
+    public void testIncrementalUpdateMatchesRebuild() {
+        java.util.Random random = new java.util.Random(42);
+        String[] fragments = {"\n", "Background:\n", "Scenarios:\n", "  - Scenario: X\n", "    When:\n",
+                "      - step \"1\"\n", "Given:", "x", "  "};
+        StringBuilder text = new StringBuilder(SPEC);
+        BjoernSectionModel model = BjoernSectionModel.build(text);
+
+        for (int round = 0; round < 2000; round++) {
+            int offset = random.nextInt(text.length() + 1);
+            int oldLength = random.nextInt(Math.min(12, text.length() - offset) + 1);
+            String inserted = random.nextBoolean() ? fragments[random.nextInt(fragments.length)] : "";
+            text.replace(offset, offset + oldLength, inserted);
+            model.update(text, offset, oldLength, inserted.length());
+
+            BjoernSectionModel expected = BjoernSectionModel.build(text);
+            if (model.getLineCount() != expected.getLineCount()) {
+                throw new AssertionError("Line count differs after edit " + round);
+            }
+            for (int line = 0; line < expected.getLineCount(); line++) {
+                if (model.getLineStart(line) != expected.getLineStart(line)
+                        || model.stateBefore(line) != expected.stateBefore(line)) {
+                    throw new AssertionError("Line " + line + " differs from a rebuild after edit " + round);
+                }
+            }
+        }
+    }
+
+    public void testMatchesFullRescan() {
+        BjoernSectionModel model = BjoernSectionModel.build(SPEC);
+        for (int line = 0; line < model.getLineCount(); line++) {
+            int lineStart = model.getLineStart(line);
+            boolean expected = false;
+            for (String previous : SPEC.substring(0, lineStart).split("\n")) {
+                String trimmed = previous.trim();
+                if (trimmed.startsWith("Background:") || trimmed.startsWith("Scenarios:")) {
+                    expected = false;
+                } else if (trimmed.startsWith("- Scenario:")) {
+                    expected = true;
+                }
+            }
+            if (model.isInScenarioBefore(line) != expected) {
+                throw new AssertionError("Scenario state differs from a full rescan on line " + line);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package de.mehtrick.bjoern;
+
+import java.util.*;
+
+public class BjoernStepSimilarityTest {
+
+    public void testNearDuplicatesAreClustered() {
+        Map<String, Integer> usages = new LinkedHashMap<>();
+        usages.put("Ein Automat", 40);
+        usages.put("Ein Automat ist da", 3);
+        usages.put("ein  automat", 1);
+        usages.put("Mit \"\" Flaschen Cola", 25);
+        usages.put("Der Kunde bezahlt mit Karte", 12);
+
+        List<List<String>> clusters = BjoernStepSimilarity.cluster(usages, BjoernStepSimilarity.DEFAULT_THRESHOLD);
+        if (!clusters.equals(List.of(List.of("Ein Automat", "Ein Automat ist da", "ein  automat")))) {
+            throw new AssertionError("Unexpected clusters " + clusters);
+        }
+    }
+
+    public void testCanonicalIsMostUsedThenShortest() {
+        Map<String, Integer> usages = new LinkedHashMap<>();
+        usages.put("Ein Automat ist da", 5);
+        usages.put("Ein Automat ist dort", 5);
+        usages.put("Ein Automat ist da.", 9);
+
+        List<List<String>> clusters = BjoernStepSimilarity.cluster(usages, BjoernStepSimilarity.DEFAULT_THRESHOLD);
+        if (!clusters.equals(List.of(List.of("Ein Automat ist da.", "Ein Automat ist da", "Ein Automat ist dort")))) {
+            throw new AssertionError("Unexpected clusters " + clusters);
+        }
+    }
+
+    public void testJaccardOfShingles() {
+        if (BjoernStepSimilarity.similarity("Ein Automat", "EIN   Automat") != 1.0) {
+            throw new AssertionError("Case and whitespace should not matter");
+        }
+        double similarity = BjoernStepSimilarity.similarity("Ein Automat", "Ein Automat ist da");
+        if (similarity < 0.6 || similarity > 0.62) {
+            throw new AssertionError("Expected a similarity of 11/18 but got " + similarity);
+        }
+    }
+
+    public void testLargeCorpusFindsPlantedDuplicates() {
+        Random random = new Random(5);
+        String[] words = {"der", "die", "das", "Kunde", "Automat", "Flasche", "bezahlt", "w\u00e4hlt", "mit", "Karte",
+                "bar", "Getr\u00e4nk", "aus", "hat", "keine", "genug", "Geld", "Fach", "leer", "voll", "Preis", "zeigt"};
+        Map<String, Integer> usages = new HashMap<>();
+        List<String> planted = new ArrayList<>();
+        while (usages.size() < 20_000) {
+            StringBuilder step = new StringBuilder();
+            for (int w = 0; w < 6 + random.nextInt(4); w++) {
+                step.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            step.append(usages.size());
+            usages.put(step.toString(), 1 + random.nextInt(10));
+            if (usages.size() % 1000 == 0) {
+                String twin = step + " !";
+                usages.put(twin, 1);
+                planted.add(twin);
+            }
+        }
+
+        Set<String> clustered = new HashSet<>();
+        for (List<String> cluster : BjoernStepSimilarity.cluster(usages, 0.8)) {
+            clustered.addAll(cluster);
+        }
+        for (String twin : planted) {
+            if (!clustered.contains(twin)) {
+                throw new AssertionError("Planted near duplicate not found: " + twin);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package de.mehtrick.bjoern;
+
+import java.util.List;
+
+public class BjoernStepUsageInspectionTest {
+
+    public void testLocateStepsFindsStatementRanges() {
+        String text = "Scenarios:\n  - Scenario: A\n    Given:\n      - Ein \"Automat\" ist da\n    Then:\n      - Er ist leer\n";
+        List<BjoernStepUsageInspection.StepOccurrence> steps = BjoernStepUsageInspection.locateSteps(text);
+        if (steps.size() != 2) {
+            throw new AssertionError("Expected 2 steps but got " + steps.size());
+        }
+        BjoernStepUsageInspection.StepOccurrence given = steps.get(0);
+        if (!given.getContext().equals("Given") || !given.getStatement().equals("Ein \"Automat\" ist da")) {
+            throw new AssertionError("Unexpected first step: " + given.getContext() + " " + given.getStatement());
+        }
+        if (!given.getRange().substring(text).equals(given.getStatement())) {
+            throw new AssertionError("Range does not cover the statement: " + given.getRange().substring(text));
+        }
+        if (!steps.get(1).getContext().equals("Then")) {
+            throw new AssertionError("Expected the Then step second");
+        }
+    }
+
+    public void testRepeatedInEveryScenario() {
+        BjoernFileStub.Step automat = new BjoernFileStub.Step("Given", "Ein \"Automat\" ist da");
+        BjoernFileStub.Step otherAutomat = new BjoernFileStub.Step("Given", "Ein \"Kiosk\" ist da");
+        BjoernFileStub.Step leer = new BjoernFileStub.Step("Then", "Er ist leer");
+        BjoernFileStub stub = new BjoernFileStub(null, "Kaufen", List.of(), List.of(
+                new BjoernFileStub.Scenario("A", List.of(automat, leer)),
+                new BjoernFileStub.Scenario("B", List.of(leer, automat)),
+                new BjoernFileStub.Scenario("C", List.of(otherAutomat, leer))));
+
+        List<BjoernFileStub.Step> repeated = BjoernStepUsageInspection.repeatedInEveryScenario(stub);
+        if (repeated.size() != 1 || repeated.get(0) != leer) {
+            throw new AssertionError("Expected only the Then step to be repeated verbatim but got " + repeated.size());
+        }
+    }
+
+    public void testSingleScenarioHasNoRepeatedSteps() {
+        BjoernFileStub.Step leer = new BjoernFileStub.Step("Then", "Er ist leer");
+        BjoernFileStub stub = new BjoernFileStub(null, "Kaufen", List.of(), List.of(
+                new BjoernFileStub.Scenario("A", List.of(leer))));
+        if (!BjoernStepUsageInspection.repeatedInEveryScenario(stub).isEmpty()) {
+            throw new AssertionError("A single scenario has no steps to move to the Background");
+        }
+    }
+}
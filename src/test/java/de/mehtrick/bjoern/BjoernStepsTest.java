@@ -0,0 +1,44 @@
+package de.mehtrick.bjoern;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class BjoernStepsTest {
+
+    public void testParameterRangesIncludeQuotes() {
+        int[] ranges = BjoernSteps.parameterRanges("there are \"2\" bottles of \"wine\"");
+        if (!Arrays.equals(ranges, new int[]{10, 13, 25, 31})) {
+            throw new AssertionError("Unexpected parameter ranges: " + Arrays.toString(ranges));
+        }
+    }
+
+    public void testTemplateReplacesParametersWithPlaceholders() {
+        String template = BjoernSteps.toTemplate("Foo wants to drink \"1\" bottle of \"beer\"");
+        if (!template.equals("Foo wants to drink \"\" bottle of \"\"")) {
+            throw new AssertionError("Unexpected template: " + template);
+        }
+    }
+
+    public void testEscapedQuoteStaysInsideParameter() {
+        // Same parameter the highlighter and the Tab navigation see
+        String statement = "the answer is \"say \\\"hi\\\"\" now";
+        String template = BjoernSteps.toTemplate(statement);
+        if (!template.equals("the answer is \"\" now")) {
+            throw new AssertionError("Unexpected template: " + template);
+        }
+        List<String> values = BjoernSteps.parameterValues(statement);
+        if (!values.equals(List.of("say \\\"hi\\\""))) {
+            throw new AssertionError("Unexpected values: " + values);
+        }
+    }
+
+    public void testUnclosedQuoteIsNoParameter() {
+        String statement = "a step with \"1\" and a \"dangling quote";
+        if (!BjoernSteps.toTemplate(statement).equals("a step with \"\" and a \"dangling quote")) {
+            throw new AssertionError("Unexpected template: " + BjoernSteps.toTemplate(statement));
+        }
+        if (!BjoernSteps.parameterValues(statement).equals(List.of("1"))) {
+            throw new AssertionError("Unexpected values: " + BjoernSteps.parameterValues(statement));
+        }
+    }
+}
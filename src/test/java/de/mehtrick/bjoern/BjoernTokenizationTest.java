@@ -71,4 +71,21 @@ public class BjoernTokenizationTest {
             throw new AssertionError("Should have found a double-quoted string token");
         }
     }
-}
\ No newline at end of file
+
+    public void testKeywordCheckMatchesStringComparison() {
+        String[] keys = {"Feature", "Feature:", "  Given: ", "When::", "Then :", "Scenario", "Scenarios:",
+                "Scenarioz:", "Version", "Reference", "Changelog:", "Background", "background", "Gi", "",
+                ":", "  ", "Featur", "Features", "\u00c4nderung:", "F\u00e9ature", "\tThen\t"};
+        for (String key : keys) {
+            String padded = "xx" + key + "yy";
+            String keywordText = key.trim();
+            if (keywordText.endsWith(":")) {
+                keywordText = keywordText.substring(0, keywordText.length() - 1);
+            }
+            boolean expected = BjoernKeywordValidationLexer.VALID_BDD_KEYWORDS.contains(keywordText);
+            if (BjoernKeywordValidationLexer.isValidKeyword(padded, 2, 2 + key.length()) != expected) {
+                throw new AssertionError("Keyword check differs from string comparison for '" + key + "'");
+            }
+        }
+    }
+}
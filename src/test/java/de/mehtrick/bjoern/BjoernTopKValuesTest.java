@@ -0,0 +1,67 @@
+package de.mehtrick.bjoern;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class BjoernTopKValuesTest {
+
+    public void testExactBelowCapacity() {
+        BjoernTopKValues values = new BjoernTopKValues(4);
+        values.add("2");
+        values.add("0");
+        values.add("2");
+        values.add("5", 3);
+
+        List<Map.Entry<String, Integer>> top = values.top();
+        if (!top.toString().equals("[5=3, 2=2, 0=1]")) {
+            throw new AssertionError("Unexpected summary " + top);
+        }
+    }
+
+    public void testSizeStaysBounded() {
+        BjoernTopKValues values = new BjoernTopKValues(8);
+        for (int i = 0; i < 10_000; i++) {
+            values.add("value " + i);
+        }
+        if (values.size() != 8) {
+            throw new AssertionError("Summary should hold at most 8 values but holds " + values.size());
+        }
+    }
+
+    public void testFrequentValuesSurviveSkewedStream() {
+        Random random = new Random(3);
+        BjoernTopKValues values = new BjoernTopKValues(8);
+        int total = 0;
+        for (int i = 0; i < 20_000; i++) {
+            // "2" and "0" make up about 30% and 20% of the stream, the rest is noise
+            int roll = random.nextInt(10);
+            String value = roll < 3 ? "2" : roll < 5 ? "0" : "noise " + random.nextInt(5_000);
+            values.add(value);
+            total++;
+        }
+
+        List<Map.Entry<String, Integer>> top = values.top();
+        if (!top.get(0).getKey().equals("2") || !top.get(1).getKey().equals("0")) {
+            throw new AssertionError("Frequent values should rank first but got " + top);
+        }
+        // Space-Saving never underestimates and overestimates by at most total / capacity
+        int count = values.getCount("2");
+        if (count < 5_500 || count > 6_500 + total / 8) {
+            throw new AssertionError("Count of \"2\" out of bounds: " + count);
+        }
+    }
+
+    public void testMergeKeepsFrequentValues() {
+        BjoernTopKValues merged = new BjoernTopKValues(4);
+        for (int file = 0; file < 50; file++) {
+            BjoernTopKValues fileValues = new BjoernTopKValues(4);
+            fileValues.add("Cola", 3);
+            fileValues.add("Fanta " + file);
+            merged.addAll(fileValues);
+        }
+        if (merged.size() != 4 || !merged.top().get(0).getKey().equals("Cola") || merged.getCount("Cola") < 150) {
+            throw new AssertionError("Merged summary should keep the value common to all files: " + merged);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package de.mehtrick.bjoern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Emulates the editor's incremental relexing of {@link BjoernValidatingLexer}: restart at the
+ * closest restartable token before an edit, stop as soon as a token after the edit
+ * matches the previous tokens again, and compare the result with a full relex.
+ */
+public class BjoernValidatingLexerTest {
+
+    private static final String[] FRAGMENTS = {"a", " ", "\n", "\"", "\\", ":", "- ", "#", "  Given:\n",
+            "    - Mit \"2\" Flaschen\n", "Scenarios:\n", "'", "{", "}", "[", "]", "|\n"};
+
+    private static final class Token {
+        final int start;
+        final int end;
+        final Object type;
+        final int state;
+
+        Token(int start, int end, Object type, int state) {
+            this.start = start;
+            this.end = end;
+            this.type = type;
+            this.state = state;
+        }
+
+        Token shifted(int delta) {
+            return new Token(start + delta, end + delta, type, state);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Token other && start == other.start && end == other.end
+                    && type == other.type && state == other.state;
+        }
+
+        @Override
+        public int hashCode() {
+            return start * 31 + end;
+        }
+
+        @Override
+        public String toString() {
+            return type + "[" + start + "," + end + ")@" + state;
+        }
+    }
+
+    public void testRestartableTokensStartLines() {
+        BjoernValidatingLexer lexer = new BjoernValidatingLexer();
+        if (!lexer.isRestartableState(lexer.getStartState())) {
+            throw new AssertionError("Start state must be restartable");
+        }
+        String spec = generateSpec(20);
+        int restartableSteps = 0;
+        for (Token token : lex(spec, 0, 0)) {
+            if (!lexer.isRestartableState(token.state)) {
+                continue;
+            }
+            if (token.start > 0 && spec.charAt(token.start - 1) != '\n') {
+                throw new AssertionError("Lexer must only restart at the start of a line: " + token);
+            }
+            if (spec.startsWith("      - ", token.start)) {
+                restartableSteps++;
+            }
+        }
+        if (restartableSteps == 0) {
+            throw new AssertionError("Indented step lines must be restartable");
+        }
+    }
+
+    public void testRandomEditsMatchFullRelex() {
+        Random random = new Random(3);
+        StringBuilder text = new StringBuilder(generateSpec(300));
+        List<Token> tokens = lex(text, 0, 0);
+
+        for (int round = 0; round < 300; round++) {
+            int offset = random.nextInt(text.length() + 1);
+            int oldLength = random.nextInt(Math.min(20, text.length() - offset) + 1);
+            String inserted = random.nextBoolean() ? FRAGMENTS[random.nextInt(FRAGMENTS.length)] : "";
+            text.replace(offset, offset + oldLength, inserted);
+
+            tokens = relex(tokens, text, offset, oldLength, inserted.length(), new int[1]);
+            List<Token> expected = lex(text, 0, 0);
+            if (!expected.equals(tokens)) {
+                throw new AssertionError("Incremental relex differs from full relex after edit " + round
+                        + " at offset " + offset);
+            }
+        }
+    }
+
+    public void testTypingInLargeSpecRelexesFewTokens() {
+        Random random = new Random(5);
+        StringBuilder text = new StringBuilder(generateSpec(10000));
+        List<Token> tokens = lex(text, 0, 0);
+
+        for (int round = 0; round < 200; round++) {
+            // Type a character at the end of a random step line
+            int offset = text.indexOf("\n", text.indexOf("      - ", random.nextInt(text.length() - 200)));
+            text.insert(offset, 'x');
+
+            int[] relexedTokens = new int[1];
+            tokens = relex(tokens, text, offset, 0, 1, relexedTokens);
+            // A step line is about a dozen tokens: relex its own line and the next one at most
+            if (relexedTokens[0] > 30) {
+                throw new AssertionError("Typing relexed " + relexedTokens[0] + " tokens in round " + round);
+            }
+        }
+        if (!lex(text, 0, 0).equals(tokens)) {
+            throw new AssertionError("Incremental relex differs from full relex after typing");
+        }
+    }
+
+    /**
+     * Relexes after {@code oldLength} characters at {@code offset} were replaced by {@code newLength}
+     * characters, the way the editor highlighter does. Stores the number of relexed tokens in
+     * {@code relexedTokens[0]}.
+     */
+    private static List<Token> relex(List<Token> oldTokens, CharSequence text, int offset, int oldLength,
+                                     int newLength, int[] relexedTokens) {
+        BjoernValidatingLexer lexer = new BjoernValidatingLexer();
+        int delta = newLength - oldLength;
+
+        // Closest restartable token that starts before the edit
+        int restart = 0;
+        for (int i = oldTokens.size() - 1; i > 0; i--) {
+            Token token = oldTokens.get(i);
+            if (token.start < offset && lexer.isRestartableState(token.state)) {
+                restart = i;
+                break;
+            }
+        }
+        List<Token> result = new ArrayList<>(oldTokens.subList(0, restart));
+        int restartOffset = restart < oldTokens.size() ? oldTokens.get(restart).start : 0;
+        int restartState = restart < oldTokens.size() ? oldTokens.get(restart).state : lexer.getStartState();
+
+        int oldIndex = restart;
+        lexer.start(text, restartOffset, text.length(), restartState, null);
+        while (lexer.getTokenType() != null) {
+            Token token = new Token(lexer.getTokenStart(), lexer.getTokenEnd(), lexer.getTokenType(), lexer.getState());
+            if (token.start >= offset + newLength && lexer.isRestartableState(token.state)) {
+                while (oldIndex < oldTokens.size() && oldTokens.get(oldIndex).start + delta < token.start) {
+                    oldIndex++;
+                }
+                if (oldIndex < oldTokens.size() && oldTokens.get(oldIndex).start >= offset + oldLength
+                        && oldTokens.get(oldIndex).shifted(delta).equals(token)) {
+                    // Back in sync: the rest of the old tokens is still valid
+                    for (int i = oldIndex; i < oldTokens.size(); i++) {
+                        result.add(oldTokens.get(i).shifted(delta));
+                    }
+                    return result;
+                }
+            }
+            result.add(token);
+            relexedTokens[0]++;
+            lexer.advance();
+        }
+        return result;
+    }
+
+    private static List<Token> lex(CharSequence text, int start, int state) {
+        List<Token> tokens = new ArrayList<>();
+        BjoernValidatingLexer lexer = new BjoernValidatingLexer();
+        lexer.start(text, start, text.length(), state);
+        while (lexer.getTokenType() != null) {
+            tokens.add(new Token(lexer.getTokenStart(), lexer.getTokenEnd(), lexer.getTokenType(), lexer.getState()));
+            lexer.advance();
+        }
+        return tokens;
+    }
+
+    private static String generateSpec(int lines) {
+        StringBuilder spec = new StringBuilder("Feature: Kassenautomat\nReference: https://example.org\n");
+        spec.append("Background:\n  Given:\n    - Ein Automat mit \"5\" Euro\n");
+        spec.append("Scenarios:\n");
+        int line = 7;
+        for (int scenario = 0; line < lines; scenario++) {
+            spec.append("  - Scenario: Kauf ").append(scenario).append('\n');
+            spec.append("    Given:\n");
+            spec.append("      - Ein Kunde mit \"").append(scenario).append("\" Euro\n");
+            spec.append("    When:\n");
+            spec.append("      - Der Kunde kauft \"Cola\" # Kommentar\n");
+            spec.append("    Then:\n");
+            spec.append("      - Der Automat gibt \"C:\\\\Temp\\\\\" aus\n");
+            spec.append("      - Der Automat piept\n");
+            spec.append("        zweimal\n");
+            line += 9;
+        }
+        return spec.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package de.mehtrick.bjoern.cli;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import de.mehtrick.bjoern.BjoernFileType;
+
+/**
+ * Runs Reformat Code of the plugin on specs and checks that the result is what
+ * {@link SpecFormatter} of the CLI makes of them, so the two formatters cannot drift apart. Lives
+ * in the package of the CLI to reach its formatter, and runs in a light project of the platform
+ * test framework.
+ */
+public class ReformatMatchesSpecFormatterTest {
+
+    private static final String NESTED = "Feature: Kasse\n" +
+            "Background:\n" +
+            "    Given:\n" +
+            "     - Ein \"Automat\"\n" +
+            "Scenarios:\n" +
+            "      # Erstes Szenario\n" +
+            "    - Scenario: Kaufen\n" +
+            "      Given:\n" +
+            "        - Mit \"2\" Flaschen\n" +
+            "        - Ein sehr langer Schritt\n" +
+            "          in zwei Zeilen\n" +
+            "      When:\n" +
+            "              - \"Kaufen\"\n" +
+            "      Then: Fertig\n";
+
+    // Every line at column 0
+    private static final String FLAT = "Feature: Kasse\n" +
+            "Background:\n" +
+            "Given:\n" +
+            "- Ein Automat\n" +
+            "Scenarios:\n" +
+            "- Scenario: Erstes\n" +
+            "Given:\n" +
+            "- Mit \"2\" Flaschen: Cola\n" +
+            "Then:\n" +
+            "- Fertig\n" +
+            "- Scenario: Zweites\n" +
+            "When:\n" +
+            "- Kaufen\n";
+
+    // YAML nests the second scenario in the step sequence of the top-level Then before it
+    private static final String LIFTED_SCENARIO = "Feature: Kasse\n" +
+            "Scenarios:\n" +
+            "  - Scenario: Erstes\n" +
+            "Then:\n" +
+            "  - Fertig\n" +
+            "  # Kommentar\n" +
+            "  - Scenario: Zweites\n" +
+            "    When:\n" +
+            "      - Kaufen\n";
+
+    private static String reformat(String text) throws Exception {
+        IdeaProjectTestFixture fixture = IdeaTestFixtureFactory.getFixtureFactory()
+                .createLightFixtureBuilder(LightProjectDescriptor.EMPTY_PROJECT_DESCRIPTOR, "ReformatMatchesSpecFormatterTest")
+                .getFixture();
+        EdtTestUtil.runInEdtAndWait(fixture::setUp);
+        try {
+            String[] result = new String[1];
+            EdtTestUtil.runInEdtAndWait(() -> {
+                PsiFile file = PsiFileFactory.getInstance(fixture.getProject())
+                        .createFileFromText("spec.zgr", BjoernFileType.INSTANCE, text);
+                WriteCommandAction.runWriteCommandAction(fixture.getProject(),
+                        () -> CodeStyleManager.getInstance(fixture.getProject()).reformat(file));
+                result[0] = file.getText();
+            });
+            return result[0];
+        } finally {
+            EdtTestUtil.runInEdtAndWait(fixture::tearDown);
+        }
+    }
+
+    private static void assertSameAsSpecFormatter(String spec) throws Exception {
+        String expected = SpecFormatter.format(spec);
+        String actual = reformat(spec);
+        if (!actual.equals(expected)) {
+            throw new AssertionError("Reformat Code gave:\n" + actual + "but the CLI formatter gives:\n" + expected);
+        }
+    }
+
+    public void testNestedSpec() throws Exception {
+        assertSameAsSpecFormatter(NESTED);
+    }
+
+    public void testFlatSpec() throws Exception {
+        assertSameAsSpecFormatter(FLAT);
+    }
+
+    public void testLiftedScenario() throws Exception {
+        assertSameAsSpecFormatter(LIFTED_SCENARIO);
+    }
+}